@@ -0,0 +1,135 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.util.Collection;
+
+/**
+ * An ordered list of regions, tried in turn until one of them gives a valid
+ * phone number. Each success moves the region before the regions with fewer
+ * successes, so the region that succeeds the most is tried first and the
+ * failed attempts are kept to a minimum.
+ *
+ * <p>
+ * Not thread safe, each step copy or worker thread owns its list.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public final class AdaptiveRegionList {
+
+	private final String[] regions;
+	private final long[] successes;
+
+	/**
+	 * Create a list
+	 *
+	 * @param regions
+	 *            the region codes, in their initial order
+	 */
+	public AdaptiveRegionList(final Collection<String> regions) {
+		super();
+		this.regions = regions.toArray(new String[regions.size()]);
+		this.successes = new long[this.regions.length];
+	}
+
+	/**
+	 * Create a list with the regions of another list, in their current order,
+	 * without their successes.
+	 */
+	public AdaptiveRegionList(final AdaptiveRegionList list) {
+		super();
+		this.regions = list.regions.clone();
+		this.successes = new long[this.regions.length];
+	}
+
+	public int size() {
+		return regions.length;
+	}
+
+	/**
+	 * Returns the region code at an index, in the current order.
+	 */
+	public String get(final int index) {
+		return regions[index];
+	}
+
+	/**
+	 * Returns the number of successes of the region at an index.
+	 */
+	public long getSuccesses(final int index) {
+		return successes[index];
+	}
+
+	/**
+	 * Record a success of the region at an index, and move it before the
+	 * regions with fewer successes.
+	 */
+	public void success(int index) {
+		long count = ++successes[index];
+		String region = regions[index];
+		while (index > 0 && successes[index - 1] < count) {
+			regions[index] = regions[index - 1];
+			successes[index] = successes[index - 1];
+			index--;
+		}
+		regions[index] = region;
+		successes[index] = count;
+	}
+
+	/**
+	 * Add the successes of the regions of another list, like the list of a
+	 * worker thread, and move the regions before the regions with fewer
+	 * successes.
+	 */
+	public void addSuccesses(final AdaptiveRegionList list) {
+		for (int i = 0; i < list.regions.length; i++) {
+			for (int j = 0; j < regions.length; j++) {
+				if (regions[j].equals(list.regions[i])) {
+					successes[j] += list.successes[i];
+					break;
+				}
+			}
+		}
+
+		// Insertion sort, the ties keep their order
+		for (int i = 1; i < regions.length; i++) {
+			String region = regions[i];
+			long count = successes[i];
+			int index = i;
+			while (index > 0 && successes[index - 1] < count) {
+				regions[index] = regions[index - 1];
+				successes[index] = successes[index - 1];
+				index--;
+			}
+			regions[index] = region;
+			successes[index] = count;
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < regions.length; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(regions[i]).append('=').append(successes[i]);
+		}
+		return builder.toString();
+	}
+}
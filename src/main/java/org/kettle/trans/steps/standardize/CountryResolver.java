@@ -0,0 +1,209 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+
+/**
+ * Immutable lookup table resolving a country value to a phone number region
+ * code.
+ *
+ * <p>
+ * Resolves ISO 3166 alpha-2, alpha-3 and numeric codes and the common country
+ * names in English and French, case insensitive, ignoring leading and trailing
+ * blanks. The lookup does not allocate.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public final class CountryResolver {
+
+	private static final String COUNTRIES_RESOURCE = "countries.csv"; //$NON-NLS-1$
+
+	private static CountryResolver instance;
+
+	private final String[] keys;
+	private final String[] regions;
+	private final int mask;
+
+	/**
+	 * Returns the table of the regions supported by libphonenumber, built on
+	 * first use and shared by all steps.
+	 */
+	public static synchronized CountryResolver getInstance() {
+		if (instance == null) {
+			instance = new CountryResolver(PhoneNumberUtil.getInstance().getSupportedRegions());
+		}
+		return instance;
+	}
+
+	/**
+	 * Build a table
+	 *
+	 * @param supportedRegions
+	 *            the regions codes that can be resolved
+	 */
+	public CountryResolver(final Set<String> supportedRegions) {
+		super();
+
+		Map<String, String> aliases = new LinkedHashMap<>();
+
+		// Region code itself
+		for (String region : supportedRegions) {
+			add(aliases, region, region);
+		}
+
+		// ISO 3166 codes and names
+		try (InputStream stream = CountryResolver.class.getResourceAsStream(COUNTRIES_RESOURCE)) {
+			if (stream != null) {
+				BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.isEmpty() || line.charAt(0) == '#')
+						continue;
+
+					String[] values = line.split(";");
+					String region = values[0];
+					if (!supportedRegions.contains(region))
+						continue;
+
+					for (int i = 1; i < values.length; i++) {
+						add(aliases, values[i], region);
+					}
+
+					// Numeric code without leading zero
+					if (values.length > 2 && !values[2].isEmpty()) {
+						add(aliases, String.valueOf(Integer.parseInt(values[2])), region);
+					}
+				}
+			}
+		} catch (IOException | NumberFormatException e) {
+			// Keep what has been read
+		}
+
+		// Localized names
+		for (String region : supportedRegions) {
+			Locale locale = new Locale("", region);
+			add(aliases, locale.getDisplayCountry(Locale.ENGLISH), region);
+			add(aliases, locale.getDisplayCountry(Locale.FRENCH), region);
+		}
+
+		int capacity = Integer.highestOneBit(Math.max(aliases.size(), 1) * 2) << 1;
+		this.keys = new String[capacity];
+		this.regions = new String[capacity];
+		this.mask = capacity - 1;
+
+		for (Map.Entry<String, String> entry : aliases.entrySet()) {
+			String key = entry.getKey();
+			int slot = hash(key, 0, key.length()) & mask;
+			while (keys[slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = key;
+			regions[slot] = entry.getValue();
+		}
+	}
+
+	private static void add(final Map<String, String> aliases, final String name, final String region) {
+		if (name == null)
+			return;
+
+		String key = fold(name.trim());
+		if (key.isEmpty())
+			return;
+
+		// The first declared alias wins
+		if (!aliases.containsKey(key)) {
+			aliases.put(key, region);
+		}
+
+		// Also without diacritics
+		String ascii = fold(Normalizer.normalize(name.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", ""));
+		if (!aliases.containsKey(ascii)) {
+			aliases.put(ascii, region);
+		}
+	}
+
+	private static String fold(final String value) {
+		char[] chars = new char[value.length()];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = Character.toUpperCase(value.charAt(i));
+		}
+		return new String(chars);
+	}
+
+	private static int hash(final CharSequence value, final int start, final int end) {
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			h = 31 * h + Character.toUpperCase(value.charAt(i));
+		}
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Resolve a country value to a region code.
+	 *
+	 * @param value
+	 *            the ISO code or name of the country
+	 * @return the region code, or null if the value is not resolved
+	 */
+	public String resolve(final CharSequence value) {
+		if (value == null)
+			return null;
+
+		// Ignore leading and trailing blanks
+		int start = 0;
+		int end = value.length();
+		while (start < end && Character.isWhitespace(value.charAt(start)))
+			start++;
+		while (end > start && Character.isWhitespace(value.charAt(end - 1)))
+			end--;
+		if (start == end)
+			return null;
+
+		int slot = hash(value, start, end) & mask;
+		String key;
+		while ((key = keys[slot]) != null) {
+			if (matches(key, value, start, end)) {
+				return regions[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	private static boolean matches(final String key, final CharSequence value, final int start, final int end) {
+		if (key.length() != end - start)
+			return false;
+		for (int i = start; i < end; i++) {
+			if (key.charAt(i - start) != Character.toUpperCase(value.charAt(i)))
+				return false;
+		}
+		return true;
+	}
+}
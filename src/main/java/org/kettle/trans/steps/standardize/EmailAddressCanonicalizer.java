@@ -0,0 +1,196 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Canonical form of the email addresses of the providers ignoring some
+ * variations of the local part, like "john.doe+news@googlemail.com" for
+ * "johndoe@gmail.com".
+ *
+ * <p>
+ * The provider rules are read from a file, one domain per line:
+ * <code>domain;canonical domain;tag separators;options</code>. An empty
+ * canonical domain keeps the domain. The local part is cut at the first tag
+ * separator. The options, separated by commas, are <code>dots</code> to
+ * remove the dots of the local part and <code>subdomain</code> for the
+ * addresses like "anything@john.fastmail.com" of the mailbox
+ * "john@fastmail.com". The lines starting with # are ignored.
+ * </p>
+ *
+ * <p>
+ * The rules are compiled in a hash map by domain, and applied with a single
+ * loop over the local part. Immutable and thread safe, shared by the step
+ * worker threads.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public final class EmailAddressCanonicalizer {
+
+	private static final String PROVIDERS_RESOURCE = "email-providers.csv"; //$NON-NLS-1$
+
+	private static final String OPTION_DOTS = "dots"; //$NON-NLS-1$
+	private static final String OPTION_SUBDOMAIN = "subdomain"; //$NON-NLS-1$
+
+	private static EmailAddressCanonicalizer instance;
+
+	/**
+	 * The operations of a provider domain.
+	 */
+	private static final class Rule {
+		final String domain;
+		final String tagSeparators;
+		final boolean removeDots;
+		final boolean subdomain;
+
+		Rule(final String domain, final String tagSeparators, final boolean removeDots, final boolean subdomain) {
+			this.domain = domain;
+			this.tagSeparators = tagSeparators;
+			this.removeDots = removeDots;
+			this.subdomain = subdomain;
+		}
+	}
+
+	private final Map<String, Rule> rules;
+
+	private EmailAddressCanonicalizer(final Map<String, Rule> rules) {
+		this.rules = rules;
+	}
+
+	/**
+	 * Returns the bundled rules of the common providers, read on first use and
+	 * shared by all steps.
+	 */
+	public static synchronized EmailAddressCanonicalizer getDefault() throws IOException {
+		if (instance == null) {
+			instance = LineReader.readResource(PROVIDERS_RESOURCE, EmailAddressCanonicalizer::read);
+		}
+		return instance;
+	}
+
+	/**
+	 * Load the provider rules of a file.
+	 */
+	public static EmailAddressCanonicalizer load(final Path file) throws IOException {
+		return LineReader.readFile(file, EmailAddressCanonicalizer::read);
+	}
+
+	/**
+	 * Read the provider rules, one domain per line.
+	 *
+	 * @throws IOException
+	 *             if a line is not a valid rule
+	 */
+	public static EmailAddressCanonicalizer read(final Reader reader) throws IOException {
+		Map<String, Rule> rules = new HashMap<>();
+		LineReader.read(reader, (line, number) -> {
+			String[] values = line.split(";", -1);
+			String domain = values[0].trim().toLowerCase(Locale.ROOT);
+			if (domain.isEmpty() || domain.indexOf('@') >= 0 || values.length > 4) {
+				throw new IOException("Invalid provider rule at line " + number + ": " + line);
+			}
+			String canonical = (values.length > 1) ? values[1].trim().toLowerCase(Locale.ROOT) : "";
+			String tagSeparators = (values.length > 2) ? values[2].trim() : "";
+
+			boolean removeDots = false;
+			boolean subdomain = false;
+			if (values.length > 3) {
+				for (String option : values[3].split(",")) {
+					option = option.trim();
+					if (OPTION_DOTS.equalsIgnoreCase(option)) {
+						removeDots = true;
+					} else if (OPTION_SUBDOMAIN.equalsIgnoreCase(option)) {
+						subdomain = true;
+					} else if (!option.isEmpty()) {
+						throw new IOException("Unknown option at line " + number + ": " + option);
+					}
+				}
+			}
+
+			rules.put(domain, new Rule(canonical.isEmpty() ? domain : canonical, tagSeparators, removeDots, subdomain));
+		});
+
+		return new EmailAddressCanonicalizer(rules);
+	}
+
+	/**
+	 * Returns the canonical form of an email address.
+	 *
+	 * @param localPart
+	 *            the local part in lower case
+	 * @param domain
+	 *            the domain in lower case
+	 * @return the canonical email address, or null if no rule changes the
+	 *         address
+	 */
+	public String canonicalize(final String localPart, final String domain) {
+
+		// A quoted local part is left as is
+		if (localPart.isEmpty() || localPart.charAt(0) == '"') {
+			return null;
+		}
+
+		String local = localPart;
+		Rule rule = rules.get(domain);
+		if (rule == null) {
+			// The mailbox as the first label of the domain
+			int dot = domain.indexOf('.');
+			if (dot <= 0) {
+				return null;
+			}
+			rule = rules.get(domain.substring(dot + 1));
+			if (rule == null || !rule.subdomain) {
+				return null;
+			}
+			local = domain.substring(0, dot);
+		}
+
+		StringBuilder canonical = new StringBuilder(local.length() + rule.domain.length() + 1);
+		for (int i = 0; i < local.length(); i++) {
+			char c = local.charAt(i);
+			if (rule.tagSeparators.indexOf(c) >= 0) {
+				break;
+			}
+			if (c == '.' && rule.removeDots) {
+				continue;
+			}
+			canonical.append(c);
+		}
+
+		// Nothing but a tag, like "+news@gmail.com"
+		if (canonical.length() == 0) {
+			return null;
+		}
+
+		canonical.append('@').append(rule.domain);
+		return canonical.toString();
+	}
+
+	/**
+	 * Returns the number of provider domains.
+	 */
+	public int size() {
+		return rules.size();
+	}
+}
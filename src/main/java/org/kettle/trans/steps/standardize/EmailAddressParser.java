@@ -0,0 +1,500 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.util.Locale;
+
+/**
+ * Parse a single RFC 5322 email address, a bare addr-spec like
+ * "john.doe@pentaho.com" or a name-addr like "John Doe
+ * &lt;john.doe@pentaho.com&gt;", with optional comments around it.
+ *
+ * <p>
+ * A bare addr-spec, the common case, is validated in one scan of its
+ * characters. The display name of a name-addr is skipped by a second scan.
+ * Nothing is allocated but the normalized address, and an invalid value
+ * returns a {@link Status} instead of throwing an exception.
+ * </p>
+ *
+ * <p>
+ * The local part is a sequence of atoms and quoted strings separated by dots.
+ * Like javax.mail InternetAddress, consecutive, leading and trailing dots are
+ * tolerated in the local part (obsolete syntax still found in mobile carrier
+ * addresses). The domain is a sequence of labels of letters, digits and
+ * hyphens separated by single dots, like InternetAddress, or a domain literal.
+ * Address lists, groups and route addresses are rejected, and
+ * so are non ASCII characters outside of the quoted strings.
+ * </p>
+ *
+ * <p>
+ * Not thread safe, each step copy or worker thread owns its parser.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public class EmailAddressParser {
+
+	/**
+	 * The result of parsing a value.
+	 */
+	public enum Status {
+		/** A valid email address */
+		VALID,
+		/** Empty or blank value */
+		EMPTY,
+		/** Unbalanced quote, comment or angle bracket, or misplaced special character */
+		SYNTAX,
+		/** More than one email address */
+		MULTIPLE_ADDRESSES,
+		/** No @ between the local part and the domain */
+		MISSING_AT,
+		/** Nothing before the @ */
+		MISSING_LOCAL_PART,
+		/** Invalid local part, like a space */
+		INVALID_LOCAL_PART,
+		/** Nothing after the @ */
+		MISSING_DOMAIN,
+		/** Invalid domain, like a double dot, a second @ or an underscore */
+		INVALID_DOMAIN,
+		/** A control or non ASCII character outside of a quoted string */
+		INVALID_CHARACTER
+	}
+
+	private static final Status[] STATUSES = Status.values();
+
+	/** The atext characters of RFC 5322, by ASCII code */
+	private static final boolean[] ATEXT = new boolean[128];
+
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			ATEXT[c] = true;
+		}
+		for (char c = 'A'; c <= 'Z'; c++) {
+			ATEXT[c] = true;
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			ATEXT[c] = true;
+		}
+		for (char c : "!#$%&'*+-/=?^_`{|}~".toCharArray()) {
+			ATEXT[c] = true;
+		}
+	}
+
+	/** The characters of a domain label, by ASCII code */
+	private static final boolean[] LABEL = new boolean[128];
+
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			LABEL[c] = true;
+		}
+		for (char c = 'A'; c <= 'Z'; c++) {
+			LABEL[c] = true;
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			LABEL[c] = true;
+		}
+		LABEL['-'] = true;
+	}
+
+	private CharSequence value;
+	private Status status;
+	private int localStart;
+	private int localEnd;
+	private int domainStart;
+	private int domainEnd;
+
+	/** The start of the last label of the domain, or -1 for a domain literal */
+	private int tldStart;
+
+	/** The normalized address, computed once by {@link #getAddress()} */
+	private String address;
+
+	/**
+	 * Parse a value.
+	 *
+	 * @param value
+	 *            the value, not null
+	 * @return the status, {@link Status#VALID} if the value is one email
+	 *         address
+	 */
+	public Status parse(final CharSequence value) {
+		this.value = value;
+		this.localStart = this.localEnd = this.domainStart = this.domainEnd = 0;
+		this.tldStart = -1;
+		this.address = null;
+
+		int length = value.length();
+		int start = skipComments(0);
+		if (start < 0) {
+			return status = Status.SYNTAX;
+		}
+		if (start == length) {
+			return status = Status.EMPTY;
+		}
+
+		// A bare addr-spec
+		Status error;
+		int end = parseAddrSpec(start);
+		if (end >= 0) {
+			end = skipComments(end);
+			if (end == length) {
+				return status = Status.VALID;
+			}
+			error = (end >= 0 && value.charAt(end) == ',') ? Status.MULTIPLE_ADDRESSES : Status.SYNTAX;
+		} else {
+			error = STATUSES[~end];
+		}
+
+		// A name-addr, the display name is skipped
+		int open = skipDisplayName(start);
+		if (open < 0) {
+			if (open == -2) {
+				error = Status.MULTIPLE_ADDRESSES;
+			}
+			return status = error;
+		}
+
+		int index = skipWhitespaces(open + 1);
+		if (index < length && value.charAt(index) == '>') {
+			return status = Status.EMPTY;
+		}
+		index = parseAddrSpec(index);
+		if (index < 0) {
+			return status = STATUSES[~index];
+		}
+		index = skipWhitespaces(index);
+		if (index == length || value.charAt(index) != '>') {
+			return status = Status.SYNTAX;
+		}
+		index = skipComments(index + 1);
+		if (index < 0) {
+			return status = Status.SYNTAX;
+		}
+		if (index < length) {
+			return status = (value.charAt(index) == ',') ? Status.MULTIPLE_ADDRESSES : Status.SYNTAX;
+		}
+		return status = Status.VALID;
+	}
+
+	/**
+	 * Parse an addr-spec.
+	 *
+	 * @return the index after the domain, or the complement of the status
+	 *         ordinal if invalid
+	 */
+	private int parseAddrSpec(int index) {
+		final int length = value.length();
+		final int start = index;
+
+		// The local part: atoms and quoted strings separated by dots
+		boolean word = false;
+		while (true) {
+			if (index == length) {
+				return (index == start) ? ~Status.MISSING_LOCAL_PART.ordinal() : ~Status.MISSING_AT.ordinal();
+			}
+			char c = value.charAt(index);
+			if (c == '@') {
+				break;
+			}
+			if (c == '.') {
+				word = false;
+				index++;
+			} else if (c == '"') {
+				if (word) {
+					return ~Status.INVALID_LOCAL_PART.ordinal();
+				}
+				index = skipQuotedString(index);
+				if (index < 0) {
+					return ~Status.SYNTAX.ordinal();
+				}
+				word = true;
+			} else if (c < 128 && ATEXT[c]) {
+				if (word && value.charAt(index - 1) == '"') {
+					return ~Status.INVALID_LOCAL_PART.ordinal();
+				}
+				word = true;
+				index++;
+			} else if (c < ' ' || c >= 127) {
+				return ~Status.INVALID_CHARACTER.ordinal();
+			} else {
+				return ~Status.INVALID_LOCAL_PART.ordinal();
+			}
+		}
+		if (index == start) {
+			return ~Status.MISSING_LOCAL_PART.ordinal();
+		}
+		this.localStart = start;
+		this.localEnd = index;
+
+		// The domain: labels separated by single dots, or a domain literal
+		index++;
+		this.domainStart = index;
+		if (index == length) {
+			return ~Status.MISSING_DOMAIN.ordinal();
+		}
+		char c = value.charAt(index);
+		if (c == '[') {
+			this.tldStart = -1;
+			for (index++; index < length; index++) {
+				c = value.charAt(index);
+				if (c == ']') {
+					break;
+				}
+				if (c == '[' || c == '\\' || c <= ' ' || c >= 127) {
+					return ~Status.INVALID_DOMAIN.ordinal();
+				}
+			}
+			if (index == length) {
+				return ~Status.SYNTAX.ordinal();
+			}
+			index++;
+		} else {
+			while (true) {
+				int label = index;
+				this.tldStart = label;
+				while (index < length && (c = value.charAt(index)) < 128 && LABEL[c]) {
+					index++;
+				}
+				if (index == label) {
+					if (index == domainStart && (index == length || isDelimiter(c))) {
+						return ~Status.MISSING_DOMAIN.ordinal();
+					}
+					return (c < ' ' || c >= 127) ? ~Status.INVALID_CHARACTER.ordinal()
+							: ~Status.INVALID_DOMAIN.ordinal();
+				}
+				if (index == length || value.charAt(index) != '.') {
+					break;
+				}
+				index++;
+			}
+			if (index < length && !isDelimiter(c = value.charAt(index))) {
+				return (c < ' ' || c >= 127) ? ~Status.INVALID_CHARACTER.ordinal() : ~Status.INVALID_DOMAIN.ordinal();
+			}
+		}
+		this.domainEnd = index;
+
+		return index;
+	}
+
+	/**
+	 * Returns true if a character can follow an address.
+	 */
+	private static boolean isDelimiter(final char c) {
+		return c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == '(' || c == '>' || c == ',';
+	}
+
+	/**
+	 * Skip a display name up to the opening angle bracket.
+	 *
+	 * @return the index of the angle bracket, -2 if a comma is found first,
+	 *         or -1 if invalid
+	 */
+	private int skipDisplayName(int index) {
+		final int length = value.length();
+		while (index < length) {
+			char c = value.charAt(index);
+			switch (c) {
+			case '<':
+				return index;
+			case '"':
+				index = skipQuotedString(index);
+				if (index < 0) {
+					return -1;
+				}
+				break;
+			case '(':
+				index = skipComment(index);
+				if (index < 0) {
+					return -1;
+				}
+				break;
+			case ',':
+				return -2;
+			case '>':
+			case ')':
+			case '[':
+			case ']':
+			case ':':
+			case ';':
+			case '\\':
+				return -1;
+			default:
+				index++;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index after a quoted string, or -1 if not terminated.
+	 */
+	private int skipQuotedString(int index) {
+		final int length = value.length();
+		for (index++; index < length; index++) {
+			char c = value.charAt(index);
+			if (c == '\\') {
+				index++;
+			} else if (c == '"') {
+				return index + 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index after a comment, nested or not, or -1 if not
+	 * terminated.
+	 */
+	private int skipComment(int index) {
+		final int length = value.length();
+		int nesting = 0;
+		for (; index < length; index++) {
+			char c = value.charAt(index);
+			if (c == '\\') {
+				index++;
+			} else if (c == '(') {
+				nesting++;
+			} else if (c == ')' && --nesting == 0) {
+				return index + 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index after the white spaces and comments, or -1 if a
+	 * comment is not terminated.
+	 */
+	private int skipComments(int index) {
+		final int length = value.length();
+		while (index < length) {
+			char c = value.charAt(index);
+			if (c == '(') {
+				index = skipComment(index);
+				if (index < 0) {
+					return -1;
+				}
+			} else if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+				index++;
+			} else {
+				break;
+			}
+		}
+		return index;
+	}
+
+	private int skipWhitespaces(int index) {
+		final int length = value.length();
+		while (index < length) {
+			char c = value.charAt(index);
+			if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+				break;
+			}
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the status of the last parsed value.
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Returns the email address of the last valid value, in lower case, like
+	 * "john.doe@pentaho.com".
+	 */
+	public String getAddress() {
+		if (status != Status.VALID) {
+			return null;
+		}
+		if (address == null) {
+			address = normalize();
+		}
+		return address;
+	}
+
+	/**
+	 * Returns the local part of the last valid value, in lower case, like
+	 * "john.doe".
+	 */
+	public String getLocalPart() {
+		String address = getAddress();
+		if (address == null) {
+			return null;
+		}
+		return address.substring(0, address.length() - (domainEnd - localEnd));
+	}
+
+	/**
+	 * Returns the domain of the last valid value, in lower case, like
+	 * "pentaho.com".
+	 */
+	public String getDomain() {
+		String address = getAddress();
+		if (address == null) {
+			return null;
+		}
+		return address.substring(address.length() - (domainEnd - domainStart));
+	}
+
+	/**
+	 * Returns the top level domain of the last valid value, in lower case,
+	 * like "com", or null for a domain literal.
+	 */
+	public String getTopLevelDomain() {
+		String address = getAddress();
+		if (address == null || tldStart < 0) {
+			return null;
+		}
+		return address.substring(address.length() - (domainEnd - tldStart));
+	}
+
+	/**
+	 * The domain is ASCII, the components are located from the end of the
+	 * address in case the lower case of the local part changes its length.
+	 */
+	private String normalize() {
+
+		// ASCII fast path, the value is returned as is if already normalized
+		boolean lower = true;
+		for (int i = localStart; i < domainEnd; i++) {
+			char c = value.charAt(i);
+			if (c >= 128) {
+				return value.subSequence(localStart, domainEnd).toString().toLowerCase(Locale.ROOT);
+			}
+			if (c >= 'A' && c <= 'Z') {
+				lower = false;
+			}
+		}
+		if (lower) {
+			if (localStart == 0 && domainEnd == value.length() && value instanceof String) {
+				return (String) value;
+			}
+			return value.subSequence(localStart, domainEnd).toString();
+		}
+
+		char[] chars = new char[domainEnd - localStart];
+		for (int i = 0; i < chars.length; i++) {
+			char c = value.charAt(localStart + i);
+			chars[i] = (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,284 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Suggest the popular domain of a misspelled email domain, like "gmail.com"
+ * for "gmial.com".
+ *
+ * <p>
+ * The popular domains are indexed at init by their deletions (SymSpell): each
+ * string obtained by deleting up to two characters of a domain points to the
+ * domain. The candidates of a domain are found by looking up its own
+ * deletions, then checked with the optimal string alignment distance, which
+ * counts a transposition as one edit. A lookup costs a few dozen map lookups
+ * instead of an edit distance with each popular domain.
+ * </p>
+ *
+ * <p>
+ * The maximum distance is one edit for each four characters of the domain, at
+ * most two, so short domains are not corrected into popular ones. A candidate
+ * is not suggested if only its top level domain differs and the top level
+ * domain of the domain is valid, like "yahoo.com" for "yahoo.ca", nor if its
+ * first character differs without a transposition, like "gmail.com" for
+ * "email.com": these are more often other real domains than typos.
+ * </p>
+ *
+ * <p>
+ * The closest candidate wins, then the first one in the list of popular
+ * domains. The suggestion is cached by domain. Thread safe, shared by the
+ * step worker threads.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public final class EmailDomainCorrector {
+
+	private static final String POPULAR_DOMAINS_RESOURCE = "popular-domains.txt"; //$NON-NLS-1$
+
+	/** The maximum edit distance of a suggestion */
+	private static final int MAX_DISTANCE = 2;
+
+	/** The maximum number of cached domains, the suggestions of other domains are computed each time */
+	private static final int MAX_CACHE_SIZE = 100_000;
+
+	/** The cached value of a domain without suggestion */
+	private static final String NONE = ""; //$NON-NLS-1$
+
+	private static EmailDomainCorrector instance;
+
+	/** The popular domains, by popularity */
+	private final String[] domains;
+
+	/** The popular domains themselves, never corrected */
+	private final Set<String> known;
+
+	/** The indexes of the popular domains, by deletion */
+	private final Map<String, int[]> deletions;
+
+	/** The valid top level domains, never corrected alone */
+	private final EmailDomainSet topLevelDomains;
+
+	private final Map<String, String> cache = new ConcurrentHashMap<>();
+
+	private EmailDomainCorrector(final List<String> domains, final EmailDomainSet topLevelDomains) {
+		this.domains = domains.toArray(new String[domains.size()]);
+		this.known = new HashSet<>(domains);
+		this.topLevelDomains = topLevelDomains;
+
+		Map<String, int[]> deletions = new HashMap<>();
+		for (int i = 0; i < this.domains.length; i++) {
+			for (String deletion : deletions(this.domains[i], MAX_DISTANCE)) {
+				int[] indexes = deletions.get(deletion);
+				if (indexes == null) {
+					indexes = new int[] { i };
+				} else {
+					indexes = Arrays.copyOf(indexes, indexes.length + 1);
+					indexes[indexes.length - 1] = i;
+				}
+				deletions.put(deletion, indexes);
+			}
+		}
+		this.deletions = deletions;
+	}
+
+	/**
+	 * Returns the corrector of the bundled popular domains, built on first use
+	 * and shared by all steps.
+	 */
+	public static synchronized EmailDomainCorrector getDefault() throws IOException {
+		if (instance == null) {
+			instance = LineReader.readResource(POPULAR_DOMAINS_RESOURCE, EmailDomainCorrector::read);
+		}
+		return instance;
+	}
+
+	/**
+	 * Load the popular domains of a file.
+	 */
+	public static EmailDomainCorrector load(final Path file) throws IOException {
+		return LineReader.readFile(file, EmailDomainCorrector::read);
+	}
+
+	/**
+	 * Read the popular domains, one domain per line by popularity. The empty
+	 * lines and the lines starting with # are ignored. The valid top level
+	 * domains are the bundled ones.
+	 */
+	public static EmailDomainCorrector read(final Reader reader) throws IOException {
+		Set<String> domains = new LinkedHashSet<>();
+		LineReader.read(reader, (line, number) -> domains.add(line.toLowerCase(Locale.ROOT)));
+		return new EmailDomainCorrector(new ArrayList<>(domains), EmailDomainSet.getTopLevelDomains());
+	}
+
+	/**
+	 * Returns the strings obtained by deleting up to a number of characters,
+	 * the string itself included.
+	 */
+	static Set<String> deletions(final String value, final int distance) {
+		Set<String> deletions = new HashSet<>();
+		deletions.add(value);
+		addDeletions(value, distance, deletions);
+		return deletions;
+	}
+
+	private static void addDeletions(final String value, final int distance, final Set<String> deletions) {
+		if (distance == 0 || value.length() <= 1) {
+			return;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			String deletion = value.substring(0, i) + value.substring(i + 1);
+			if (deletions.add(deletion)) {
+				addDeletions(deletion, distance - 1, deletions);
+			}
+		}
+	}
+
+	/**
+	 * Returns the optimal string alignment distance of two strings, or a
+	 * value greater than the maximum if it exceeds it.
+	 */
+	static int distance(final String a, final String b, final int max) {
+		if (Math.abs(a.length() - b.length()) > max) {
+			return max + 1;
+		}
+
+		int[] previous2 = new int[b.length() + 1];
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			int minimum = i;
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = (a.charAt(i - 1) == b.charAt(j - 1)) ? 0 : 1;
+				int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+				if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+					value = Math.min(value, previous2[j - 2] + 1);
+				}
+				current[j] = value;
+				minimum = Math.min(minimum, value);
+			}
+			if (minimum > max) {
+				return max + 1;
+			}
+
+			int[] rotate = previous2;
+			previous2 = previous;
+			previous = current;
+			current = rotate;
+		}
+		return previous[b.length()];
+	}
+
+	/**
+	 * Returns the popular domain suggested for a domain.
+	 *
+	 * @param domain
+	 *            the domain in lower case, like "gmial.com"
+	 * @return the popular domain, or null if the domain is popular or too far
+	 *         from all of them
+	 */
+	public String suggest(final String domain) {
+		String suggestion = cache.get(domain);
+		if (suggestion == null) {
+			suggestion = lookup(domain);
+			if (cache.size() < MAX_CACHE_SIZE) {
+				cache.put(domain, suggestion);
+			}
+		}
+		return (suggestion == NONE) ? null : suggestion;
+	}
+
+	private String lookup(final String domain) {
+		if (known.contains(domain) || domain.isEmpty() || domain.charAt(0) == '[') {
+			return NONE;
+		}
+
+		int max = Math.min(MAX_DISTANCE, domain.length() / 4);
+		if (max == 0) {
+			return NONE;
+		}
+
+		int best = -1;
+		int bestDistance = max + 1;
+		for (String deletion : deletions(domain, max)) {
+			int[] indexes = deletions.get(deletion);
+			if (indexes == null) {
+				continue;
+			}
+			for (int index : indexes) {
+				if (!isTypo(domain, domains[index])) {
+					continue;
+				}
+				int distance = distance(domain, domains[index], max);
+				if (distance < bestDistance || (distance == bestDistance && index < best)) {
+					best = index;
+					bestDistance = distance;
+				}
+			}
+		}
+		return (best < 0) ? NONE : domains[best];
+	}
+
+	/**
+	 * Returns false if a popular domain differs from a domain by its first
+	 * character, other than by a transposition, or by its valid top level
+	 * domain only.
+	 */
+	private boolean isTypo(final String domain, final String candidate) {
+		if (domain.charAt(0) != candidate.charAt(0) && (domain.length() < 2 || candidate.length() < 2
+				|| domain.charAt(0) != candidate.charAt(1) || domain.charAt(1) != candidate.charAt(0))) {
+			return false;
+		}
+
+		int dot = domain.lastIndexOf('.');
+		boolean sameLabels = dot > 0 && candidate.lastIndexOf('.') == dot && domain.regionMatches(0, candidate, 0, dot);
+		return !sameLabels || !topLevelDomains.contains(domain, dot + 1, domain.length());
+	}
+
+	/**
+	 * Returns the number of popular domains.
+	 */
+	public int size() {
+		return domains.length;
+	}
+
+	/**
+	 * Returns the number of cached domains.
+	 */
+	public int getCacheSize() {
+		return cache.size();
+	}
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable set of domain names, like the top level domains or the domains of
+ * the disposable email providers.
+ *
+ * <p>
+ * The domains are read from a text file, one domain per line, and stored in
+ * lower case in an open addressing table. A domain is looked up in a range of
+ * characters, case insensitive, without allocating a substring.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public final class EmailDomainSet {
+
+	private static final String TOP_LEVEL_DOMAINS_RESOURCE = "tlds.txt"; //$NON-NLS-1$
+
+	private static EmailDomainSet topLevelDomains;
+
+	private final String[] keys;
+	private final int mask;
+	private final int size;
+
+	private EmailDomainSet(final List<String> domains) {
+		int capacity = Integer.highestOneBit(Math.max(domains.size(), 1) * 2) << 1;
+		this.keys = new String[capacity];
+		this.mask = capacity - 1;
+
+		int size = 0;
+		for (String domain : domains) {
+			int slot = hash(domain, 0, domain.length()) & mask;
+			while (keys[slot] != null && !keys[slot].equals(domain)) {
+				slot = (slot + 1) & mask;
+			}
+			if (keys[slot] == null) {
+				keys[slot] = domain;
+				size++;
+			}
+		}
+		this.size = size;
+	}
+
+	/**
+	 * Returns the bundled top level domains, read on first use and shared by
+	 * all steps. The bundled list is a snapshot, it may miss the top level
+	 * domains delegated since.
+	 */
+	public static synchronized EmailDomainSet getTopLevelDomains() throws IOException {
+		if (topLevelDomains == null) {
+			topLevelDomains = LineReader.readResource(TOP_LEVEL_DOMAINS_RESOURCE, EmailDomainSet::read);
+		}
+		return topLevelDomains;
+	}
+
+	/**
+	 * Load the domains of a file.
+	 */
+	public static EmailDomainSet load(final Path file) throws IOException {
+		return LineReader.readFile(file, EmailDomainSet::read);
+	}
+
+	/**
+	 * Read the domains, one domain per line. The empty lines and the lines
+	 * starting with # are ignored.
+	 */
+	public static EmailDomainSet read(final Reader reader) throws IOException {
+		List<String> domains = new ArrayList<>();
+		LineReader.read(reader, (line, number) -> domains.add(line.toLowerCase(Locale.ROOT)));
+		return new EmailDomainSet(domains);
+	}
+
+	private static int hash(final CharSequence value, final int start, final int end) {
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			h = 31 * h + Character.toLowerCase(value.charAt(i));
+		}
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Returns true if a domain is in the set.
+	 */
+	public boolean contains(final CharSequence domain) {
+		return contains(domain, 0, domain.length());
+	}
+
+	/**
+	 * Returns true if a range of characters is a domain of the set.
+	 *
+	 * @param value
+	 *            the characters
+	 * @param start
+	 *            the start of the domain, inclusive
+	 * @param end
+	 *            the end of the domain, exclusive
+	 */
+	public boolean contains(final CharSequence value, final int start, final int end) {
+		int slot = hash(value, start, end) & mask;
+		String key;
+		while ((key = keys[slot]) != null) {
+			if (matches(key, value, start, end)) {
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	private static boolean matches(final String key, final CharSequence value, final int start, final int end) {
+		if (key.length() != end - start) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (key.charAt(i - start) != Character.toLowerCase(value.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of domains.
+	 */
+	public int size() {
+		return size;
+	}
+}
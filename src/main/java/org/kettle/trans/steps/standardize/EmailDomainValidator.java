@@ -0,0 +1,147 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The verdict of the domain of email addresses: a known top level domain, and
+ * a disposable email provider.
+ *
+ * <p>
+ * A domain has a much lower cardinality than the addresses, so its verdict is
+ * computed once and cached by domain. The following addresses of the same
+ * domain cost a single map lookup.
+ * </p>
+ *
+ * <p>
+ * Thread safe, shared by the step worker threads.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public final class EmailDomainValidator {
+
+	/** The maximum number of cached domains, the verdicts of other domains are computed each time */
+	private static final int MAX_CACHE_SIZE = 100_000;
+
+	/**
+	 * The verdict of a domain.
+	 */
+	public enum Verdict {
+		VALID(true, false),
+		DISPOSABLE(true, true),
+		UNKNOWN_TOP_LEVEL_DOMAIN(false, false),
+		UNKNOWN_TOP_LEVEL_DOMAIN_DISPOSABLE(false, true);
+
+		private final boolean knownTopLevelDomain;
+		private final boolean disposable;
+
+		private Verdict(final boolean knownTopLevelDomain, final boolean disposable) {
+			this.knownTopLevelDomain = knownTopLevelDomain;
+			this.disposable = disposable;
+		}
+
+		public boolean isKnownTopLevelDomain() {
+			return knownTopLevelDomain;
+		}
+
+		public boolean isDisposable() {
+			return disposable;
+		}
+
+		static Verdict of(final boolean knownTopLevelDomain, final boolean disposable) {
+			if (knownTopLevelDomain) {
+				return disposable ? DISPOSABLE : VALID;
+			}
+			return disposable ? UNKNOWN_TOP_LEVEL_DOMAIN_DISPOSABLE : UNKNOWN_TOP_LEVEL_DOMAIN;
+		}
+	}
+
+	private final EmailDomainSet topLevelDomains;
+
+	/** The disposable domains, or null if none */
+	private final EmailDomainSet disposableDomains;
+
+	private final Map<String, Verdict> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * @param topLevelDomains
+	 *            the known top level domains
+	 * @param disposableDomains
+	 *            the domains of the disposable email providers, or null if
+	 *            none
+	 */
+	public EmailDomainValidator(final EmailDomainSet topLevelDomains, final EmailDomainSet disposableDomains) {
+		this.topLevelDomains = topLevelDomains;
+		this.disposableDomains = disposableDomains;
+	}
+
+	/**
+	 * Returns the verdict of a domain.
+	 *
+	 * @param domain
+	 *            the domain in lower case, like "pentaho.com"
+	 */
+	public Verdict getVerdict(final String domain) {
+		Verdict verdict = cache.get(domain);
+		if (verdict == null) {
+			verdict = validate(domain);
+			if (cache.size() < MAX_CACHE_SIZE) {
+				cache.put(domain, verdict);
+			}
+		}
+		return verdict;
+	}
+
+	private Verdict validate(final String domain) {
+
+		// A domain literal has no top level domain to check
+		if (domain.isEmpty() || domain.charAt(0) == '[') {
+			return Verdict.VALID;
+		}
+
+		int length = domain.length();
+		boolean known = topLevelDomains.contains(domain, domain.lastIndexOf('.') + 1, length);
+
+		// The domain or one of its parent domains
+		boolean disposable = false;
+		if (disposableDomains != null) {
+			int start = 0;
+			while (start >= 0) {
+				if (disposableDomains.contains(domain, start, length)) {
+					disposable = true;
+					break;
+				}
+				start = domain.indexOf('.', start);
+				if (start >= 0) {
+					start++;
+				}
+			}
+		}
+
+		return Verdict.of(known, disposable);
+	}
+
+	/**
+	 * Returns the number of cached domains.
+	 */
+	public int size() {
+		return cache.size();
+	}
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Read the text files of the reference lists, like the top level domains or
+ * the popular domains: a resource of this package or a file, in UTF-8, one
+ * value per line. The lines are trimmed, the empty lines and the lines
+ * starting with # are ignored.
+ *
+ * @author Nicolas ADMENT
+ */
+final class LineReader {
+
+	/**
+	 * Build an object from the content of a reader.
+	 */
+	interface Parser<T> {
+		T read(Reader reader) throws IOException;
+	}
+
+	/**
+	 * Handle a line.
+	 */
+	interface LineHandler {
+
+		/**
+		 * @param line
+		 *            the trimmed line, not empty
+		 * @param number
+		 *            the number of the line, starting from 1
+		 */
+		void accept(String line, int number) throws IOException;
+	}
+
+	private LineReader() {
+		// Static methods only
+	}
+
+	/**
+	 * Read a resource of this package.
+	 */
+	static <T> T readResource(final String name, final Parser<T> parser) throws IOException {
+		try (InputStream stream = LineReader.class.getResourceAsStream(name)) {
+			if (stream == null) {
+				throw new IOException("Resource not found: " + name);
+			}
+			return parser.read(new InputStreamReader(stream, StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Read a file.
+	 */
+	static <T> T readFile(final Path file, final Parser<T> parser) throws IOException {
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return parser.read(reader);
+		}
+	}
+
+	/**
+	 * Read the lines, except the empty lines and the comments.
+	 */
+	static void read(final Reader reader, final LineHandler handler) throws IOException {
+		BufferedReader lines = (reader instanceof BufferedReader) ? (BufferedReader) reader
+				: new BufferedReader(reader);
+
+		int number = 0;
+		String line;
+		while ((line = lines.readLine()) != null) {
+			number++;
+			line = line.trim();
+			if (line.isEmpty() || line.charAt(0) == '#') {
+				continue;
+			}
+			handler.accept(line, number);
+		}
+	}
+}
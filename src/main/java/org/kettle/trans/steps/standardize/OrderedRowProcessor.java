@@ -0,0 +1,231 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.pentaho.di.core.RowSet;
+import org.pentaho.di.core.exception.KettleException;
+
+/**
+ * Process rows by micro-batches on a pool of worker threads, and returns the
+ * results in the original order of the rows.
+ *
+ * <p>
+ * A batch is submitted when it is full, when its first row waits for longer
+ * than the maximum latency, or when the step has no more input rows waiting,
+ * so that a streaming transformation is not delayed.
+ * </p>
+ *
+ * <p>
+ * Rows are added and results consumed by the step thread only. Each worker
+ * thread owns its own {@link RowTransform}.
+ * </p>
+ *
+ * @param <T>
+ *            the result of an input row, usually the output row
+ *
+ * @author Nicolas ADMENT
+ */
+public class OrderedRowProcessor<T> {
+
+	/**
+	 * Transform an input row into a result.
+	 */
+	public interface RowTransform<T> {
+
+		/**
+		 * @return the result, or null to stop the step
+		 */
+		T transform(Object[] row) throws KettleException;
+	}
+
+	/**
+	 * Consume the results in the original order of the rows.
+	 */
+	public interface RowConsumer<T> {
+		void accept(T result) throws KettleException;
+	}
+
+	/** The default maximum number of rows of a batch */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	/** The default maximum time in milliseconds a row waits for its batch */
+	public static final long DEFAULT_MAX_LATENCY = 100;
+
+	/** The maximum time in seconds to wait for the workers to finish their current batch */
+	private static final long SHUTDOWN_TIMEOUT = 60;
+
+	private final ExecutorService executor;
+	private final ThreadLocal<RowTransform<T>> transforms;
+	private final int batchSize;
+	private final long maxLatency;
+	private final int maxPendingBatches;
+
+	private List<Object[]> batch;
+	private long batchStart;
+	private final Deque<Future<Object[]>> pending = new ArrayDeque<>();
+
+	/**
+	 * Create a processor
+	 *
+	 * @param name
+	 *            the name of the worker threads
+	 * @param workers
+	 *            the number of worker threads
+	 * @param batchSize
+	 *            the maximum number of rows of a batch
+	 * @param maxLatency
+	 *            the maximum time in milliseconds a row can wait for its batch
+	 *            to be submitted
+	 * @param factory
+	 *            create the transform of each worker thread
+	 */
+	public OrderedRowProcessor(final String name, final int workers, final int batchSize, final long maxLatency,
+			final Supplier<RowTransform<T>> factory) {
+		super();
+
+		this.batchSize = Math.max(1, batchSize);
+		this.maxLatency = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxLatency));
+		this.maxPendingBatches = workers * 2;
+		this.batch = new ArrayList<>(this.batchSize);
+		this.transforms = ThreadLocal.withInitial(factory);
+
+		final AtomicInteger count = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+			Thread thread = new Thread(runnable, name + " worker " + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Returns true if no row is waiting in the input row sets.
+	 */
+	public static boolean isIdle(final List<RowSet> rowSets) {
+		for (RowSet rowSet : rowSets) {
+			if (rowSet.size() > 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Add a row to the current batch, and submit the batch if it is full or if
+	 * its first row waits for too long.
+	 */
+	public void add(final Object[] row) {
+		if (batch.isEmpty()) {
+			batchStart = System.nanoTime();
+		}
+		batch.add(row);
+
+		if (batch.size() >= batchSize || System.nanoTime() - batchStart >= maxLatency) {
+			submit();
+		}
+	}
+
+	/**
+	 * Submit the current batch to the workers.
+	 */
+	public void submit() {
+		if (batch.isEmpty())
+			return;
+
+		final Object[][] rows = batch.toArray(new Object[batch.size()][]);
+		batch = new ArrayList<>(batchSize);
+
+		pending.add(executor.submit(() -> {
+			RowTransform<T> transform = transforms.get();
+			Object[] result = new Object[rows.length];
+			for (int i = 0; i < rows.length; i++) {
+				result[i] = transform.transform(rows[i]);
+			}
+			return result;
+		}));
+	}
+
+	/**
+	 * Consume the results of the completed batches in order.
+	 *
+	 * @param consumer
+	 *            the consumer of the results
+	 * @param all
+	 *            wait for all submitted batches, otherwise only wait if too
+	 *            many batches are pending
+	 * @return false if a transform asked to stop the step
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean consume(final RowConsumer<T> consumer, final boolean all) throws KettleException {
+
+		while (!pending.isEmpty()) {
+			Future<Object[]> future = pending.peek();
+			if (!all && !future.isDone() && pending.size() <= maxPendingBatches) {
+				break;
+			}
+
+			Object[] results;
+			try {
+				results = future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new KettleException(e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof KettleException) {
+					throw (KettleException) e.getCause();
+				}
+				throw new KettleException(e.getCause());
+			}
+			pending.poll();
+
+			for (Object result : results) {
+				if (result == null) {
+					return false;
+				}
+				consumer.accept((T) result);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Stop the worker threads, pending batches are discarded. Wait for the
+	 * workers to finish their current batch, so their state can be read
+	 * afterwards.
+	 */
+	public void shutdown() {
+		pending.clear();
+		batch.clear();
+		executor.shutdownNow();
+		try {
+			executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
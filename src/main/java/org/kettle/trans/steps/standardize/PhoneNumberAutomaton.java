@@ -0,0 +1,720 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberType;
+import com.google.i18n.phonenumbers.Phonemetadata.PhoneMetadata;
+import com.google.i18n.phonenumbers.Phonemetadata.PhoneNumberDesc;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+/**
+ * Resolve the type, and so the validity, of a phone number with deterministic
+ * automatons over the digits, compiled from the number patterns of the
+ * libphonenumber metadata.
+ *
+ * <p>
+ * libphonenumber matches the national significant number against a regular
+ * expression for each number type of the region. The patterns of all the
+ * types of a region are compiled in one automaton, each final state knows
+ * the types it matches, so a single pass over the digits replaces up to
+ * eleven regular expression matches. The number type is then resolved with
+ * the same precedence rules as {@link PhoneNumberUtil#getNumberType}.
+ * </p>
+ *
+ * <p>
+ * Only the country calling codes of the compiled regions are answered, the
+ * other phone numbers are left to libphonenumber. Immutable and thread safe
+ * once compiled.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public final class PhoneNumberAutomaton {
+
+	/** The number descriptions, in the order they are tested by libphonenumber */
+	private static final int GENERAL = 0;
+	private static final int PREMIUM_RATE = 1;
+	private static final int TOLL_FREE = 2;
+	private static final int SHARED_COST = 3;
+	private static final int VOIP = 4;
+	private static final int PERSONAL_NUMBER = 5;
+	private static final int PAGER = 6;
+	private static final int UAN = 7;
+	private static final int VOICEMAIL = 8;
+	private static final int FIXED_LINE = 9;
+	private static final int MOBILE = 10;
+	private static final int DESCRIPTIONS = 11;
+
+	/** The types of the descriptions tested before the fixed line and mobile ones */
+	private static final PhoneNumberType[] TYPES = { null, PhoneNumberType.PREMIUM_RATE, PhoneNumberType.TOLL_FREE,
+			PhoneNumberType.SHARED_COST, PhoneNumberType.VOIP, PhoneNumberType.PERSONAL_NUMBER, PhoneNumberType.PAGER,
+			PhoneNumberType.UAN, PhoneNumberType.VOICEMAIL };
+
+	/** The longest national significant number, no number pattern is longer */
+	private static final int MAX_DIGITS = 24;
+
+	/** All the digits */
+	private static final int ANY_DIGIT = 0x3FF;
+
+	/**
+	 * A deterministic automaton over the digits.
+	 */
+	static final class Dfa {
+
+		/** The next state of each state and digit, -1 if none */
+		private final int[] next;
+
+		/** The bit set of the patterns accepted by each state */
+		private final int[] accept;
+
+		Dfa(final int[] next, final int[] accept) {
+			this.next = next;
+			this.accept = accept;
+		}
+
+		/**
+		 * Returns the bit set of the patterns matching the digits entirely.
+		 */
+		int match(final byte[] digits, final int length) {
+			int state = 0;
+			for (int i = 0; i < length; i++) {
+				state = next[state * 10 + digits[i]];
+				if (state < 0) {
+					return 0;
+				}
+			}
+			return accept[state];
+		}
+
+		/**
+		 * Returns true if a pattern matches the beginning of the digits, like
+		 * {@link java.util.regex.Matcher#lookingAt()}.
+		 */
+		boolean lookingAt(final byte[] digits, final int length) {
+			int state = 0;
+			for (int i = 0; i < length && accept[state] == 0; i++) {
+				state = next[state * 10 + digits[i]];
+				if (state < 0) {
+					return false;
+				}
+			}
+			return accept[state] != 0;
+		}
+
+		int getStates() {
+			return accept.length;
+		}
+	}
+
+	/**
+	 * The compiled metadata of a region.
+	 */
+	private static final class Region {
+
+		/** The automaton of the number descriptions */
+		private final Dfa patterns;
+
+		/** The bit set of the possible lengths of each number description */
+		private final int[] lengths;
+
+		private final boolean sameMobileAndFixedLine;
+
+		/** The automaton of the leading digits, or null if none */
+		private final Dfa leadingDigits;
+
+		Region(final PhoneMetadata metadata) {
+			PhoneNumberDesc[] descriptions = new PhoneNumberDesc[DESCRIPTIONS];
+			descriptions[GENERAL] = metadata.getGeneralDesc();
+			descriptions[PREMIUM_RATE] = metadata.getPremiumRate();
+			descriptions[TOLL_FREE] = metadata.getTollFree();
+			descriptions[SHARED_COST] = metadata.getSharedCost();
+			descriptions[VOIP] = metadata.getVoip();
+			descriptions[PERSONAL_NUMBER] = metadata.getPersonalNumber();
+			descriptions[PAGER] = metadata.getPager();
+			descriptions[UAN] = metadata.getUan();
+			descriptions[VOICEMAIL] = metadata.getVoicemail();
+			descriptions[FIXED_LINE] = metadata.getFixedLine();
+			descriptions[MOBILE] = metadata.getMobile();
+
+			String[] regexes = new String[DESCRIPTIONS];
+			this.lengths = new int[DESCRIPTIONS];
+			for (int i = 0; i < DESCRIPTIONS; i++) {
+				regexes[i] = descriptions[i].getNationalNumberPattern();
+
+				// No possible length means any length
+				List<Integer> possibleLengths = descriptions[i].getPossibleLengthList();
+				if (possibleLengths.isEmpty()) {
+					lengths[i] = -1;
+				}
+				for (int length : possibleLengths) {
+					if (length > 0 && length < 32) {
+						lengths[i] |= 1 << length;
+					}
+				}
+			}
+
+			this.patterns = compile(regexes);
+			this.sameMobileAndFixedLine = metadata.getSameMobileAndFixedLinePattern();
+			this.leadingDigits = metadata.hasLeadingDigits() ? compile(metadata.getLeadingDigits()) : null;
+		}
+
+		PhoneNumberType getNumberType(final byte[] digits, final int length) {
+			int matches = patterns.match(digits, length);
+			if (matches == 0) {
+				return PhoneNumberType.UNKNOWN;
+			}
+
+			// The pattern matches only if the length is possible
+			int bit = 1 << length;
+			for (int i = 0; i < DESCRIPTIONS; i++) {
+				if ((lengths[i] & bit) == 0) {
+					matches &= ~(1 << i);
+				}
+			}
+
+			if (!matches(matches, GENERAL)) {
+				return PhoneNumberType.UNKNOWN;
+			}
+			for (int i = PREMIUM_RATE; i <= VOICEMAIL; i++) {
+				if (matches(matches, i)) {
+					return TYPES[i];
+				}
+			}
+			if (matches(matches, FIXED_LINE)) {
+				if (sameMobileAndFixedLine || matches(matches, MOBILE)) {
+					return PhoneNumberType.FIXED_LINE_OR_MOBILE;
+				}
+				return PhoneNumberType.FIXED_LINE;
+			}
+			if (!sameMobileAndFixedLine && matches(matches, MOBILE)) {
+				return PhoneNumberType.MOBILE;
+			}
+			return PhoneNumberType.UNKNOWN;
+		}
+
+		private static boolean matches(final int matches, final int description) {
+			return (matches & (1 << description)) != 0;
+		}
+	}
+
+	/** The compiled regions of each country calling code, in libphonenumber order, or null */
+	private final Region[][] countries = new Region[1000][];
+
+	private int regions;
+	private int states;
+
+	private PhoneNumberAutomaton() {
+		super();
+	}
+
+	/**
+	 * Compile the metadata of all the regions sharing the country calling
+	 * code of the regions. A country calling code whose metadata can't be
+	 * compiled is left to libphonenumber.
+	 *
+	 * @param phoneNumberService
+	 *            the phone number service
+	 * @param regionCodes
+	 *            the region codes, like "FR" or "US"
+	 * @return the automaton
+	 */
+	public static PhoneNumberAutomaton compile(final PhoneNumberUtil phoneNumberService,
+			final Collection<String> regionCodes) {
+		PhoneNumberAutomaton automaton = new PhoneNumberAutomaton();
+		for (String regionCode : regionCodes) {
+			int countryCode = phoneNumberService.getCountryCodeForRegion(regionCode);
+			if (countryCode > 0 && countryCode < automaton.countries.length) {
+				automaton.compile(phoneNumberService, countryCode);
+			}
+		}
+		return automaton;
+	}
+
+	private void compile(final PhoneNumberUtil phoneNumberService, final int countryCode) {
+		if (countries[countryCode] != null) {
+			return;
+		}
+
+		List<String> regionCodes = phoneNumberService.getRegionCodesForCountryCode(countryCode);
+		Region[] compiled = new Region[regionCodes.size()];
+		try {
+			for (int i = 0; i < compiled.length; i++) {
+				String regionCode = regionCodes.get(i);
+				PhoneMetadata metadata = PhoneNumberUtil.REGION_CODE_FOR_NON_GEO_ENTITY.equals(regionCode)
+						? PhoneNumberMetadata.getForNonGeographicalRegion(countryCode)
+						: PhoneNumberMetadata.getForRegion(regionCode);
+				if (metadata == null) {
+					return;
+				}
+				compiled[i] = new Region(metadata);
+			}
+		} catch (IllegalArgumentException e) {
+			// Left to libphonenumber
+			return;
+		}
+
+		countries[countryCode] = compiled;
+		for (Region region : compiled) {
+			regions++;
+			states += region.patterns.getStates();
+		}
+	}
+
+	/**
+	 * Returns true if the phone numbers of a country calling code are
+	 * answered by the automaton.
+	 */
+	public boolean isCompiled(final int countryCode) {
+		return countryCode > 0 && countryCode < countries.length && countries[countryCode] != null;
+	}
+
+	/**
+	 * Returns the type of a phone number, the same as
+	 * {@link PhoneNumberUtil#getNumberType}, or null if its country calling
+	 * code is not compiled. A phone number is valid if its type is known.
+	 */
+	public PhoneNumberType getNumberType(final PhoneNumber phoneNumber) {
+		if (!isCompiled(phoneNumber.getCountryCode())) {
+			return null;
+		}
+		Region[] candidates = countries[phoneNumber.getCountryCode()];
+
+		// The national significant number, with its Italian leading zeros
+		byte[] digits = new byte[MAX_DIGITS];
+		int length = 0;
+		if (phoneNumber.isItalianLeadingZero() && phoneNumber.getNumberOfLeadingZeros() > 0) {
+			length = phoneNumber.getNumberOfLeadingZeros();
+		}
+		long nationalNumber = phoneNumber.getNationalNumber();
+		int count = 1;
+		for (long value = nationalNumber / 10; value > 0; value /= 10) {
+			count++;
+		}
+		if (length + count > MAX_DIGITS) {
+			return PhoneNumberType.UNKNOWN;
+		}
+		for (int i = length + count - 1; i >= length; i--) {
+			digits[i] = (byte) (nationalNumber % 10);
+			nationalNumber /= 10;
+		}
+		length += count;
+
+		if (candidates.length == 1) {
+			return candidates[0].getNumberType(digits, length);
+		}
+
+		// The region of the number, as resolved by libphonenumber
+		for (Region region : candidates) {
+			if (region.leadingDigits != null) {
+				if (region.leadingDigits.lookingAt(digits, length)) {
+					return region.getNumberType(digits, length);
+				}
+			} else {
+				PhoneNumberType type = region.getNumberType(digits, length);
+				if (type != PhoneNumberType.UNKNOWN) {
+					return type;
+				}
+			}
+		}
+		return PhoneNumberType.UNKNOWN;
+	}
+
+	/**
+	 * Returns the number of compiled regions.
+	 */
+	public int getRegions() {
+		return regions;
+	}
+
+	/**
+	 * Returns the number of states of the compiled automatons.
+	 */
+	public int getStates() {
+		return states;
+	}
+
+	/**
+	 * Compile regular expressions, in the subset used by the libphonenumber
+	 * metadata, in one automaton. Each pattern is identified by its index in
+	 * the bit set of the accepted patterns, an empty pattern never matches.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if a pattern is not supported
+	 */
+	static Dfa compile(final String... regexes) {
+		Nfa nfa = new Nfa();
+		int start = nfa.newState();
+		for (int i = 0; i < regexes.length; i++) {
+			if (regexes[i] == null || regexes[i].isEmpty()) {
+				continue;
+			}
+			Node node = new Parser(regexes[i]).parse();
+			int from = nfa.newState();
+			nfa.epsilon(start, from);
+			int end = nfa.build(node, from);
+			nfa.tags[end] |= 1 << i;
+		}
+		return nfa.toDfa(start);
+	}
+
+	/**
+	 * A node of a parsed regular expression.
+	 */
+	private static final class Node {
+		static final int DIGITS = 0;
+		static final int SEQUENCE = 1;
+		static final int ALTERNATION = 2;
+		static final int REPEAT = 3;
+
+		private final int kind;
+		private final int digits;
+		private final List<Node> children;
+		private final int min;
+		private final int max;
+
+		private Node(final int kind, final int digits, final List<Node> children, final int min, final int max) {
+			this.kind = kind;
+			this.digits = digits;
+			this.children = children;
+			this.min = min;
+			this.max = max;
+		}
+
+		static Node digits(final int digits) {
+			return new Node(DIGITS, digits, null, 0, 0);
+		}
+
+		static Node group(final int kind, final List<Node> children) {
+			return (children.size() == 1) ? children.get(0) : new Node(kind, 0, children, 0, 0);
+		}
+
+		static Node repeat(final Node child, final int min, final int max) {
+			List<Node> children = new ArrayList<>(1);
+			children.add(child);
+			return new Node(REPEAT, 0, children, min, max);
+		}
+	}
+
+	/**
+	 * A recursive descent parser of the digit patterns: digits, \d, classes
+	 * like [1-35], groups, alternations and the ? and {n,m} quantifiers.
+	 */
+	private static final class Parser {
+		private final String regex;
+		private int position;
+
+		Parser(final String regex) {
+			this.regex = regex;
+		}
+
+		Node parse() {
+			Node node = parseAlternation();
+			if (position < regex.length()) {
+				throw error();
+			}
+			return node;
+		}
+
+		private Node parseAlternation() {
+			List<Node> alternatives = new ArrayList<>();
+			alternatives.add(parseSequence());
+			while (peek() == '|') {
+				position++;
+				alternatives.add(parseSequence());
+			}
+			return Node.group(Node.ALTERNATION, alternatives);
+		}
+
+		private Node parseSequence() {
+			List<Node> sequence = new ArrayList<>();
+			while (position < regex.length() && peek() != '|' && peek() != ')') {
+				sequence.add(parseRepeat());
+			}
+			return Node.group(Node.SEQUENCE, sequence);
+		}
+
+		private Node parseRepeat() {
+			Node atom = parseAtom();
+			char ch = peek();
+			if (ch == '?') {
+				position++;
+				atom = Node.repeat(atom, 0, 1);
+			} else if (ch == '{') {
+				position++;
+				int min = parseInt();
+				int max = min;
+				if (peek() == ',') {
+					position++;
+					max = parseInt();
+				}
+				expect('}');
+				if (max < min) {
+					throw error();
+				}
+				atom = Node.repeat(atom, min, max);
+			} else {
+				return atom;
+			}
+
+			// A reluctant quantifier matches the same numbers
+			if (peek() == '?') {
+				position++;
+			}
+			return atom;
+		}
+
+		private Node parseAtom() {
+			char ch = next();
+			if (ch >= '0' && ch <= '9') {
+				return Node.digits(1 << (ch - '0'));
+			}
+			switch (ch) {
+			case '\\':
+				expect('d');
+				return Node.digits(ANY_DIGIT);
+			case '[':
+				return Node.digits(parseClass());
+			case '(':
+				if (peek() == '?') {
+					position++;
+					expect(':');
+				}
+				Node node = parseAlternation();
+				expect(')');
+				return node;
+			default:
+				throw error();
+			}
+		}
+
+		private int parseClass() {
+			boolean negated = false;
+			if (peek() == '^') {
+				position++;
+				negated = true;
+			}
+			int digits = 0;
+			char ch;
+			while ((ch = next()) != ']') {
+				if (ch == '\\') {
+					expect('d');
+					digits |= ANY_DIGIT;
+				} else if (ch >= '0' && ch <= '9') {
+					char last = ch;
+					if (peek() == '-') {
+						position++;
+						last = next();
+						if (last < ch || last > '9') {
+							throw error();
+						}
+					}
+					for (char digit = ch; digit <= last; digit++) {
+						digits |= 1 << (digit - '0');
+					}
+				} else {
+					throw error();
+				}
+			}
+			return negated ? ~digits & ANY_DIGIT : digits;
+		}
+
+		private int parseInt() {
+			int start = position;
+			while (position < regex.length() && Character.isDigit(regex.charAt(position))) {
+				position++;
+			}
+			if (start == position) {
+				throw error();
+			}
+			return Integer.parseInt(regex.substring(start, position));
+		}
+
+		private char peek() {
+			return (position < regex.length()) ? regex.charAt(position) : 0;
+		}
+
+		private char next() {
+			if (position >= regex.length()) {
+				throw error();
+			}
+			return regex.charAt(position++);
+		}
+
+		private void expect(final char ch) {
+			if (next() != ch) {
+				throw error();
+			}
+		}
+
+		private IllegalArgumentException error() {
+			return new IllegalArgumentException(
+					"Unsupported pattern at " + position + ": " + regex); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * A nondeterministic automaton, each state has at most one transition on
+	 * a set of digits and any number of empty transitions.
+	 */
+	private static final class Nfa {
+		private int[] digits = new int[256];
+		private int[] targets = new int[256];
+		private int[] tags = new int[256];
+		private final List<List<Integer>> epsilons = new ArrayList<>();
+
+		int newState() {
+			int state = epsilons.size();
+			if (state == digits.length) {
+				digits = Arrays.copyOf(digits, state * 2);
+				targets = Arrays.copyOf(targets, state * 2);
+				tags = Arrays.copyOf(tags, state * 2);
+			}
+			epsilons.add(new ArrayList<>(2));
+			return state;
+		}
+
+		void epsilon(final int from, final int to) {
+			epsilons.get(from).add(to);
+		}
+
+		/**
+		 * Build the states of a node from a state.
+		 *
+		 * @return the final state
+		 */
+		int build(final Node node, final int from) {
+			switch (node.kind) {
+			case Node.DIGITS: {
+				int to = newState();
+				digits[from] = node.digits;
+				targets[from] = to;
+				return to;
+			}
+			case Node.SEQUENCE: {
+				int state = from;
+				for (Node child : node.children) {
+					state = build(child, state);
+				}
+				return state;
+			}
+			case Node.ALTERNATION: {
+				int end = newState();
+				for (Node child : node.children) {
+					int start = newState();
+					epsilon(from, start);
+					epsilon(build(child, start), end);
+				}
+				return end;
+			}
+			default: {
+				Node child = node.children.get(0);
+				int state = from;
+				for (int i = 0; i < node.min; i++) {
+					state = build(child, state);
+				}
+				if (node.max == node.min) {
+					return state;
+				}
+				int end = newState();
+				for (int i = node.min; i < node.max; i++) {
+					epsilon(state, end);
+					state = build(child, state);
+				}
+				epsilon(state, end);
+				return end;
+			}
+			}
+		}
+
+		private BitSet closure(final BitSet states) {
+			Deque<Integer> stack = new ArrayDeque<>();
+			for (int state = states.nextSetBit(0); state >= 0; state = states.nextSetBit(state + 1)) {
+				stack.push(state);
+			}
+			while (!stack.isEmpty()) {
+				for (int to : epsilons.get(stack.pop())) {
+					if (!states.get(to)) {
+						states.set(to);
+						stack.push(to);
+					}
+				}
+			}
+			return states;
+		}
+
+		/**
+		 * Build the deterministic automaton by the subset construction.
+		 */
+		Dfa toDfa(final int start) {
+			BitSet initial = new BitSet();
+			initial.set(start);
+
+			List<BitSet> subsets = new ArrayList<>();
+			Map<BitSet, Integer> ids = new HashMap<>();
+			subsets.add(closure(initial));
+			ids.put(subsets.get(0), 0);
+
+			int[] next = new int[160];
+			for (int id = 0; id < subsets.size(); id++) {
+				BitSet subset = subsets.get(id);
+				if ((id + 1) * 10 > next.length) {
+					next = Arrays.copyOf(next, next.length * 2);
+				}
+				for (int digit = 0; digit < 10; digit++) {
+					BitSet move = new BitSet();
+					for (int state = subset.nextSetBit(0); state >= 0; state = subset.nextSetBit(state + 1)) {
+						if ((digits[state] & (1 << digit)) != 0) {
+							move.set(targets[state]);
+						}
+					}
+					if (move.isEmpty()) {
+						next[id * 10 + digit] = -1;
+						continue;
+					}
+					closure(move);
+					Integer target = ids.get(move);
+					if (target == null) {
+						target = subsets.size();
+						subsets.add(move);
+						ids.put(move, target);
+					}
+					next[id * 10 + digit] = target;
+				}
+			}
+
+			int[] accept = new int[subsets.size()];
+			for (int id = 0; id < accept.length; id++) {
+				BitSet subset = subsets.get(id);
+				for (int state = subset.nextSetBit(0); state >= 0; state = subset.nextSetBit(state + 1)) {
+					accept[id] |= tags[state];
+				}
+			}
+			return new Dfa(Arrays.copyOf(next, accept.length * 10), accept);
+		}
+	}
+}
@@ -0,0 +1,300 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.kettle.trans.steps.standardize.StandardizePhoneNumber.ValidationLevel;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberFormat;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberType;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.ValidationResult;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+/**
+ * A bounded cache of standardized phone numbers, keyed by raw value, default
+ * region and format. The least recently used entry is evicted first.
+ *
+ * <p>
+ * Not thread safe, each step copy or worker thread owns its cache.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public class PhoneNumberCache {
+
+	/**
+	 * The result of a phone number standardization.
+	 */
+	public static class Result {
+
+		/** The region code of a phone number without region */
+		public static final String UNKNOWN_REGION = "ZZ"; //$NON-NLS-1$
+
+		/** The value of an enrichment computed but unknown */
+		public static final String UNKNOWN = ""; //$NON-NLS-1$
+
+		/** The reason code of a valid phone number */
+		public static final String REASON_VALID = "IS_VALID"; //$NON-NLS-1$
+
+		/** The reason code of a possible phone number not matching the patterns of its region */
+		public static final String REASON_INVALID = "INVALID_NUMBER"; //$NON-NLS-1$
+
+		/** The reason code of a value not parsed or rejected */
+		public static final String REASON_ERROR = "ERROR"; //$NON-NLS-1$
+
+		/** The parsed phone number, or null if it can't be parsed */
+		protected final PhoneNumber phoneNumber;
+
+		/** The formatted phone number, or null if it can't be parsed */
+		protected final String formatted;
+
+		/** The type, computed on first use */
+		protected PhoneNumberType type;
+
+		/** The validity, computed on first use */
+		protected Boolean valid;
+
+		/** The length check, computed on first use */
+		protected ValidationResult possible;
+
+		/** The region code, computed on first use, {@link #UNKNOWN_REGION} if none */
+		protected String region;
+
+		/** The geographical description, computed on first use, {@link #UNKNOWN} if none */
+		protected String description;
+
+		/** The carrier name, computed on first use, {@link #UNKNOWN} if none */
+		protected String carrier;
+
+		/** The time zones, computed on first use, {@link #UNKNOWN} if none */
+		protected String timeZones;
+
+		/** The phone number in each format, computed on first use */
+		private String[] formats;
+
+		public Result(final PhoneNumber phoneNumber, final String formatted) {
+			this.phoneNumber = phoneNumber;
+			this.formatted = formatted;
+		}
+
+		/**
+		 * Create the result of a phone number formatted in a format, reused by
+		 * {@link #getFormatted(PhoneNumberUtil, PhoneNumberFormat)}.
+		 */
+		public Result(final PhoneNumber phoneNumber, final String formatted, final PhoneNumberFormat format) {
+			this(phoneNumber, formatted);
+			this.formats = new String[PhoneNumberFormat.values().length];
+			this.formats[format.ordinal()] = formatted;
+		}
+
+		public PhoneNumber getPhoneNumber() {
+			return phoneNumber;
+		}
+
+		public String getFormatted() {
+			return formatted;
+		}
+
+		/**
+		 * Returns the parsed phone number in a format, formatted once.
+		 */
+		public String getFormatted(final PhoneNumberUtil phoneNumberService, final PhoneNumberFormat format) {
+			if (formats == null) {
+				formats = new String[PhoneNumberFormat.values().length];
+			}
+			String value = formats[format.ordinal()];
+			if (value == null) {
+				value = phoneNumberService.format(phoneNumber, format);
+				formats[format.ordinal()] = value;
+			}
+			return value;
+		}
+
+		public boolean isParsed() {
+			return phoneNumber != null;
+		}
+
+		/**
+		 * Returns the type of the parsed phone number, computed once. The
+		 * validity is known for free, a phone number is valid if its type is
+		 * known.
+		 */
+		public PhoneNumberType getType(final PhoneNumberUtil phoneNumberService) {
+			if (type == null) {
+				type = phoneNumberService.getNumberType(phoneNumber);
+				if (valid == null) {
+					valid = type != PhoneNumberType.UNKNOWN;
+				}
+			}
+			return type;
+		}
+
+		/**
+		 * Returns true if the parsed phone number matches the patterns of its
+		 * region, computed once.
+		 */
+		public boolean isValid(final PhoneNumberUtil phoneNumberService) {
+			if (valid == null) {
+				valid = phoneNumberService.isValidNumber(phoneNumber);
+			}
+			return valid;
+		}
+
+		/**
+		 * Returns the length check of the parsed phone number, computed once.
+		 */
+		public ValidationResult getPossibility(final PhoneNumberUtil phoneNumberService) {
+			if (possible == null) {
+				possible = phoneNumberService.isPossibleNumberWithReason(phoneNumber);
+			}
+			return possible;
+		}
+
+		/**
+		 * Returns true if the phone number passes the validation level.
+		 */
+		public boolean isValid(final PhoneNumberUtil phoneNumberService, final ValidationLevel level) {
+			if (!isParsed()) {
+				return false;
+			}
+			switch (level) {
+			case NONE:
+				return true;
+			case POSSIBLE:
+				return getPossibility(phoneNumberService) == ValidationResult.IS_POSSIBLE;
+			case VALID_AND_TYPE:
+				return getType(phoneNumberService) != PhoneNumberType.UNKNOWN;
+			default:
+				return isValid(phoneNumberService);
+			}
+		}
+
+		/**
+		 * Returns the reason code of the validation level, {@link #REASON_VALID}
+		 * or the reason why the phone number is not valid, or null if not
+		 * validated.
+		 */
+		public String getReason(final PhoneNumberUtil phoneNumberService, final ValidationLevel level) {
+			if (!isParsed()) {
+				return REASON_ERROR;
+			}
+			if (level == ValidationLevel.NONE) {
+				return null;
+			}
+			if (level != ValidationLevel.POSSIBLE && isValid(phoneNumberService, level)) {
+				return REASON_VALID;
+			}
+
+			// Only the phone numbers not valid pay for the length check
+			ValidationResult possibility = getPossibility(phoneNumberService);
+			if (level != ValidationLevel.POSSIBLE && possibility == ValidationResult.IS_POSSIBLE) {
+				return REASON_INVALID;
+			}
+			return possibility.name();
+		}
+	}
+
+	private static final class Key {
+		private final String value;
+		private final String region;
+		private final PhoneNumberFormat format;
+		private final int hash;
+
+		Key(final String value, final String region, final PhoneNumberFormat format) {
+			this.value = value;
+			this.region = region;
+			this.format = format;
+			this.hash = (value.hashCode() * 31 + (region == null ? 0 : region.hashCode())) * 31 + format.ordinal();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return hash == other.hash && format == other.format && value.equals(other.value)
+					&& (region == null ? other.region == null : region.equals(other.region));
+		}
+	}
+
+	private final Map<Key, Result> entries;
+
+	private long hits = 0;
+	private long misses = 0;
+
+	/**
+	 * Create a cache
+	 *
+	 * @param maxEntries
+	 *            the maximum number of entries kept in the cache
+	 */
+	public PhoneNumberCache(final int maxEntries) {
+		super();
+
+		this.entries = new LinkedHashMap<Key, Result>(Math.min(maxEntries, 1024), 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached result, or null if not cached.
+	 */
+	public Result get(final String value, final String region, final PhoneNumberFormat format) {
+		Result result = entries.get(new Key(value, region, format));
+		if (result == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return result;
+	}
+
+	public void put(final String value, final String region, final PhoneNumberFormat format, final Result result) {
+		entries.put(new Key(value, region, format), result);
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+}
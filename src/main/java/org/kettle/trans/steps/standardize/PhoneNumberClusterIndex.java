@@ -0,0 +1,148 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.MatchType;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+/**
+ * Assign a cluster id to phone numbers, the same id to the phone numbers
+ * matching each other.
+ *
+ * <p>
+ * The phone numbers are blocked by national significant number, so a phone
+ * number is only compared with {@link PhoneNumberUtil#isNumberMatch} to the
+ * distinct phone numbers of its bucket, and a stream of rows is clustered in
+ * a single pass. The extension is not compared, so a phone number with any
+ * extension or none gets the cluster id of the same phone number without
+ * extension, whatever the order of the rows.
+ * </p>
+ *
+ * <p>
+ * Not thread safe, the ids are assigned in the order of the rows. Each copy
+ * of the step has its own index, so a cluster field needs a single copy of
+ * the step, as checked by {@link StandardizePhoneNumberMeta}.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public class PhoneNumberClusterIndex {
+
+	private static final class Entry {
+		final PhoneNumber phoneNumber;
+		final long cluster;
+		Entry next;
+
+		Entry(final PhoneNumber phoneNumber, final long cluster) {
+			this.phoneNumber = phoneNumber;
+			this.cluster = cluster;
+		}
+	}
+
+	private final PhoneNumberUtil phoneNumberService;
+
+	private final Map<Long, Entry> buckets = new HashMap<>();
+
+	private long clusters;
+
+	private long size;
+
+	private long comparisons;
+
+	public PhoneNumberClusterIndex(final PhoneNumberUtil phoneNumberService) {
+		super();
+		this.phoneNumberService = phoneNumberService;
+	}
+
+	/**
+	 * Returns the cluster id of a phone number, the id of the first matching
+	 * phone number of its bucket, or a new id.
+	 *
+	 * @param phoneNumber
+	 *            the parsed phone number, not modified nor kept
+	 * @return the cluster id, starting from 1
+	 */
+	public long cluster(final PhoneNumber phoneNumber) {
+
+		// Compared without extension, isNumberMatch never matches two different ones
+		PhoneNumber number = phoneNumber;
+		if (number.hasExtension()) {
+			number = new PhoneNumber().mergeFrom(number).clearExtension();
+		}
+
+		Long key = Long.valueOf(number.getNationalNumber());
+
+		Entry first = buckets.get(key);
+		Entry last = null;
+		long cluster = 0;
+		for (Entry entry = first; entry != null; entry = entry.next) {
+			comparisons++;
+			MatchType match = phoneNumberService.isNumberMatch(entry.phoneNumber, number);
+			if (match == MatchType.EXACT_MATCH) {
+				return entry.cluster;
+			}
+			if (cluster == 0 && (match == MatchType.NSN_MATCH || match == MatchType.SHORT_NSN_MATCH)) {
+				cluster = entry.cluster;
+			}
+			last = entry;
+		}
+
+		if (cluster == 0) {
+			cluster = ++clusters;
+		}
+
+		// Keep each distinct phone number, so a later exact match is found
+		Entry entry = new Entry(new PhoneNumber().mergeFrom(number), cluster);
+		if (last == null) {
+			buckets.put(key, entry);
+		} else {
+			last.next = entry;
+		}
+		size++;
+
+		return cluster;
+	}
+
+	/**
+	 * Returns the number of clusters.
+	 */
+	public long getClusters() {
+		return clusters;
+	}
+
+	/**
+	 * Returns the number of distinct phone numbers.
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of phone number comparisons.
+	 */
+	public long getComparisons() {
+		return comparisons;
+	}
+
+	public void clear() {
+		buckets.clear();
+	}
+}
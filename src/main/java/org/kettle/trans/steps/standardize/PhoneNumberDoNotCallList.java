@@ -0,0 +1,224 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A do not call list of phone numbers, each one encoded as the digits of its
+ * E164 format in a primitive long, like 33612345678 for +33612345678.
+ *
+ * <p>
+ * A text file, one phone number in E164 format per line, is loaded in a
+ * sorted long array. A binary file (.bin), the sorted numbers as big-endian
+ * longs, is memory mapped for the lists too large for the heap. A number is
+ * looked up by binary search, without any object per entry.
+ * </p>
+ *
+ * <p>
+ * Immutable and thread safe, shared by the step worker threads.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public final class PhoneNumberDoNotCallList {
+
+	/** The file extension of the binary lists */
+	public static final String BINARY_EXTENSION = ".bin"; //$NON-NLS-1$
+
+	/** The maximum number of digits of a phone number in E164 format */
+	private static final int MAX_DIGITS = 18;
+
+	/** The number of longs of each mapped segment, a power of two */
+	private static final int SEGMENT_SHIFT = 27;
+	private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+	/** The sorted numbers loaded in the heap, or null if mapped */
+	private final long[] numbers;
+
+	/** The mapped segments of the sorted numbers, or null if loaded */
+	private final LongBuffer[] segments;
+
+	private final long size;
+
+	/** The number of lines not in E164 format */
+	private final long invalid;
+
+	private PhoneNumberDoNotCallList(final long[] numbers, final LongBuffer[] segments, final long size,
+			final long invalid) {
+		this.numbers = numbers;
+		this.segments = segments;
+		this.size = size;
+		this.invalid = invalid;
+	}
+
+	/**
+	 * Load or map a do not call list, depending on its file extension.
+	 *
+	 * @param file
+	 *            the text or binary file
+	 */
+	public static PhoneNumberDoNotCallList load(final Path file) throws IOException {
+		if (file.getFileName().toString().toLowerCase().endsWith(BINARY_EXTENSION)) {
+			return map(file);
+		}
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return read(reader);
+		}
+	}
+
+	/**
+	 * Read a do not call list, one phone number in E164 format per line. The
+	 * empty lines and the lines starting with # are ignored.
+	 */
+	public static PhoneNumberDoNotCallList read(final Reader reader) throws IOException {
+		BufferedReader lines = (reader instanceof BufferedReader) ? (BufferedReader) reader
+				: new BufferedReader(reader);
+
+		long[] numbers = new long[1024];
+		int size = 0;
+		long invalid = 0;
+		String line;
+		while ((line = lines.readLine()) != null) {
+			line = line.trim();
+			if (line.isEmpty() || line.charAt(0) == '#') {
+				continue;
+			}
+			long number = parse(line);
+			if (number < 0) {
+				invalid++;
+				continue;
+			}
+			if (size == numbers.length) {
+				numbers = Arrays.copyOf(numbers, size + (size >> 1));
+			}
+			numbers[size++] = number;
+		}
+
+		// Sort and remove the duplicates
+		Arrays.sort(numbers, 0, size);
+		int distinct = 0;
+		for (int i = 0; i < size; i++) {
+			if (distinct == 0 || numbers[i] != numbers[distinct - 1]) {
+				numbers[distinct++] = numbers[i];
+			}
+		}
+
+		return new PhoneNumberDoNotCallList(Arrays.copyOf(numbers, distinct), null, distinct, invalid);
+	}
+
+	/**
+	 * Map a binary do not call list, the sorted numbers as big-endian longs.
+	 */
+	public static PhoneNumberDoNotCallList map(final Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long bytes = channel.size();
+			if (bytes % Long.BYTES != 0) {
+				throw new IOException("Not a list of longs: " + file);
+			}
+
+			// The mapping stays valid after the channel is closed
+			long size = bytes / Long.BYTES;
+			LongBuffer[] segments = new LongBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+			for (int i = 0; i < segments.length; i++) {
+				long position = ((long) i << SEGMENT_SHIFT) * Long.BYTES;
+				long length = Math.min(bytes - position, (SEGMENT_MASK + 1) * Long.BYTES);
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, length).asLongBuffer();
+			}
+			return new PhoneNumberDoNotCallList(null, segments, size, 0);
+		}
+	}
+
+	/**
+	 * Returns the digits of a phone number in E164 format, or -1 if not a
+	 * phone number in E164 format.
+	 */
+	static long parse(final CharSequence value) {
+		int start = (value.length() > 0 && value.charAt(0) == '+') ? 1 : 0;
+		int digits = value.length() - start;
+		if (digits == 0 || digits > MAX_DIGITS) {
+			return -1;
+		}
+
+		long number = 0;
+		for (int i = start; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			number = number * 10 + (c - '0');
+		}
+		return number;
+	}
+
+	/**
+	 * Returns true if a phone number is in the list.
+	 *
+	 * @param e164Number
+	 *            the digits of the phone number in E164 format
+	 */
+	public boolean contains(final long e164Number) {
+		if (numbers != null) {
+			return Arrays.binarySearch(numbers, e164Number) >= 0;
+		}
+
+		long low = 0;
+		long high = size - 1;
+		while (low <= high) {
+			long middle = (low + high) >>> 1;
+			long value = segments[(int) (middle >>> SEGMENT_SHIFT)].get((int) (middle & SEGMENT_MASK));
+			if (value < e164Number) {
+				low = middle + 1;
+			} else if (value > e164Number) {
+				high = middle - 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of phone numbers in the list.
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of lines ignored because not in E164 format.
+	 */
+	public long getInvalid() {
+		return invalid;
+	}
+
+	/**
+	 * Returns true if the list is memory mapped.
+	 */
+	public boolean isMapped() {
+		return segments != null;
+	}
+}
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.i18n.phonenumbers.PhoneNumberToCarrierMapper;
+import com.google.i18n.phonenumbers.PhoneNumberToTimeZonesMapper;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberType;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+import com.google.i18n.phonenumbers.geocoding.PhoneNumberOfflineGeocoder;
+
+/**
+ * Enrich a phone number with its geographical description, carrier name and
+ * time zones, from the offline prefix tables of libphonenumber.
+ *
+ * <p>
+ * The prefix tables are loaded on first use, once per JVM, and shared by all
+ * step copies. The geocoder and carrier tables are loaded lazily by language
+ * and country calling code and are not thread safe, so their lookups are
+ * serialized.
+ * </p>
+ *
+ * <p>
+ * The results are cached by number type, language and leading digits of the
+ * number in E.164 format. The prefix tables hold prefixes of at most 10 digits
+ * with the country calling code, the mobile token of a few countries like
+ * Argentina shifts them by one, so the numbers sharing their first 11 digits
+ * get the same results. Only the cache misses take the lock of the tables.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public final class PhoneNumberEnricher {
+
+	/** The separator of the time zones of a phone number */
+	public static final String TIME_ZONE_SEPARATOR = ","; //$NON-NLS-1$
+
+	/** The number of leading digits of the number in E.164 format of the cache keys */
+	private static final int PREFIX_LENGTH = 11;
+
+	/** The maximum number of cached results of each kind, the other results are looked up each time */
+	private static final int MAX_CACHE_SIZE = 100_000;
+
+	/** The cached value of an unknown result */
+	private static final String NONE = ""; //$NON-NLS-1$
+
+	private static PhoneNumberEnricher instance;
+
+	private final PhoneNumberOfflineGeocoder geocoder;
+	private final PhoneNumberToCarrierMapper carrierMapper;
+	private final PhoneNumberToTimeZonesMapper timeZonesMapper;
+
+	private final Map<String, String> descriptions = new ConcurrentHashMap<>();
+	private final Map<String, String> carriers = new ConcurrentHashMap<>();
+	private final Map<String, String> timeZones = new ConcurrentHashMap<>();
+
+	public static synchronized PhoneNumberEnricher getInstance() {
+		if (instance == null) {
+			instance = new PhoneNumberEnricher();
+		}
+		return instance;
+	}
+
+	private PhoneNumberEnricher() {
+		super();
+		this.geocoder = PhoneNumberOfflineGeocoder.getInstance();
+		this.carrierMapper = PhoneNumberToCarrierMapper.getInstance();
+		this.timeZonesMapper = PhoneNumberToTimeZonesMapper.getInstance();
+	}
+
+	/**
+	 * Returns the cache key of a phone number: its type, the language if any
+	 * and the leading digits of its number in E.164 format.
+	 */
+	private static String key(final PhoneNumber phoneNumber, final PhoneNumberType type, final Locale locale) {
+		StringBuilder key = new StringBuilder(32);
+		key.append(type.ordinal()).append(':');
+		if (locale != null) {
+			key.append(locale).append(':');
+		}
+
+		int start = key.length();
+		key.append(phoneNumber.getCountryCode());
+		// Italian leading zeros are part of the national significant number
+		if (phoneNumber.isItalianLeadingZero()) {
+			for (int i = 0; i < phoneNumber.getNumberOfLeadingZeros(); i++) {
+				key.append('0');
+			}
+		}
+		key.append(phoneNumber.getNationalNumber());
+		key.setLength(Math.min(key.length(), start + PREFIX_LENGTH));
+		return key.toString();
+	}
+
+	private static void put(final Map<String, String> cache, final String key, final String value) {
+		if (cache.size() < MAX_CACHE_SIZE) {
+			cache.put(key, value);
+		}
+	}
+
+	/**
+	 * Returns the geographical description of a phone number, such as the
+	 * city or the country, or null if unknown.
+	 *
+	 * @param type
+	 *            the type of the phone number
+	 */
+	public String getDescription(final PhoneNumber phoneNumber, final PhoneNumberType type, final Locale locale) {
+		if (type == PhoneNumberType.UNKNOWN) {
+			return null;
+		}
+
+		String key = key(phoneNumber, type, locale);
+		String description = descriptions.get(key);
+		if (description == null) {
+			synchronized (geocoder) {
+				description = geocoder.getDescriptionForNumber(phoneNumber, locale);
+			}
+			put(descriptions, key, description);
+		}
+		return description.isEmpty() ? null : description;
+	}
+
+	/**
+	 * Returns the name of the original carrier of a mobile phone number, or
+	 * null if unknown.
+	 *
+	 * @param type
+	 *            the type of the phone number
+	 */
+	public String getCarrier(final PhoneNumber phoneNumber, final PhoneNumberType type, final Locale locale) {
+		// Only the mobile phone numbers have a carrier
+		if (type != PhoneNumberType.MOBILE && type != PhoneNumberType.FIXED_LINE_OR_MOBILE
+				&& type != PhoneNumberType.PAGER) {
+			return null;
+		}
+
+		String key = key(phoneNumber, type, locale);
+		String carrier = carriers.get(key);
+		if (carrier == null) {
+			synchronized (carrierMapper) {
+				carrier = carrierMapper.getNameForNumber(phoneNumber, locale);
+			}
+			put(carriers, key, carrier);
+		}
+		return carrier.isEmpty() ? null : carrier;
+	}
+
+	/**
+	 * Returns the time zones of a phone number, comma separated, or null if
+	 * unknown.
+	 *
+	 * @param type
+	 *            the type of the phone number
+	 */
+	public String getTimeZones(final PhoneNumber phoneNumber, final PhoneNumberType type) {
+		if (type == PhoneNumberType.UNKNOWN) {
+			return null;
+		}
+
+		String key = key(phoneNumber, type, null);
+		String result = timeZones.get(key);
+		if (result == null) {
+			result = lookupTimeZones(phoneNumber);
+			put(timeZones, key, result);
+		}
+		return result.isEmpty() ? null : result;
+	}
+
+	private String lookupTimeZones(final PhoneNumber phoneNumber) {
+		StringBuilder result = new StringBuilder();
+		for (String timeZone : timeZonesMapper.getTimeZonesForNumber(phoneNumber)) {
+			if (PhoneNumberToTimeZonesMapper.getUnknownTimeZone().equals(timeZone))
+				continue;
+			if (result.length() > 0) {
+				result.append(TIME_ZONE_SEPARATOR);
+			}
+			result.append(timeZone);
+		}
+		return (result.length() == 0) ? NONE : result.toString();
+	}
+
+	/**
+	 * Returns the number of cached results.
+	 */
+	public int getCacheSize() {
+		return descriptions.size() + carriers.size() + timeZones.size();
+	}
+}
@@ -0,0 +1,327 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonemetadata.PhoneMetadata;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+/**
+ * Digits only parser of clean phone numbers in national form, like
+ * "06 12 34 56 78" or "(201) 555-0123", for trusted sources.
+ *
+ * <p>
+ * The separators are skipped, the trunk prefix is removed and the country
+ * calling code is prefixed, following a small rule table by region: the
+ * country calling code, the trunk prefix and the length range of the national
+ * significant number. The phone number is built in a char array, without
+ * calling {@link PhoneNumberUtil#parse} and without allocation.
+ * </p>
+ *
+ * <p>
+ * The phone number patterns are not checked, so a wrong number of the right
+ * length is accepted. Everything that doesn't fit the rule, like letters or a
+ * leading zero, is left to the full parser. So are the digits starting with
+ * the international prefix of the region, like "010 852 6724 8395" in Japan,
+ * or with its country calling code, like "49 30 1234567" in Germany, that
+ * libphonenumber reads as international numbers.
+ * </p>
+ *
+ * <p>
+ * Not thread safe, each step copy or worker thread owns its parser.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public class PhoneNumberFastParser {
+
+	/** The maximum length of input */
+	private static final int MAX_INPUT_STRING_LENGTH = 250;
+
+	/** The maximum length of the country calling code */
+	private static final int MAX_LENGTH_COUNTRY_CODE = 3;
+
+	/** The maximum length of the national significant number */
+	private static final int MAX_LENGTH_FOR_NSN = 17;
+
+	/**
+	 * The rule of a region.
+	 */
+	public static final class Rule {
+		private final int countryCode;
+		private final char[] countryDigits;
+		private final char[] internationalPrefix;
+		private final char[] trunkPrefix;
+		private final int minLength;
+		private final int maxLength;
+
+		/**
+		 * Create a rule
+		 *
+		 * @param countryCode
+		 *            the country calling code
+		 * @param internationalPrefix
+		 *            the digits of the international prefix
+		 * @param trunkPrefix
+		 *            the digits of the trunk prefix, empty if none
+		 * @param minLength
+		 *            the minimum length of the national significant number
+		 * @param maxLength
+		 *            the maximum length of the national significant number
+		 */
+		public Rule(final int countryCode, final String internationalPrefix, final String trunkPrefix,
+				final int minLength, final int maxLength) {
+			if (countryCode <= 0 || countryCode >= 1000 || minLength < 1 || maxLength < minLength
+					|| maxLength > MAX_LENGTH_FOR_NSN) {
+				throw new IllegalArgumentException();
+			}
+			this.countryCode = countryCode;
+			this.countryDigits = String.valueOf(countryCode).toCharArray();
+			this.internationalPrefix = internationalPrefix.toCharArray();
+			this.trunkPrefix = trunkPrefix.toCharArray();
+			this.minLength = minLength;
+			this.maxLength = maxLength;
+		}
+
+		public int getCountryCode() {
+			return countryCode;
+		}
+
+		public String getInternationalPrefix() {
+			return new String(internationalPrefix);
+		}
+
+		public String getTrunkPrefix() {
+			return new String(trunkPrefix);
+		}
+
+		public int getMinLength() {
+			return minLength;
+		}
+
+		public int getMaxLength() {
+			return maxLength;
+		}
+	}
+
+	/** The rule of each region */
+	private final Map<String, Rule> rules;
+
+	/** The phone number in E164 format: '+', the country code and the national significant number */
+	private final char[] buffer = new char[1 + MAX_LENGTH_COUNTRY_CODE + MAX_LENGTH_FOR_NSN + 8];
+	private int length;
+
+	/**
+	 * Create a parser with the rules of the regions, built from the
+	 * libphonenumber metadata. The regions whose international or trunk prefix
+	 * is not a literal, or that transform the national number, are not
+	 * eligible.
+	 *
+	 * @param regions
+	 *            the region codes
+	 */
+	public PhoneNumberFastParser(final Collection<String> regions) {
+		super();
+
+		this.rules = new HashMap<>();
+		for (String region : regions) {
+			Rule rule = createRule(region);
+			if (rule != null) {
+				rules.put(region, rule);
+			}
+		}
+	}
+
+	/**
+	 * Create a parser sharing the rules of another one, for use by another
+	 * thread.
+	 */
+	public PhoneNumberFastParser(final PhoneNumberFastParser parser) {
+		super();
+
+		this.rules = parser.rules;
+	}
+
+	/**
+	 * Returns the rule of a region from its metadata, or null if the region is
+	 * not eligible.
+	 */
+	public static Rule createRule(final String region) {
+		PhoneMetadata metadata = PhoneNumberMetadata.getForRegion(region);
+		if (metadata == null || metadata.hasNationalPrefixTransformRule()) {
+			return null;
+		}
+
+		String prefix = metadata.getNationalPrefixForParsing();
+		if (prefix == null || prefix.isEmpty()) {
+			prefix = metadata.getNationalPrefix();
+		}
+		if (prefix == null) {
+			prefix = "";
+		}
+		for (int i = 0; i < prefix.length(); i++) {
+			if (prefix.charAt(i) < '0' || prefix.charAt(i) > '9') {
+				return null;
+			}
+		}
+
+		// The international prefixes matched by a pattern are left to the parser
+		String internationalPrefix = metadata.getInternationalPrefix();
+		if (internationalPrefix == null || internationalPrefix.isEmpty()) {
+			return null;
+		}
+		for (int i = 0; i < internationalPrefix.length(); i++) {
+			if (internationalPrefix.charAt(i) < '0' || internationalPrefix.charAt(i) > '9') {
+				return null;
+			}
+		}
+
+		List<Integer> lengths = metadata.getGeneralDesc().getPossibleLengthList();
+		if (lengths.isEmpty()) {
+			return null;
+		}
+		int min = Integer.MAX_VALUE;
+		int max = 0;
+		for (int value : lengths) {
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+		}
+		if (min < 1 || max > MAX_LENGTH_FOR_NSN) {
+			return null;
+		}
+
+		return new Rule(metadata.getCountryCode(), internationalPrefix, prefix, min, max);
+	}
+
+	/**
+	 * Returns the rule of a region, or null if the region is not eligible.
+	 */
+	public Rule getRule(final String region) {
+		return rules.get(region);
+	}
+
+	/**
+	 * Returns the number of regions eligible to the fast path.
+	 */
+	public int size() {
+		return rules.size();
+	}
+
+	/**
+	 * Parse a clean phone number in national form.
+	 *
+	 * @param value
+	 *            the value to parse
+	 * @param region
+	 *            the region of the phone number
+	 * @param phoneNumber
+	 *            the phone number to fill if recognized
+	 * @return true if the value has been recognized, false if it has to be
+	 *         parsed
+	 */
+	public boolean parse(final CharSequence value, final String region, final PhoneNumber phoneNumber) {
+
+		Rule rule = rules.get(region);
+		if (rule == null) {
+			return false;
+		}
+
+		int size = value.length();
+		if (size > MAX_INPUT_STRING_LENGTH) {
+			return false;
+		}
+
+		// The digits are written after the country code, the trunk prefix is
+		// removed later
+		int start = 1 + rule.countryDigits.length;
+		int limit = start + rule.trunkPrefix.length + rule.maxLength;
+		int end = start;
+		for (int i = 0; i < size; i++) {
+			char c = value.charAt(i);
+			if (c >= '0' && c <= '9') {
+				if (end == limit) {
+					return false;
+				}
+				buffer[end++] = c;
+			} else if (!PhoneNumberScanner.isSeparator(c)) {
+				return false;
+			}
+		}
+
+		// An international number, with the international prefix or the
+		// country calling code without '+', is handled by the parser
+		if (startsWith(start, end, rule.internationalPrefix) || startsWith(start, end, rule.countryDigits)) {
+			return false;
+		}
+
+		// Remove the trunk prefix
+		int nsn = start;
+		if (startsWith(start, end, rule.trunkPrefix)) {
+			nsn += rule.trunkPrefix.length;
+		}
+		int nsnLength = end - nsn;
+		if (nsnLength < rule.minLength || nsnLength > rule.maxLength) {
+			return false;
+		}
+
+		// Leading zeros are handled by the parser
+		if (buffer[nsn] == '0') {
+			return false;
+		}
+
+		long nationalNumber = 0;
+		for (int i = nsn; i < end; i++) {
+			nationalNumber = nationalNumber * 10 + (buffer[i] - '0');
+		}
+		if (nsn != start) {
+			System.arraycopy(buffer, nsn, buffer, start, nsnLength);
+		}
+
+		buffer[0] = '+';
+		System.arraycopy(rule.countryDigits, 0, buffer, 1, rule.countryDigits.length);
+		length = start + nsnLength;
+
+		phoneNumber.clear();
+		phoneNumber.setCountryCode(rule.countryCode);
+		phoneNumber.setNationalNumber(nationalNumber);
+
+		return true;
+	}
+
+	private boolean startsWith(final int start, final int end, final char[] prefix) {
+		if (prefix.length == 0 || prefix.length > end - start) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (buffer[start + i] != prefix[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the last recognized phone number in E164 format.
+	 */
+	public String toE164() {
+		return new String(buffer, 0, length);
+	}
+}
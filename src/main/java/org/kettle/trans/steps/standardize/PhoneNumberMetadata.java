@@ -0,0 +1,110 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonemetadata.PhoneMetadata;
+import com.google.i18n.phonenumbers.Phonemetadata.PhoneMetadataCollection;
+
+/**
+ * Read access to the libphonenumber region metadata, which the library does
+ * not expose publicly. The metadata is read from the same resources than
+ * {@link PhoneNumberUtil} and shared by all steps of the JVM.
+ *
+ * @author Nicolas ADMENT
+ */
+public final class PhoneNumberMetadata {
+
+	private static final String METADATA_FILE_PREFIX = "/com/google/i18n/phonenumbers/data/PhoneNumberMetadataProto"; //$NON-NLS-1$
+
+	private static final ConcurrentHashMap<String, PhoneMetadata> METADATA = new ConcurrentHashMap<>();
+
+	private PhoneNumberMetadata() {
+		// Static class
+	}
+
+	/**
+	 * Returns the metadata of a region, or null if the region is not supported.
+	 *
+	 * @param region
+	 *            the region code (ISO 2)
+	 */
+	public static PhoneMetadata getForRegion(final String region) {
+		if (region == null || !PhoneNumberUtil.getInstance().getSupportedRegions().contains(region)) {
+			return null;
+		}
+		return load(region);
+	}
+
+	/**
+	 * Returns the metadata of a non geographical entity, or null if the calling
+	 * code is not supported.
+	 *
+	 * @param countryCallingCode
+	 *            the country calling code
+	 */
+	public static PhoneMetadata getForNonGeographicalRegion(final int countryCallingCode) {
+		if (!PhoneNumberUtil.getInstance().getSupportedGlobalNetworkCallingCodes().contains(countryCallingCode)) {
+			return null;
+		}
+		return load(String.valueOf(countryCallingCode));
+	}
+
+	/**
+	 * Returns the metadata of the main region of a country calling code, or
+	 * null if the calling code is not supported.
+	 */
+	public static PhoneMetadata getForCountryCode(final int countryCallingCode) {
+		String region = PhoneNumberUtil.getInstance().getRegionCodeForCountryCode(countryCallingCode);
+		if (PhoneNumberUtil.REGION_CODE_FOR_NON_GEO_ENTITY.equals(region)) {
+			return getForNonGeographicalRegion(countryCallingCode);
+		}
+		return getForRegion(region);
+	}
+
+	private static PhoneMetadata load(final String key) {
+		PhoneMetadata metadata = METADATA.get(key);
+		if (metadata == null) {
+			try (InputStream source = PhoneNumberUtil.class.getResourceAsStream(METADATA_FILE_PREFIX + '_' + key)) {
+				if (source == null) {
+					return null;
+				}
+				ObjectInputStream in = new ObjectInputStream(source);
+				PhoneMetadataCollection collection = new PhoneMetadataCollection();
+				collection.readExternal(in);
+				List<PhoneMetadata> list = collection.getMetadataList();
+				if (list.isEmpty()) {
+					return null;
+				}
+				metadata = list.get(0);
+			} catch (IOException e) {
+				return null;
+			}
+			PhoneMetadata previous = METADATA.putIfAbsent(key, metadata);
+			if (previous != null) {
+				metadata = previous;
+			}
+		}
+		return metadata;
+	}
+}
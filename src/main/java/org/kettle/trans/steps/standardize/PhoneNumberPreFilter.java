@@ -0,0 +1,108 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+/**
+ * Reject the values that obviously are not phone numbers, like "N/A", "0" or
+ * an email address, without calling the libphonenumber parser that throws an
+ * exception for each of them.
+ *
+ * <p>
+ * A single pass over the characters, without allocation. Immutable and thread
+ * safe.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public final class PhoneNumberPreFilter {
+
+	/** The default minimum number of digits */
+	public static final int DEFAULT_MIN_DIGITS = 3;
+
+	/** The default maximum number of digits, including the extension */
+	public static final int DEFAULT_MAX_DIGITS = 25;
+
+	/** The default maximum percentage of letters among the letters and digits */
+	public static final int DEFAULT_MAX_LETTER_PERCENT = 75;
+
+	private final int minDigits;
+	private final int maxDigits;
+	private final int maxLetterPercent;
+
+	/**
+	 * Create a filter
+	 *
+	 * @param minDigits
+	 *            the minimum number of digits
+	 * @param maxDigits
+	 *            the maximum number of digits, including the extension
+	 * @param maxLetterPercent
+	 *            the maximum percentage of letters among the letters and
+	 *            digits, letters are allowed by vanity numbers like
+	 *            1-800-FLOWERS and extension prefixes
+	 */
+	public PhoneNumberPreFilter(final int minDigits, final int maxDigits, final int maxLetterPercent) {
+		super();
+		this.minDigits = Math.max(1, minDigits);
+		this.maxDigits = Math.max(this.minDigits, maxDigits);
+		this.maxLetterPercent = Math.min(100, Math.max(0, maxLetterPercent));
+	}
+
+	/**
+	 * Returns true if the value may be a phone number and must be parsed.
+	 */
+	public boolean accept(final CharSequence value) {
+		int digits = 0;
+		int letters = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char ch = value.charAt(i);
+			if (ch >= '0' && ch <= '9') {
+				digits++;
+			} else if (ch == '@') {
+				// An email address
+				return false;
+			} else if (ch < 128) {
+				if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z')) {
+					letters++;
+				}
+			} else if (Character.isDigit(ch)) {
+				// Full width and other Unicode digits are accepted by the parser
+				digits++;
+			} else if (Character.isLetter(ch)) {
+				letters++;
+			}
+		}
+
+		if (digits < minDigits || digits > maxDigits) {
+			return false;
+		}
+
+		return letters * 100 <= maxLetterPercent * (letters + digits);
+	}
+
+	public int getMinDigits() {
+		return minDigits;
+	}
+
+	public int getMaxDigits() {
+		return maxDigits;
+	}
+
+	public int getMaxLetterPercent() {
+		return maxLetterPercent;
+	}
+}
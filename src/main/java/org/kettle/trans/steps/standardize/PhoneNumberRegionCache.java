@@ -0,0 +1,246 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonemetadata.PhoneMetadata;
+import com.google.i18n.phonenumbers.Phonemetadata.PhoneNumberDesc;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+/**
+ * The region of phone numbers, the same as
+ * {@link PhoneNumberUtil#getRegionCodeForNumber(PhoneNumber)} but cached by
+ * country calling code and leading digits.
+ *
+ * <p>
+ * For a country calling code shared by several regions, like +1 or +7,
+ * libphonenumber tries the leading digits or the number patterns of each
+ * region in turn. The leading digits of the national significant number are
+ * enough to exclude most of them: a region is excluded when neither its
+ * leading digits nor its number patterns can match a number starting with
+ * these digits. The first region whose leading digits match them is the
+ * answer. The candidates left are cached by leading digits, and only them are
+ * tried for each phone number.
+ * </p>
+ *
+ * <p>
+ * Thread safe, shared by the step copies and worker threads.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public final class PhoneNumberRegionCache {
+
+	/** The number of leading digits of the cache key */
+	private static final int PREFIX_LENGTH = 3;
+
+	/**
+	 * The regions left for the phone numbers starting with some leading
+	 * digits, in libphonenumber order.
+	 */
+	private static final class Candidates {
+		private final String[] regions;
+
+		/** The leading digits pattern of each region, or null if the number patterns are matched */
+		private final Pattern[] leadingDigits;
+
+		/** The region if the leading digits are enough, or null */
+		private final String region;
+
+		private Candidates(final List<String> regions, final List<Pattern> leadingDigits, final String region) {
+			this.regions = regions.toArray(new String[regions.size()]);
+			this.leadingDigits = leadingDigits.toArray(new Pattern[leadingDigits.size()]);
+			this.region = region;
+		}
+	}
+
+	/**
+	 * The compiled patterns of a region.
+	 */
+	private static final class Region {
+		private final String code;
+
+		/** The leading digits pattern, or null if none */
+		private final Pattern leadingDigits;
+
+		/** The general description pattern */
+		private final Pattern general;
+
+		/** The pattern of each number type */
+		private final Pattern[] types;
+
+		private Region(final String code, final PhoneMetadata metadata) {
+			this.code = code;
+			this.leadingDigits = metadata.hasLeadingDigits() ? Pattern.compile(metadata.getLeadingDigits()) : null;
+			this.general = compile(metadata.getGeneralDesc());
+
+			List<Pattern> patterns = new ArrayList<>();
+			for (PhoneNumberDesc description : new PhoneNumberDesc[] { metadata.getPremiumRate(),
+					metadata.getTollFree(), metadata.getSharedCost(), metadata.getVoip(), metadata.getPersonalNumber(),
+					metadata.getPager(), metadata.getUan(), metadata.getVoicemail(), metadata.getFixedLine(),
+					metadata.getMobile() }) {
+				Pattern pattern = compile(description);
+				if (pattern != null) {
+					patterns.add(pattern);
+				}
+			}
+			this.types = patterns.toArray(new Pattern[patterns.size()]);
+		}
+
+		private static Pattern compile(final PhoneNumberDesc description) {
+			if (description == null || !description.hasNationalNumberPattern()
+					|| description.getNationalNumberPattern().isEmpty()) {
+				return null;
+			}
+			return Pattern.compile(description.getNationalNumberPattern());
+		}
+
+		/**
+		 * Returns true if no phone number starting with the prefix can be
+		 * valid in the region.
+		 */
+		private boolean excludes(final String prefix) {
+			if (general == null || isExcluded(general, prefix)) {
+				return true;
+			}
+			for (Pattern type : types) {
+				if (!isExcluded(type, prefix)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Returns true if the pattern can't match the prefix followed by any
+		 * other digits.
+		 */
+		private static boolean isExcluded(final Pattern pattern, final String prefix) {
+			Matcher matcher = pattern.matcher(prefix);
+			return !matcher.matches() && !matcher.hitEnd();
+		}
+	}
+
+	private final PhoneNumberUtil phoneNumberService;
+
+	/** The compiled regions of each shared country calling code */
+	private final ConcurrentHashMap<Integer, Region[]> regions = new ConcurrentHashMap<>();
+
+	/** The candidates by country calling code and leading digits */
+	private final ConcurrentHashMap<Long, Candidates> candidates = new ConcurrentHashMap<>();
+
+	public PhoneNumberRegionCache(final PhoneNumberUtil phoneNumberService) {
+		super();
+		this.phoneNumberService = phoneNumberService;
+	}
+
+	/**
+	 * Returns the region of a phone number
+	 *
+	 * @param phoneNumber
+	 *            the phone number
+	 * @return the region code, or null if the number is not valid in any
+	 *         region sharing its country calling code
+	 */
+	public String getRegionCode(final PhoneNumber phoneNumber) {
+		int countryCode = phoneNumber.getCountryCode();
+		List<String> regionCodes = phoneNumberService.getRegionCodesForCountryCode(countryCode);
+		if (regionCodes.size() <= 1) {
+			return phoneNumberService.getRegionCodeForNumber(phoneNumber);
+		}
+
+		String nationalNumber = phoneNumberService.getNationalSignificantNumber(phoneNumber);
+		int length = Math.min(PREFIX_LENGTH, nationalNumber.length());
+		int prefix = 0;
+		for (int i = 0; i < length; i++) {
+			prefix = prefix * 10 + (nationalNumber.charAt(i) - '0');
+		}
+
+		// The length is part of the key, for the leading zeros
+		long key = ((long) countryCode << 32) | (length << 16) | prefix;
+		Candidates entry = candidates.get(key);
+		if (entry == null) {
+			entry = lookup(countryCode, regionCodes, nationalNumber.substring(0, length));
+			candidates.putIfAbsent(key, entry);
+		}
+		if (entry.region != null) {
+			return entry.region;
+		}
+
+		for (int i = 0; i < entry.regions.length; i++) {
+			if (entry.leadingDigits[i] != null) {
+				if (entry.leadingDigits[i].matcher(nationalNumber).lookingAt()) {
+					return entry.regions[i];
+				}
+			} else if (phoneNumberService.isValidNumberForRegion(phoneNumber, entry.regions[i])) {
+				return entry.regions[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of cached leading digits.
+	 */
+	public int size() {
+		return candidates.size();
+	}
+
+	private Candidates lookup(final int countryCode, final List<String> regionCodes, final String prefix) {
+		List<String> codes = new ArrayList<>();
+		List<Pattern> leadingDigits = new ArrayList<>();
+		for (Region region : regions.computeIfAbsent(countryCode, k -> compile(regionCodes))) {
+			if (region.leadingDigits != null) {
+				Matcher matcher = region.leadingDigits.matcher(prefix);
+				if (matcher.lookingAt()) {
+					// The leading digits decide before any other region
+					if (codes.isEmpty()) {
+						return new Candidates(codes, leadingDigits, region.code);
+					}
+					codes.add(region.code);
+					leadingDigits.add(region.leadingDigits);
+					break;
+				}
+				if (matcher.hitEnd()) {
+					codes.add(region.code);
+					leadingDigits.add(region.leadingDigits);
+				}
+			} else if (!region.excludes(prefix)) {
+				codes.add(region.code);
+				leadingDigits.add(null);
+			}
+		}
+		return new Candidates(codes, leadingDigits, null);
+	}
+
+	private static Region[] compile(final List<String> regionCodes) {
+		List<Region> compiled = new ArrayList<>();
+		for (String regionCode : regionCodes) {
+			PhoneMetadata metadata = PhoneNumberMetadata.getForRegion(regionCode);
+			if (metadata != null) {
+				compiled.add(new Region(regionCode, metadata));
+			}
+		}
+		return compiled.toArray(new Region[compiled.size()]);
+	}
+}
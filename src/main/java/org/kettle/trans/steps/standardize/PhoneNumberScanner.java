@@ -0,0 +1,233 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonemetadata.PhoneMetadata;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+/**
+ * Single pass scanner that recognizes phone numbers already written in
+ * international form, like "+33612345678" or "+33 6 12 34 56 78", and builds
+ * the {@link PhoneNumber} without calling {@link PhoneNumberUtil#parse}.
+ *
+ * <p>
+ * Only numbers for which the libphonenumber parser would produce exactly the
+ * same result are recognized: the national significant number must not start
+ * with zero or with the national prefix of the country. Everything else is
+ * left to the full parser.
+ * </p>
+ *
+ * <p>
+ * Not thread safe, each step copy or worker thread owns its scanner.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public class PhoneNumberScanner {
+
+	/** The minimum and maximum length of the national significant number */
+	private static final int MIN_LENGTH_FOR_NSN = 2;
+	private static final int MAX_LENGTH_FOR_NSN = 17;
+
+	/** The maximum length of the country calling code */
+	private static final int MAX_LENGTH_COUNTRY_CODE = 3;
+
+	/** The maximum length of input */
+	private static final int MAX_INPUT_STRING_LENGTH = 250;
+
+	/**
+	 * National prefix of the country calling codes eligible to the fast path,
+	 * indexed by calling code, empty if none, or null if not eligible.
+	 */
+	private final String[] nationalPrefixes;
+
+	private final char[] digits = new char[MAX_LENGTH_COUNTRY_CODE + MAX_LENGTH_FOR_NSN];
+	private int length;
+	private boolean canonical;
+
+	public PhoneNumberScanner(final PhoneNumberUtil service) {
+		super();
+
+		this.nationalPrefixes = new String[1000];
+		for (int countryCode : service.getSupportedCallingCodes()) {
+			PhoneMetadata metadata = PhoneNumberMetadata.getForCountryCode(countryCode);
+			if (metadata == null || metadata.hasNationalPrefixTransformRule()) {
+				continue;
+			}
+
+			String prefix = metadata.getNationalPrefixForParsing();
+			if (prefix == null || prefix.isEmpty()) {
+				prefix = metadata.getNationalPrefix();
+			}
+			if (prefix == null) {
+				prefix = "";
+			}
+
+			// Only a literal national prefix can be checked without regex
+			if (isDigits(prefix)) {
+				nationalPrefixes[countryCode] = prefix;
+			}
+		}
+	}
+
+	/**
+	 * Create a scanner sharing the national prefixes of another one, for use by
+	 * another thread.
+	 */
+	public PhoneNumberScanner(final PhoneNumberScanner scanner) {
+		super();
+
+		this.nationalPrefixes = scanner.nationalPrefixes;
+	}
+
+	private static boolean isDigits(final String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9')
+				return false;
+		}
+		return true;
+	}
+
+	static boolean isSeparator(final char c) {
+		switch (c) {
+		case ' ':
+		case '-':
+		case '.':
+		case '(':
+		case ')':
+		case '/':
+		case ',':
+		case '\u00A0':
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Scan a value for a phone number in international form.
+	 *
+	 * @param value
+	 *            the value to scan
+	 * @param phoneNumber
+	 *            the phone number to fill if recognized
+	 * @return true if the value has been recognized, false if it has to be
+	 *         parsed
+	 */
+	public boolean scan(final CharSequence value, final PhoneNumber phoneNumber) {
+
+		this.length = 0;
+		this.canonical = true;
+
+		int size = value.length();
+		if (size > MAX_INPUT_STRING_LENGTH) {
+			return false;
+		}
+
+		boolean plus = false;
+		for (int i = 0; i < size; i++) {
+			char c = value.charAt(i);
+			if (c >= '0' && c <= '9') {
+				if (!plus || length == digits.length) {
+					return false;
+				}
+				digits[length++] = c;
+			} else if (c == '+') {
+				if (plus || length > 0) {
+					return false;
+				}
+				plus = true;
+				canonical = (i == 0);
+			} else if (isSeparator(c)) {
+				canonical = false;
+			} else {
+				return false;
+			}
+		}
+
+		if (!plus) {
+			return false;
+		}
+
+		// Country calling codes are prefix free
+		int countryCode = 0;
+		int start = 0;
+		String prefix = null;
+		while (start < MAX_LENGTH_COUNTRY_CODE && start < length) {
+			countryCode = countryCode * 10 + (digits[start++] - '0');
+			prefix = nationalPrefixes[countryCode];
+			if (prefix != null) {
+				break;
+			}
+		}
+		if (prefix == null) {
+			return false;
+		}
+
+		int nsnLength = length - start;
+		if (nsnLength < MIN_LENGTH_FOR_NSN || nsnLength > MAX_LENGTH_FOR_NSN) {
+			return false;
+		}
+
+		// Leading zeros and national prefix are handled by the parser
+		if (digits[start] == '0' || startsWith(start, prefix)) {
+			return false;
+		}
+
+		long nationalNumber = 0;
+		for (int i = start; i < length; i++) {
+			nationalNumber = nationalNumber * 10 + (digits[i] - '0');
+		}
+
+		phoneNumber.clear();
+		phoneNumber.setCountryCode(countryCode);
+		phoneNumber.setNationalNumber(nationalNumber);
+
+		return true;
+	}
+
+	private boolean startsWith(final int start, final String prefix) {
+		int size = prefix.length();
+		if (size == 0 || size > length - start) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (digits[start + i] != prefix.charAt(i))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if the last recognized value is already in E164 format.
+	 */
+	public boolean isCanonical() {
+		return canonical;
+	}
+
+	/**
+	 * Returns the last recognized phone number in E164 format.
+	 */
+	public String toE164() {
+		char[] result = new char[length + 1];
+		result[0] = '+';
+		System.arraycopy(digits, 0, result, 1, length);
+		return new String(result);
+	}
+}
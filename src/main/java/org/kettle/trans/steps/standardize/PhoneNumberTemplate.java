@@ -0,0 +1,219 @@
+/*******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.kettle.trans.steps.standardize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A custom output format of phone numbers, like "+CC (NNN) NNN-NNNN", that
+ * {@link com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberFormat}
+ * cannot produce.
+ *
+ * <p>
+ * In the template, a run of <code>C</code> is replaced by the country calling
+ * code and each <code>N</code> by the next digit of the national significant
+ * number. Any other character is copied, a backslash escapes the next
+ * character. Several templates separated by <code>|</code> support the
+ * numbers of different lengths, the first one with as many <code>N</code> as
+ * the number has digits is applied.
+ * </p>
+ *
+ * <p>
+ * The template is compiled once into a sequence of copy and literal
+ * operations, applied without regular expression. Immutable and thread safe.
+ * </p>
+ *
+ * @author Nicolas ADMENT
+ */
+public final class PhoneNumberTemplate {
+
+	/** Append the country calling code */
+	private static final int OP_COUNTRY_CODE = 0;
+
+	/** Append the next digits of the national significant number, the argument is the count */
+	private static final int OP_DIGITS = 1;
+
+	/** Append a literal, the argument is the index of the literal */
+	private static final int OP_LITERAL = 2;
+
+	private static final char ESCAPE = '\\';
+	private static final char SEPARATOR = '|';
+	private static final char COUNTRY_CODE = 'C';
+	private static final char DIGIT = 'N';
+
+	/**
+	 * A template for a number of digits.
+	 */
+	private static final class Pattern {
+		/** The number of digits of the national significant number */
+		private final int digits;
+
+		/** The operations, each one a code followed by its argument */
+		private final int[] operations;
+
+		private final String[] literals;
+
+		/** The length of the output, without the country calling code */
+		private final int length;
+
+		private Pattern(final int digits, final int[] operations, final String[] literals, final int length) {
+			this.digits = digits;
+			this.operations = operations;
+			this.literals = literals;
+			this.length = length;
+		}
+	}
+
+	private final String template;
+	private final Pattern[] patterns;
+
+	private PhoneNumberTemplate(final String template, final Pattern[] patterns) {
+		this.template = template;
+		this.patterns = patterns;
+	}
+
+	/**
+	 * Compile a template
+	 *
+	 * @param template
+	 *            the template, like "+CC (NNN) NNN-NNNN"
+	 * @return the compiled template
+	 * @throws IllegalArgumentException
+	 *             if a template has no digit, ends with an escape or two
+	 *             templates have the same number of digits
+	 */
+	public static PhoneNumberTemplate compile(final String template) {
+		if (template == null || template.isEmpty()) {
+			throw new IllegalArgumentException("Empty template");
+		}
+
+		List<Pattern> patterns = new ArrayList<>();
+		List<String> literals = new ArrayList<>();
+		int[] operations = new int[2 * template.length()];
+		int size = 0;
+		int digits = 0;
+		int length = 0;
+		StringBuilder literal = new StringBuilder();
+
+		for (int i = 0; i <= template.length(); i++) {
+			char c = (i == template.length()) ? SEPARATOR : template.charAt(i);
+
+			if (c == ESCAPE) {
+				if (++i == template.length()) {
+					throw new IllegalArgumentException("Escape at the end of the template: " + template);
+				}
+				literal.append(template.charAt(i));
+				continue;
+			}
+			if (c != COUNTRY_CODE && c != DIGIT && c != SEPARATOR) {
+				literal.append(c);
+				continue;
+			}
+
+			// The literal before a placeholder
+			if (literal.length() > 0) {
+				operations[size++] = OP_LITERAL;
+				operations[size++] = literals.size();
+				literals.add(literal.toString());
+				length += literal.length();
+				literal.setLength(0);
+			}
+
+			if (c == COUNTRY_CODE) {
+				if (size < 2 || operations[size - 2] != OP_COUNTRY_CODE) {
+					operations[size++] = OP_COUNTRY_CODE;
+					operations[size++] = 0;
+				}
+			} else if (c == DIGIT) {
+				if (size >= 2 && operations[size - 2] == OP_DIGITS) {
+					operations[size - 1]++;
+				} else {
+					operations[size++] = OP_DIGITS;
+					operations[size++] = 1;
+				}
+				digits++;
+				length++;
+			} else {
+				if (digits == 0) {
+					throw new IllegalArgumentException("No digit in the template: " + template);
+				}
+				for (Pattern pattern : patterns) {
+					if (pattern.digits == digits) {
+						throw new IllegalArgumentException("Two templates with " + digits + " digits: " + template);
+					}
+				}
+				int[] copy = new int[size];
+				System.arraycopy(operations, 0, copy, 0, size);
+				patterns.add(new Pattern(digits, copy, literals.toArray(new String[literals.size()]), length));
+				literals.clear();
+				size = 0;
+				digits = 0;
+				length = 0;
+			}
+		}
+
+		return new PhoneNumberTemplate(template, patterns.toArray(new Pattern[patterns.size()]));
+	}
+
+	/**
+	 * Format a phone number
+	 *
+	 * @param countryCode
+	 *            the country calling code
+	 * @param nationalSignificantNumber
+	 *            the digits of the national significant number
+	 * @return the formatted phone number, or null if no template has as many
+	 *         digits as the national significant number
+	 */
+	public String format(final int countryCode, final CharSequence nationalSignificantNumber) {
+		Pattern pattern = null;
+		for (Pattern candidate : patterns) {
+			if (candidate.digits == nationalSignificantNumber.length()) {
+				pattern = candidate;
+				break;
+			}
+		}
+		if (pattern == null) {
+			return null;
+		}
+
+		StringBuilder builder = new StringBuilder(pattern.length + 3);
+		int[] operations = pattern.operations;
+		int position = 0;
+		for (int i = 0; i < operations.length; i += 2) {
+			switch (operations[i]) {
+			case OP_COUNTRY_CODE:
+				builder.append(countryCode);
+				break;
+			case OP_DIGITS:
+				builder.append(nationalSignificantNumber, position, position + operations[i + 1]);
+				position += operations[i + 1];
+				break;
+			default:
+				builder.append(pattern.literals[operations[i + 1]]);
+				break;
+			}
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		return template;
+	}
+}
@@ -41,6 +41,38 @@ public class StandardizeEmailAddress implements Cloneable {
 	@Injection(name = "VALID_FIELD", group = "FIELDS")
 	private String validField= null;
 
+	/** The validation reason code field name */
+	@Injection(name = "REASON_FIELD", group = "FIELDS")
+	private String reasonField = null;
+
+	/** The local part field name */
+	@Injection(name = "LOCAL_PART_FIELD", group = "FIELDS")
+	private String localPartField = null;
+
+	/** The domain field name */
+	@Injection(name = "DOMAIN_FIELD", group = "FIELDS")
+	private String domainField = null;
+
+	/** The top level domain field name */
+	@Injection(name = "TOP_LEVEL_DOMAIN_FIELD", group = "FIELDS")
+	private String topLevelDomainField = null;
+
+	/** The canonical email address field name */
+	@Injection(name = "CANONICAL_FIELD", group = "FIELDS")
+	private String canonicalField = null;
+
+	/** The known top level domain field name */
+	@Injection(name = "KNOWN_TOP_LEVEL_DOMAIN_FIELD", group = "FIELDS")
+	private String knownTopLevelDomainField = null;
+
+	/** The disposable domain field name */
+	@Injection(name = "DISPOSABLE_FIELD", group = "FIELDS")
+	private String disposableField = null;
+
+	/** The suggested correction field name */
+	@Injection(name = "SUGGESTION_FIELD", group = "FIELDS")
+	private String suggestionField = null;
+
 	@Override
 	public Object clone() {
 		StandardizeEmailAddress clone;
@@ -76,4 +108,68 @@ public class StandardizeEmailAddress implements Cloneable {
 	public void setValidField(final String field) {
 		this.validField = StringUtils.stripToNull(field);
 	}
+
+	public String getReasonField() {
+		return reasonField;
+	}
+
+	public void setReasonField(final String field) {
+		this.reasonField = StringUtils.stripToNull(field);
+	}
+
+	public String getLocalPartField() {
+		return localPartField;
+	}
+
+	public void setLocalPartField(final String field) {
+		this.localPartField = StringUtils.stripToNull(field);
+	}
+
+	public String getDomainField() {
+		return domainField;
+	}
+
+	public void setDomainField(final String field) {
+		this.domainField = StringUtils.stripToNull(field);
+	}
+
+	public String getTopLevelDomainField() {
+		return topLevelDomainField;
+	}
+
+	public void setTopLevelDomainField(final String field) {
+		this.topLevelDomainField = StringUtils.stripToNull(field);
+	}
+
+	public String getCanonicalField() {
+		return canonicalField;
+	}
+
+	public void setCanonicalField(final String field) {
+		this.canonicalField = StringUtils.stripToNull(field);
+	}
+
+	public String getKnownTopLevelDomainField() {
+		return knownTopLevelDomainField;
+	}
+
+	public void setKnownTopLevelDomainField(final String field) {
+		this.knownTopLevelDomainField = StringUtils.stripToNull(field);
+	}
+
+	public String getDisposableField() {
+		return disposableField;
+	}
+
+	public void setDisposableField(final String field) {
+		this.disposableField = StringUtils.stripToNull(field);
+	}
+
+	public String getSuggestionField() {
+		return suggestionField;
+	}
+
+	public void setSuggestionField(final String field) {
+		this.suggestionField = StringUtils.stripToNull(field);
+	}
 }
@@ -17,6 +17,10 @@
 
 package org.kettle.trans.steps.standardize;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.trans.step.BaseStepData;
 import org.pentaho.di.trans.step.StepDataInterface;
@@ -44,11 +48,96 @@ import org.pentaho.di.trans.step.StepDataInterface;
 public class StandardizeEmailAddressData extends BaseStepData implements StepDataInterface {
 
 
+  protected RowMetaInterface inputRowMeta;
 
   protected RowMetaInterface outputRowMeta;
 
+  /** The rules to apply, in order */
+  protected StandardizeEmailAddress[] standardizes;
+
+  /** Index of the input field of each rule in the input row */
+  protected int[] inputIndexes;
+
+  /** Index of the output field of each rule in the output row */
+  protected int[] outputIndexes;
+
+  /** Index of the valid field of each rule, or -1 if none */
+  protected int[] validIndexes;
+
+  /** Index of the validation reason code field of each rule, or -1 if none */
+  protected int[] reasonIndexes;
+
+  /** Index of the local part field of each rule, or -1 if none */
+  protected int[] localPartIndexes;
+
+  /** Index of the domain field of each rule, or -1 if none */
+  protected int[] domainIndexes;
+
+  /** Index of the top level domain field of each rule, or -1 if none */
+  protected int[] topLevelDomainIndexes;
+
+  /** Index of the canonical address field of each rule, or -1 if none */
+  protected int[] canonicalIndexes;
+
+  /** Index of the known top level domain field of each rule, or -1 if none */
+  protected int[] knownTopLevelDomainIndexes;
+
+  /** Index of the disposable domain field of each rule, or -1 if none */
+  protected int[] disposableIndexes;
+
+  /** Index of the suggested correction field of each rule, or -1 if none */
+  protected int[] suggestionIndexes;
+
+  /** The parser of email addresses */
+  protected EmailAddressParser parser;
+
+  /** The canonical form of the provider addresses, or null if no canonical field */
+  protected EmailAddressCanonicalizer canonicalizer;
+
+  /** The cached verdicts of the domains, or null if no domain verdict field */
+  protected EmailDomainValidator domainValidator;
+
+  /** The cached corrections of the misspelled domains, or null if no suggestion field */
+  protected EmailDomainCorrector domainCorrector;
+
+  /** The number of invalid email addresses, by status ordinal */
+  protected final long[] invalid = new long[EmailAddressParser.Status.values().length];
+
+  /** The pool of worker threads, or null if rows are processed by the step thread */
+  protected OrderedRowProcessor<Object[]> processor;
+
+  /** The data of each worker thread */
+  protected final List<StandardizeEmailAddressData> workers = Collections.synchronizedList(new ArrayList<>());
+
   public StandardizeEmailAddressData() {
     super();
   }
 
+  /**
+   * Create the data of a worker thread, sharing the resolved rules of the step
+   * but with its own parser and row structure.
+   */
+  protected StandardizeEmailAddressData(StandardizeEmailAddressData parent) {
+    super();
+
+    this.inputRowMeta = parent.inputRowMeta.clone();
+    this.outputRowMeta = parent.outputRowMeta;
+    this.standardizes = parent.standardizes;
+    this.inputIndexes = parent.inputIndexes;
+    this.outputIndexes = parent.outputIndexes;
+    this.validIndexes = parent.validIndexes;
+    this.reasonIndexes = parent.reasonIndexes;
+    this.localPartIndexes = parent.localPartIndexes;
+    this.domainIndexes = parent.domainIndexes;
+    this.topLevelDomainIndexes = parent.topLevelDomainIndexes;
+    this.canonicalIndexes = parent.canonicalIndexes;
+    this.canonicalizer = parent.canonicalizer;
+    this.knownTopLevelDomainIndexes = parent.knownTopLevelDomainIndexes;
+    this.disposableIndexes = parent.disposableIndexes;
+    this.domainValidator = parent.domainValidator;
+    this.suggestionIndexes = parent.suggestionIndexes;
+    this.domainCorrector = parent.domainCorrector;
+    this.parser = new EmailAddressParser();
+  }
+
 }
\ No newline at end of file
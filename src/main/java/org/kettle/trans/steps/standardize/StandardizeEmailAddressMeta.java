@@ -22,12 +22,15 @@ import java.util.List;
 import org.kettle.ui.trans.steps.standardize.StandardizeEmailAddressDialog;
 import org.pentaho.di.core.CheckResult;
 import org.pentaho.di.core.CheckResultInterface;
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.annotations.Step;
 import org.pentaho.di.core.database.DatabaseMeta;
 import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.exception.KettlePluginException;
 import org.pentaho.di.core.exception.KettleStepException;
 import org.pentaho.di.core.exception.KettleValueException;
 import org.pentaho.di.core.exception.KettleXMLException;
+import org.pentaho.di.core.injection.Injection;
 import org.pentaho.di.core.injection.InjectionDeep;
 import org.pentaho.di.core.injection.InjectionSupported;
 import org.pentaho.di.core.row.RowMetaInterface;
@@ -72,6 +75,53 @@ public class StandardizeEmailAddressMeta extends BaseStepMeta implements StepMet
 
 	private static final String TAG_VALID_FIELD = "valid_field"; //$NON-NLS-1$
 
+	private static final String TAG_REASON_FIELD = "reason_field"; //$NON-NLS-1$
+
+	private static final String TAG_LOCAL_PART_FIELD = "local_part_field"; //$NON-NLS-1$
+	private static final String TAG_DOMAIN_FIELD = "domain_field"; //$NON-NLS-1$
+	private static final String TAG_TOP_LEVEL_DOMAIN_FIELD = "top_level_domain_field"; //$NON-NLS-1$
+	private static final String TAG_CANONICAL_FIELD = "canonical_field"; //$NON-NLS-1$
+	private static final String TAG_KNOWN_TOP_LEVEL_DOMAIN_FIELD = "known_top_level_domain_field"; //$NON-NLS-1$
+	private static final String TAG_DISPOSABLE_FIELD = "disposable_field"; //$NON-NLS-1$
+	private static final String TAG_SUGGESTION_FIELD = "suggestion_field"; //$NON-NLS-1$
+
+	private static final String TAG_PROVIDER_RULES_FILE = "provider_rules_file"; //$NON-NLS-1$
+	private static final String TAG_TOP_LEVEL_DOMAINS_FILE = "top_level_domains_file"; //$NON-NLS-1$
+	private static final String TAG_DISPOSABLE_DOMAINS_FILE = "disposable_domains_file"; //$NON-NLS-1$
+	private static final String TAG_POPULAR_DOMAINS_FILE = "popular_domains_file"; //$NON-NLS-1$
+
+	private static final String TAG_PARALLEL_WORKERS = "parallel_workers"; //$NON-NLS-1$
+	private static final String TAG_BATCH_SIZE = "batch_size"; //$NON-NLS-1$
+	private static final String TAG_MAX_LATENCY = "max_latency"; //$NON-NLS-1$
+
+	/** The number of worker threads, 1 to process rows in the step thread */
+	@Injection(name = "PARALLEL_WORKERS")
+	private int parallelWorkers;
+
+	/** The maximum number of rows of a batch processed by a worker */
+	@Injection(name = "BATCH_SIZE")
+	private int batchSize;
+
+	/** The maximum time in milliseconds a row waits for its batch to be processed */
+	@Injection(name = "MAX_LATENCY")
+	private long maxLatency;
+
+	/** The file of the provider rules of the canonical addresses, or null for the bundled rules */
+	@Injection(name = "PROVIDER_RULES_FILE")
+	private String providerRulesFile;
+
+	/** The file of the known top level domains, or null for the bundled list */
+	@Injection(name = "TOP_LEVEL_DOMAINS_FILE")
+	private String topLevelDomainsFile;
+
+	/** The file of the domains of the disposable email providers, or null if none */
+	@Injection(name = "DISPOSABLE_DOMAINS_FILE")
+	private String disposableDomainsFile;
+
+	/** The file of the popular domains of the suggested corrections, or null for the bundled list */
+	@Injection(name = "POPULAR_DOMAINS_FILE")
+	private String popularDomainsFile;
+
 	/** The email to standardize */
 	@InjectionDeep
 	private List<StandardizeEmailAddress> standardizes = new ArrayList<>();
@@ -120,6 +170,13 @@ public class StandardizeEmailAddressMeta extends BaseStepMeta implements StepMet
 	public void setDefault() {
 
 		this.standardizes = new ArrayList<>();
+		this.parallelWorkers = 1;
+		this.batchSize = OrderedRowProcessor.DEFAULT_BATCH_SIZE;
+		this.maxLatency = OrderedRowProcessor.DEFAULT_MAX_LATENCY;
+		this.providerRulesFile = null;
+		this.topLevelDomainsFile = null;
+		this.disposableDomainsFile = null;
+		this.popularDomainsFile = null;
 	}
 
 	@Override
@@ -140,12 +197,29 @@ public class StandardizeEmailAddressMeta extends BaseStepMeta implements StepMet
 
 		StringBuilder xml = new StringBuilder(500);
 
+		xml.append(XMLHandler.addTagValue(TAG_PARALLEL_WORKERS, this.parallelWorkers));
+		xml.append(XMLHandler.addTagValue(TAG_BATCH_SIZE, this.batchSize));
+		xml.append(XMLHandler.addTagValue(TAG_MAX_LATENCY, this.maxLatency));
+		xml.append(XMLHandler.addTagValue(TAG_PROVIDER_RULES_FILE, this.providerRulesFile));
+		xml.append(XMLHandler.addTagValue(TAG_TOP_LEVEL_DOMAINS_FILE, this.topLevelDomainsFile));
+		xml.append(XMLHandler.addTagValue(TAG_DISPOSABLE_DOMAINS_FILE, this.disposableDomainsFile));
+		xml.append(XMLHandler.addTagValue(TAG_POPULAR_DOMAINS_FILE, this.popularDomainsFile));
+
 		xml.append("<fields>");
 		for (StandardizeEmailAddress standardize : this.getStandardizeEmailAddresses()) {
 			xml.append("<field>");
 			xml.append(XMLHandler.addTagValue(TAG_INPUT_FIELD, standardize.getInputField()));
 			xml.append(XMLHandler.addTagValue(TAG_OUTPUT_FIELD, standardize.getOutputField()));
 			xml.append(XMLHandler.addTagValue(TAG_VALID_FIELD, standardize.getValidField()));
+			xml.append(XMLHandler.addTagValue(TAG_REASON_FIELD, standardize.getReasonField()));
+			xml.append(XMLHandler.addTagValue(TAG_LOCAL_PART_FIELD, standardize.getLocalPartField()));
+			xml.append(XMLHandler.addTagValue(TAG_DOMAIN_FIELD, standardize.getDomainField()));
+			xml.append(XMLHandler.addTagValue(TAG_TOP_LEVEL_DOMAIN_FIELD, standardize.getTopLevelDomainField()));
+			xml.append(XMLHandler.addTagValue(TAG_CANONICAL_FIELD, standardize.getCanonicalField()));
+			xml.append(XMLHandler.addTagValue(TAG_KNOWN_TOP_LEVEL_DOMAIN_FIELD,
+					standardize.getKnownTopLevelDomainField()));
+			xml.append(XMLHandler.addTagValue(TAG_DISPOSABLE_FIELD, standardize.getDisposableField()));
+			xml.append(XMLHandler.addTagValue(TAG_SUGGESTION_FIELD, standardize.getSuggestionField()));
 			xml.append("</field>");
 		}
 		xml.append("</fields>");
@@ -157,6 +231,14 @@ public class StandardizeEmailAddressMeta extends BaseStepMeta implements StepMet
 	public void loadXML(Node stepNode, List<DatabaseMeta> databases, IMetaStore metaStore) throws KettleXMLException {
 
 		try {
+			this.setParallelWorkers(Const.toInt(XMLHandler.getTagValue(stepNode, TAG_PARALLEL_WORKERS), 1));
+			this.setBatchSize(Const.toInt(XMLHandler.getTagValue(stepNode, TAG_BATCH_SIZE), 0));
+			this.setMaxLatency(Const.toLong(XMLHandler.getTagValue(stepNode, TAG_MAX_LATENCY), 0));
+			this.providerRulesFile = XMLHandler.getTagValue(stepNode, TAG_PROVIDER_RULES_FILE);
+			this.topLevelDomainsFile = XMLHandler.getTagValue(stepNode, TAG_TOP_LEVEL_DOMAINS_FILE);
+			this.disposableDomainsFile = XMLHandler.getTagValue(stepNode, TAG_DISPOSABLE_DOMAINS_FILE);
+			this.popularDomainsFile = XMLHandler.getTagValue(stepNode, TAG_POPULAR_DOMAINS_FILE);
+
 			Node fields = XMLHandler.getSubNode(stepNode, "fields");
 			int count = XMLHandler.countNodes(fields, "field");
 			this.standardizes = new ArrayList<>(count);
@@ -167,6 +249,15 @@ public class StandardizeEmailAddressMeta extends BaseStepMeta implements StepMet
 				standardize.setInputField(XMLHandler.getTagValue(field, TAG_INPUT_FIELD));
 				standardize.setOutputField(XMLHandler.getTagValue(field, TAG_OUTPUT_FIELD));
 				standardize.setValidField(XMLHandler.getTagValue(field, TAG_VALID_FIELD));
+				standardize.setReasonField(XMLHandler.getTagValue(field, TAG_REASON_FIELD));
+				standardize.setLocalPartField(XMLHandler.getTagValue(field, TAG_LOCAL_PART_FIELD));
+				standardize.setDomainField(XMLHandler.getTagValue(field, TAG_DOMAIN_FIELD));
+				standardize.setTopLevelDomainField(XMLHandler.getTagValue(field, TAG_TOP_LEVEL_DOMAIN_FIELD));
+				standardize.setCanonicalField(XMLHandler.getTagValue(field, TAG_CANONICAL_FIELD));
+				standardize.setKnownTopLevelDomainField(
+						XMLHandler.getTagValue(field, TAG_KNOWN_TOP_LEVEL_DOMAIN_FIELD));
+				standardize.setDisposableField(XMLHandler.getTagValue(field, TAG_DISPOSABLE_FIELD));
+				standardize.setSuggestionField(XMLHandler.getTagValue(field, TAG_SUGGESTION_FIELD));
 				standardizes.add(standardize);
 			}
 		} catch (Exception e) {
@@ -187,7 +278,34 @@ public class StandardizeEmailAddressMeta extends BaseStepMeta implements StepMet
 						standardize.getOutputField());
 				repository.saveStepAttribute(id_transformation, id_step, i, TAG_VALID_FIELD,
 						standardize.getValidField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_REASON_FIELD,
+						standardize.getReasonField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_LOCAL_PART_FIELD,
+						standardize.getLocalPartField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_DOMAIN_FIELD,
+						standardize.getDomainField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_TOP_LEVEL_DOMAIN_FIELD,
+						standardize.getTopLevelDomainField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_CANONICAL_FIELD,
+						standardize.getCanonicalField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_KNOWN_TOP_LEVEL_DOMAIN_FIELD,
+						standardize.getKnownTopLevelDomainField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_DISPOSABLE_FIELD,
+						standardize.getDisposableField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_SUGGESTION_FIELD,
+						standardize.getSuggestionField());
 			}
+			repository.saveStepAttribute(id_transformation, id_step, TAG_PARALLEL_WORKERS, this.getParallelWorkers());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_BATCH_SIZE, this.getBatchSize());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_MAX_LATENCY, this.getMaxLatency());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_PROVIDER_RULES_FILE,
+					this.getProviderRulesFile());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_TOP_LEVEL_DOMAINS_FILE,
+					this.getTopLevelDomainsFile());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_DISPOSABLE_DOMAINS_FILE,
+					this.getDisposableDomainsFile());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_POPULAR_DOMAINS_FILE,
+					this.getPopularDomainsFile());
 		} catch (Exception e) {
 			throw new KettleException(
 					BaseMessages.getString(PKG, "StandardizeMeta.Exception.UnableToSaveRepository", id_step), e);
@@ -199,6 +317,14 @@ public class StandardizeEmailAddressMeta extends BaseStepMeta implements StepMet
 			throws KettleException {
 		try {
 
+			this.setParallelWorkers((int) repository.getStepAttributeInteger(id_step, TAG_PARALLEL_WORKERS));
+			this.setBatchSize((int) repository.getStepAttributeInteger(id_step, TAG_BATCH_SIZE));
+			this.setMaxLatency(repository.getStepAttributeInteger(id_step, TAG_MAX_LATENCY));
+			this.providerRulesFile = repository.getStepAttributeString(id_step, TAG_PROVIDER_RULES_FILE);
+			this.topLevelDomainsFile = repository.getStepAttributeString(id_step, TAG_TOP_LEVEL_DOMAINS_FILE);
+			this.disposableDomainsFile = repository.getStepAttributeString(id_step, TAG_DISPOSABLE_DOMAINS_FILE);
+			this.popularDomainsFile = repository.getStepAttributeString(id_step, TAG_POPULAR_DOMAINS_FILE);
+
 			int count = repository.countNrStepAttributes(id_step, TAG_INPUT_FIELD);
 			this.standardizes = new ArrayList<>(count);
 			for (int i = 0; i < count; i++) {
@@ -206,6 +332,16 @@ public class StandardizeEmailAddressMeta extends BaseStepMeta implements StepMet
 				standardize.setInputField(repository.getStepAttributeString(id_step, i, TAG_INPUT_FIELD));
 				standardize.setOutputField(repository.getStepAttributeString(id_step, i, TAG_OUTPUT_FIELD));
 				standardize.setValidField(repository.getStepAttributeString(id_step, i, TAG_VALID_FIELD));
+				standardize.setReasonField(repository.getStepAttributeString(id_step, i, TAG_REASON_FIELD));
+				standardize.setLocalPartField(repository.getStepAttributeString(id_step, i, TAG_LOCAL_PART_FIELD));
+				standardize.setDomainField(repository.getStepAttributeString(id_step, i, TAG_DOMAIN_FIELD));
+				standardize.setTopLevelDomainField(
+						repository.getStepAttributeString(id_step, i, TAG_TOP_LEVEL_DOMAIN_FIELD));
+				standardize.setCanonicalField(repository.getStepAttributeString(id_step, i, TAG_CANONICAL_FIELD));
+				standardize.setKnownTopLevelDomainField(
+						repository.getStepAttributeString(id_step, i, TAG_KNOWN_TOP_LEVEL_DOMAIN_FIELD));
+				standardize.setDisposableField(repository.getStepAttributeString(id_step, i, TAG_DISPOSABLE_FIELD));
+				standardize.setSuggestionField(repository.getStepAttributeString(id_step, i, TAG_SUGGESTION_FIELD));
 				standardizes.add(standardize);
 			}
 		} catch (Exception e) {
@@ -240,22 +376,30 @@ public class StandardizeEmailAddressMeta extends BaseStepMeta implements StepMet
 		try {
 			// add the output fields if specified
 			for (StandardizeEmailAddress standardize : this.getStandardizeEmailAddresses()) {
-				if (!Utils.isEmpty(standardize.getOutputField())) {
-					// create ValueMeta
-					ValueMetaInterface vm = ValueMetaFactory.createValueMeta(standardize.getOutputField(),
-							ValueMetaInterface.TYPE_STRING);
-					vm.setOrigin(stepName);
-					inputRowMeta.addValueMeta(vm);
-					
-					// add valid field
-					if (!Utils.isEmpty(standardize.getValidField())) {
-						vm = ValueMetaFactory.createValueMeta(standardize.getValidField(),
-								ValueMetaInterface.TYPE_BOOLEAN);
-						vm.setOrigin(stepName);
-						inputRowMeta.addValueMeta(vm);
-					}
+				addField(inputRowMeta, standardize.getOutputField(), ValueMetaInterface.TYPE_STRING, stepName);
 
-				}
+				// add valid field, even if the input field is updated
+				addField(inputRowMeta, standardize.getValidField(), ValueMetaInterface.TYPE_BOOLEAN, stepName);
+
+				// add validation reason code field
+				addField(inputRowMeta, standardize.getReasonField(), ValueMetaInterface.TYPE_STRING, stepName);
+
+				// add the components of the address
+				addField(inputRowMeta, standardize.getLocalPartField(), ValueMetaInterface.TYPE_STRING, stepName);
+				addField(inputRowMeta, standardize.getDomainField(), ValueMetaInterface.TYPE_STRING, stepName);
+				addField(inputRowMeta, standardize.getTopLevelDomainField(), ValueMetaInterface.TYPE_STRING,
+						stepName);
+
+				// add canonical address field
+				addField(inputRowMeta, standardize.getCanonicalField(), ValueMetaInterface.TYPE_STRING, stepName);
+
+				// add domain verdict fields
+				addField(inputRowMeta, standardize.getKnownTopLevelDomainField(), ValueMetaInterface.TYPE_BOOLEAN,
+						stepName);
+				addField(inputRowMeta, standardize.getDisposableField(), ValueMetaInterface.TYPE_BOOLEAN, stepName);
+
+				// add suggested correction field
+				addField(inputRowMeta, standardize.getSuggestionField(), ValueMetaInterface.TYPE_STRING, stepName);
 			}
 
 		} catch (Exception e) {
@@ -263,6 +407,15 @@ public class StandardizeEmailAddressMeta extends BaseStepMeta implements StepMet
 		}
 	}
 
+	private static void addField(RowMetaInterface rowMeta, String name, int type, String stepName)
+			throws KettlePluginException {
+		if (!Utils.isEmpty(name)) {
+			ValueMetaInterface valueMeta = ValueMetaFactory.createValueMeta(name, type);
+			valueMeta.setOrigin(stepName);
+			rowMeta.addValueMeta(valueMeta);
+		}
+	}
+
 	/**
 	 * This method is called when the user selects the "Verify Transformation"
 	 * option in Spoon.
@@ -320,6 +473,18 @@ public class StandardizeEmailAddressMeta extends BaseStepMeta implements StepMet
 					BaseMessages.getString(PKG, "StandardizeMeta.CheckResult.NotReceivingInfoFromOtherSteps"),
 					stepMeta));
 		}
+
+		// The disposable fields need a list of domains
+		if (Utils.isEmpty(this.getDisposableDomainsFile())) {
+			for (StandardizeEmailAddress standardize : this.getStandardizeEmailAddresses()) {
+				if (!Utils.isEmpty(standardize.getDisposableField())) {
+					String message = BaseMessages.getString(PKG,
+							"StandardizeEmailAddressMeta.CheckResult.NoDisposableDomainsFile",
+							standardize.getDisposableField());
+					remarks.add(new CheckResult(CheckResultInterface.TYPE_RESULT_ERROR, message, stepMeta));
+				}
+			}
+		}
 	}
 
 	public List<StandardizeEmailAddress> getStandardizeEmailAddresses() {
@@ -329,4 +494,148 @@ public class StandardizeEmailAddressMeta extends BaseStepMeta implements StepMet
 	public void setStandardizeEmailAddresses(final List<StandardizeEmailAddress> standardizes) {
 		this.standardizes = standardizes;
 	}
+
+	/**
+	 * Get the number of worker threads
+	 * 
+	 * @return the number of workers, 1 if rows are processed in the step thread
+	 */
+	public int getParallelWorkers() {
+		return parallelWorkers;
+	}
+
+	/**
+	 * Set the number of worker threads
+	 * 
+	 * @param workers
+	 *            the number of workers, 1 to process rows in the step thread
+	 */
+	public void setParallelWorkers(int workers) {
+		this.parallelWorkers = Math.max(1, workers);
+	}
+
+	/**
+	 * Get the maximum number of rows of a batch processed by a worker
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Set the maximum number of rows of a batch processed by a worker
+	 * 
+	 * @param size
+	 *            the batch size, 0 for the default
+	 */
+	public void setBatchSize(int size) {
+		this.batchSize = (size > 0) ? size : OrderedRowProcessor.DEFAULT_BATCH_SIZE;
+	}
+
+	/**
+	 * Get the maximum time in milliseconds a row waits for its batch to be
+	 * processed
+	 */
+	public long getMaxLatency() {
+		return maxLatency;
+	}
+
+	/**
+	 * Set the maximum time in milliseconds a row waits for its batch to be
+	 * processed
+	 * 
+	 * @param latency
+	 *            the latency in milliseconds, 0 for the default
+	 */
+	public void setMaxLatency(long latency) {
+		this.maxLatency = (latency > 0) ? latency : OrderedRowProcessor.DEFAULT_MAX_LATENCY;
+	}
+
+	/**
+	 * Get the file of the provider rules of the canonical addresses
+	 * 
+	 * @return the file, or null for the bundled rules
+	 */
+	public String getProviderRulesFile() {
+		return providerRulesFile;
+	}
+
+	public void setProviderRulesFile(String file) {
+		this.providerRulesFile = file;
+	}
+
+	/**
+	 * Get the file of the known top level domains
+	 * 
+	 * @return the file, or null for the bundled list
+	 */
+	public String getTopLevelDomainsFile() {
+		return topLevelDomainsFile;
+	}
+
+	public void setTopLevelDomainsFile(String file) {
+		this.topLevelDomainsFile = file;
+	}
+
+	/**
+	 * Get the file of the domains of the disposable email providers
+	 * 
+	 * @return the file, or null if none
+	 */
+	public String getDisposableDomainsFile() {
+		return disposableDomainsFile;
+	}
+
+	public void setDisposableDomainsFile(String file) {
+		this.disposableDomainsFile = file;
+	}
+
+	/**
+	 * Get the file of the popular domains of the suggested corrections
+	 * 
+	 * @return the file, or null for the bundled list
+	 */
+	public String getPopularDomainsFile() {
+		return popularDomainsFile;
+	}
+
+	public void setPopularDomainsFile(String file) {
+		this.popularDomainsFile = file;
+	}
+
+	/**
+	 * Returns true if a rule has a suggested correction field.
+	 */
+	public boolean isSuggestCorrection() {
+		for (StandardizeEmailAddress standardize : this.getStandardizeEmailAddresses()) {
+			if (!Utils.isEmpty(standardize.getSuggestionField())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if a rule has a domain verdict field.
+	 */
+	public boolean isValidateDomain() {
+		for (StandardizeEmailAddress standardize : this.getStandardizeEmailAddresses()) {
+			if (!Utils.isEmpty(standardize.getKnownTopLevelDomainField())
+					|| !Utils.isEmpty(standardize.getDisposableField())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if a rule has a canonical address field.
+	 */
+	public boolean isCanonicalize() {
+		for (StandardizeEmailAddress standardize : this.getStandardizeEmailAddresses()) {
+			if (!Utils.isEmpty(standardize.getCanonicalField())) {
+				return true;
+			}
+		}
+		return false;
+	}
 }
\ No newline at end of file
@@ -16,14 +16,14 @@
 
 package org.kettle.trans.steps.standardize;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Arrays;
-
-import javax.mail.internet.AddressException;
-import javax.mail.internet.InternetAddress;
+import java.util.List;
 
 import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.exception.KettleValueException;
 import org.pentaho.di.core.row.RowMetaInterface;
-import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.core.util.Utils;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
@@ -59,6 +59,67 @@ public class StandardizeEmailAddressStep extends BaseStep implements StepInterfa
 		if (super.init(meta, data)) {
 			first = true;
 
+			data.parser = new EmailAddressParser();
+
+			// Compile the provider rules once, shared by the worker threads
+			if (meta.isCanonicalize()) {
+				String file = environmentSubstitute(meta.getProviderRulesFile());
+				try {
+					if (Utils.isEmpty(file)) {
+						data.canonicalizer = EmailAddressCanonicalizer.getDefault();
+					} else {
+						data.canonicalizer = EmailAddressCanonicalizer.load(Paths.get(file));
+					}
+				} catch (IOException | RuntimeException e) {
+					logError(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.ProviderRulesFileError",
+							file), e);
+					return false;
+				}
+				logDetailed(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.ProviderRulesLoaded",
+						data.canonicalizer.size()));
+			}
+
+			// Load the domain lists once, the verdicts are cached for all the worker threads
+			if (meta.isValidateDomain()) {
+				String file = environmentSubstitute(meta.getTopLevelDomainsFile());
+				try {
+					EmailDomainSet topLevelDomains = Utils.isEmpty(file) ? EmailDomainSet.getTopLevelDomains()
+							: EmailDomainSet.load(Paths.get(file));
+
+					EmailDomainSet disposableDomains = null;
+					file = environmentSubstitute(meta.getDisposableDomainsFile());
+					if (!Utils.isEmpty(file)) {
+						disposableDomains = EmailDomainSet.load(Paths.get(file));
+					}
+
+					data.domainValidator = new EmailDomainValidator(topLevelDomains, disposableDomains);
+					logDetailed(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.DomainListsLoaded",
+							topLevelDomains.size(), (disposableDomains == null) ? 0 : disposableDomains.size()));
+				} catch (IOException | RuntimeException e) {
+					logError(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.DomainsFileError", file),
+							e);
+					return false;
+				}
+			}
+
+			// Index the popular domains once, shared by the worker threads
+			if (meta.isSuggestCorrection()) {
+				String file = environmentSubstitute(meta.getPopularDomainsFile());
+				try {
+					if (Utils.isEmpty(file)) {
+						data.domainCorrector = EmailDomainCorrector.getDefault();
+					} else {
+						data.domainCorrector = EmailDomainCorrector.load(Paths.get(file));
+					}
+				} catch (IOException | RuntimeException e) {
+					logError(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.DomainsFileError", file),
+							e);
+					return false;
+				}
+				logDetailed(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.PopularDomainsLoaded",
+						data.domainCorrector.size()));
+			}
+
 			return true;
 		}
 
@@ -80,6 +141,15 @@ public class StandardizeEmailAddressStep extends BaseStep implements StepInterfa
 		// if no more rows are expected, indicate step is finished and
 		// processRow() should not be called again
 		if (row == null) {
+			if (data.processor != null) {
+				data.processor.submit();
+				if (!data.processor.consume(outputRow -> putRow(data.outputRowMeta, outputRow), true)) {
+					// a row asked to stop the step
+					setErrors(1);
+					stopAll();
+					return false;
+				}
+			}
 			setOutputDone();
 			return false;
 		}
@@ -100,75 +170,230 @@ public class StandardizeEmailAddressStep extends BaseStep implements StepInterfa
 			// structure
 			meta.getFields(data.outputRowMeta, getStepname(), null, null, this, null, null);
 
+			// resolve the field indexes once, so the row loop is pure array access
+			if (!compile(meta, data)) {
+				this.setErrors(1);
+				return false;
+			}
+			data.inputRowMeta = getInputRowMeta();
+
+			if (meta.getParallelWorkers() > 1) {
+				data.processor = new OrderedRowProcessor<>(getStepname(), meta.getParallelWorkers(),
+						meta.getBatchSize(), meta.getMaxLatency(), () -> {
+							StandardizeEmailAddressData worker = new StandardizeEmailAddressData(data);
+							data.workers.add(worker);
+							return workerRow -> standardizeRow(meta, worker, workerRow);
+						});
+			}
+		}
+
+		if (data.processor != null) {
+			return processBatch(data, row);
+		}
+
+		Object[] outputRow = standardizeRow(meta, data, row);
+
+		// put the row to the output row stream
+		putRow(data.outputRowMeta, outputRow);
+
+		if (log.isRowLevel()) {
+			logRowlevel(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.WroteRowToNextStep", outputRow));
 		}
 
-		RowMetaInterface inputRowMeta = getInputRowMeta();
+		// log progress if it is time to to so
+		if (checkFeedback(getLinesRead())) {
+			logBasic("Line nr " + getLinesRead()); // Some basic logging
+		}
+
+		// indicate that processRow() should be called again
+		return true;
+	}
+
+	/**
+	 * Standardize the email addresses of a row.
+	 * 
+	 * <p>
+	 * Called by the step thread, or by a worker thread with its own data.
+	 * </p>
+	 * 
+	 * @return the output row
+	 */
+	protected Object[] standardizeRow(StandardizeEmailAddressMeta meta, StandardizeEmailAddressData data,
+			Object[] row) throws KettleException {
+
+		RowMetaInterface inputRowMeta = data.inputRowMeta;
 
 		// copies row into outputRowValues and pads extra null-default slots for
 		// the output values
 		Object[] outputRow = Arrays.copyOf(row, data.outputRowMeta.size());
 
 		// apply rules by order
-		for (StandardizeEmailAddress standardize : meta.getStandardizeEmailAddresses()) {
-			int index = data.outputRowMeta.indexOfValue(standardize.getInputField());
-			
-			// if input field not found
-			if ( index<0 ) { 
-				this.logError(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.InputFieldNotFound",standardize.getInputField()));
-				this.setErrors(1);
-				return false;
-			}
-			
-			ValueMetaInterface valueMeta = data.outputRowMeta.getValueMeta(index);
+		for (int rule = 0; rule < data.standardizes.length; rule++) {
+			int index = data.inputIndexes[rule];
+
 			try {
 				String value = inputRowMeta.getString(row, index);
-				String result = value;
 
-				if (value != null) {
-					// The InternetAddress class in the Java Mail 1.3 API has a
-					// constructor that does strict parsing. But the 1.1 version
-					// doesn't. However, we can use the parse() method to do the
-					// checking; it does do strict RFC822 syntax checks.
+				// One email address, validated in a single scan. An invalid
+				// address is only counted, the output field is left as is.
+				// A null value is counted and flagged as an empty address.
+				EmailAddressParser.Status status;
+				if (value == null) {
+					outputRow[data.outputIndexes[rule]] = null;
+					status = EmailAddressParser.Status.EMPTY;
+				} else {
+					status = data.parser.parse(value);
+				}
+				if (status == EmailAddressParser.Status.VALID) {
+					outputRow[data.outputIndexes[rule]] = data.parser.getAddress();
+
+					// The components, from the same parse
+					if (data.localPartIndexes[rule] >= 0) {
+						outputRow[data.localPartIndexes[rule]] = data.parser.getLocalPart();
+					}
+					if (data.domainIndexes[rule] >= 0) {
+						outputRow[data.domainIndexes[rule]] = data.parser.getDomain();
+					}
+					if (data.topLevelDomainIndexes[rule] >= 0) {
+						outputRow[data.topLevelDomainIndexes[rule]] = data.parser.getTopLevelDomain();
+					}
+					if (data.canonicalIndexes[rule] >= 0) {
+						String canonical = data.canonicalizer.canonicalize(data.parser.getLocalPart(),
+								data.parser.getDomain());
+						outputRow[data.canonicalIndexes[rule]] = (canonical != null) ? canonical
+								: data.parser.getAddress();
+					}
 
-					InternetAddress[] addresses = InternetAddress.parse(value);
-					if (addresses.length != 1) {
-						throw new AddressException("\"" + value + "\" is an improperly formed " + "email address");
+					// The verdict of the domain, computed once per distinct domain
+					if (data.knownTopLevelDomainIndexes[rule] >= 0 || data.disposableIndexes[rule] >= 0) {
+						EmailDomainValidator.Verdict verdict = data.domainValidator
+								.getVerdict(data.parser.getDomain());
+						if (data.knownTopLevelDomainIndexes[rule] >= 0) {
+							outputRow[data.knownTopLevelDomainIndexes[rule]] = verdict.isKnownTopLevelDomain();
+						}
+						if (data.disposableIndexes[rule] >= 0) {
+							outputRow[data.disposableIndexes[rule]] = verdict.isDisposable();
+						}
 					}
 
-					result = addresses[0].getAddress().toLowerCase();
+					// The address with the popular domain of a misspelled domain
+					if (data.suggestionIndexes[rule] >= 0) {
+						String domain = data.domainCorrector.suggest(data.parser.getDomain());
+						if (domain != null) {
+							outputRow[data.suggestionIndexes[rule]] = data.parser.getLocalPart() + '@' + domain;
+						}
+					}
+				} else {
+					data.invalid[status.ordinal()]++;
 				}
 
-				if (!Utils.isEmpty(standardize.getOutputField())) {
-					index = data.outputRowMeta.indexOfValue(standardize.getOutputField());
+				if (data.validIndexes[rule] >= 0) {
+					outputRow[data.validIndexes[rule]] = status == EmailAddressParser.Status.VALID;
+				}
+				if (data.reasonIndexes[rule] >= 0) {
+					outputRow[data.reasonIndexes[rule]] = status.name();
 				}
-				outputRow[index] = result;
-				
-//				if (!Utils.isEmpty(standardize.getValidField())) {
-//					int i = data.outputRowMeta.indexOfValue(standardize.getValidField());
-//					outputRow[i] = false;
-//				}
-			} catch (Exception e) {
+			} catch (KettleValueException e) {
 				logError(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.DataIncompatibleError",
-						String.valueOf(row[index]), inputRowMeta.getValueMeta(index).toString(), valueMeta.toString()));
+						String.valueOf(row[index]), inputRowMeta.getValueMeta(index).toString(),
+						data.outputRowMeta.getValueMeta(index).toString()));
 			}
 		}
 
-		// put the row to the output row stream
-		putRow(data.outputRowMeta, outputRow);
+		return outputRow;
+	}
 
-		if (log.isRowLevel()) {
-			logRowlevel(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.WroteRowToNextStep", outputRow));
+	/**
+	 * Add a row to the current batch of the worker pool, and put the rows of
+	 * the completed batches in the original order.
+	 */
+	protected boolean processBatch(StandardizeEmailAddressData data, Object[] row) throws KettleException {
+
+		data.processor.add(row);
+
+		// don't keep rows waiting while the input is idle
+		boolean idle = OrderedRowProcessor.isIdle(getInputRowSets());
+		if (idle) {
+			data.processor.submit();
+		}
+
+		if (!data.processor.consume(outputRow -> putRow(data.outputRowMeta, outputRow), idle)) {
+			// a row asked to stop the step
+			setErrors(1);
+			stopAll();
+			return false;
 		}
 
-		// log progress if it is time to to so
 		if (checkFeedback(getLinesRead())) {
-			logBasic("Line nr " + getLinesRead()); // Some basic logging
+			logBasic("Line nr " + getLinesRead());
+		}
+
+		return true;
+	}
+
+	/**
+	 * Resolve the field indexes of each rule against the input and output row
+	 * structures.
+	 * 
+	 * @return false if a configured field is missing
+	 */
+	protected boolean compile(StandardizeEmailAddressMeta meta, StandardizeEmailAddressData data) {
+
+		List<StandardizeEmailAddress> standardizes = meta.getStandardizeEmailAddresses();
+		int count = standardizes.size();
+
+		data.standardizes = standardizes.toArray(new StandardizeEmailAddress[count]);
+		data.inputIndexes = new int[count];
+		data.outputIndexes = new int[count];
+		data.validIndexes = new int[count];
+		data.reasonIndexes = new int[count];
+		data.localPartIndexes = new int[count];
+		data.domainIndexes = new int[count];
+		data.topLevelDomainIndexes = new int[count];
+		data.canonicalIndexes = new int[count];
+		data.knownTopLevelDomainIndexes = new int[count];
+		data.disposableIndexes = new int[count];
+		data.suggestionIndexes = new int[count];
+
+		for (int rule = 0; rule < count; rule++) {
+			StandardizeEmailAddress standardize = data.standardizes[rule];
+
+			// if input field not found
+			int index = data.outputRowMeta.indexOfValue(standardize.getInputField());
+			if (index < 0) {
+				this.logError(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.InputFieldNotFound",
+						standardize.getInputField()));
+				return false;
+			}
+			data.inputIndexes[rule] = index;
+
+			// update the input field if no output field
+			if (!Utils.isEmpty(standardize.getOutputField())) {
+				index = data.outputRowMeta.indexOfValue(standardize.getOutputField());
+			}
+			data.outputIndexes[rule] = index;
+
+			data.validIndexes[rule] = indexOfOutput(data, standardize.getValidField());
+			data.reasonIndexes[rule] = indexOfOutput(data, standardize.getReasonField());
+			data.localPartIndexes[rule] = indexOfOutput(data, standardize.getLocalPartField());
+			data.domainIndexes[rule] = indexOfOutput(data, standardize.getDomainField());
+			data.topLevelDomainIndexes[rule] = indexOfOutput(data, standardize.getTopLevelDomainField());
+			data.canonicalIndexes[rule] = indexOfOutput(data, standardize.getCanonicalField());
+			data.knownTopLevelDomainIndexes[rule] = indexOfOutput(data, standardize.getKnownTopLevelDomainField());
+			data.disposableIndexes[rule] = indexOfOutput(data, standardize.getDisposableField());
+			data.suggestionIndexes[rule] = indexOfOutput(data, standardize.getSuggestionField());
 		}
 
-		// indicate that processRow() should be called again
 		return true;
 	}
 
+	private static int indexOfOutput(StandardizeEmailAddressData data, String field) {
+		if (Utils.isEmpty(field)) {
+			return -1;
+		}
+		return data.outputRowMeta.indexOfValue(field);
+	}
+
 	/**
 	 * This method is called by PDI once the step is done processing.
 	 *
@@ -183,7 +408,43 @@ public class StandardizeEmailAddressStep extends BaseStep implements StepInterfa
 		StandardizeEmailAddressMeta meta = (StandardizeEmailAddressMeta) smi;
 		StandardizeEmailAddressData data = (StandardizeEmailAddressData) sdi;
 
+		if (data.processor != null) {
+			data.processor.shutdown();
+			data.processor = null;
+		}
+
+		// merge the statistics of the workers
+		for (StandardizeEmailAddressData worker : data.workers) {
+			for (int i = 0; i < data.invalid.length; i++) {
+				data.invalid[i] += worker.invalid[i];
+			}
+		}
+		data.workers.clear();
+
+		for (EmailAddressParser.Status status : EmailAddressParser.Status.values()) {
+			if (data.invalid[status.ordinal()] > 0) {
+				logBasic(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.InvalidAddresses",
+						data.invalid[status.ordinal()], status.name()));
+			}
+		}
+
+		data.inputRowMeta = null;
 		data.outputRowMeta = null;
+		data.standardizes = null;
+		data.parser = null;
+		data.canonicalizer = null;
+
+		if (data.domainValidator != null) {
+			logBasic(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.DomainVerdicts",
+					data.domainValidator.size()));
+			data.domainValidator = null;
+		}
+
+		if (data.domainCorrector != null) {
+			logBasic(BaseMessages.getString(PKG, "StandardizeEmailAddressStep.Log.DomainCorrections",
+					data.domainCorrector.getCacheSize()));
+			data.domainCorrector = null;
+		}
 
 		super.dispose(meta, data);
 	}
@@ -28,6 +28,33 @@ import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberFormat;
  */
 public class StandardizePhoneNumber implements Cloneable {
 
+	/**
+	 * How the phone numbers are found in the input field.
+	 */
+	public enum ExtractMode {
+		/** The input field is a phone number */
+		NONE,
+		/** The phone numbers found in a text, delimited in the output field */
+		LIST,
+		/** One output row per phone number found in a text */
+		ROWS
+	}
+
+	/**
+	 * How far the phone numbers are validated, each level costs more than the
+	 * previous one.
+	 */
+	public enum ValidationLevel {
+		/** The phone number is only parsed */
+		NONE,
+		/** The length of the phone number is possible for its country */
+		POSSIBLE,
+		/** The phone number matches the number patterns of its region */
+		VALID,
+		/** The phone number is valid and its type is resolved */
+		VALID_AND_TYPE
+	}
+
 	/** The input field name */
 	@Injection(name = "INPUT_FIELD", group = "FIELDS")
 	private String inputField = null;
@@ -46,10 +73,86 @@ public class StandardizePhoneNumber implements Cloneable {
 	@Injection(name = "IS_VALID_FIELD", group = "FIELDS")
 	private String isValidNumberField= null;
 
+	/** The validation reason code field name */
+	@Injection(name = "REASON_FIELD", group = "FIELDS")
+	private String reasonField = null;
+
+	/** The country calling code field name (Integer) */
+	@Injection(name = "COUNTRY_CODE_FIELD", group = "FIELDS")
+	private String countryCodeField = null;
+
+	/** The national significant number field name (Integer) */
+	@Injection(name = "NATIONAL_NUMBER_FIELD", group = "FIELDS")
+	private String nationalNumberField = null;
+
+	/** The E164 number field name (Integer) */
+	@Injection(name = "E164_NUMBER_FIELD", group = "FIELDS")
+	private String e164NumberField = null;
+
+	/** The extension field name */
+	@Injection(name = "EXTENSION_FIELD", group = "FIELDS")
+	private String extensionField = null;
+
+	/** The region of the phone number field name */
+	@Injection(name = "REGION_FIELD", group = "FIELDS")
+	private String regionField = null;
+
+	/** The cluster id field name (Integer), the same id for matching phone numbers */
+	@Injection(name = "CLUSTER_FIELD", group = "FIELDS")
+	private String clusterField = null;
+
+	/** The phone number in E164 format field name */
+	@Injection(name = "E164_FIELD", group = "FIELDS")
+	private String e164Field = null;
+
+	/** The phone number in international format field name */
+	@Injection(name = "INTERNATIONAL_FIELD", group = "FIELDS")
+	private String internationalField = null;
+
+	/** The phone number in national format field name */
+	@Injection(name = "NATIONAL_FIELD", group = "FIELDS")
+	private String nationalField = null;
+
+	/** The phone number in RFC3966 format field name */
+	@Injection(name = "RFC3966_FIELD", group = "FIELDS")
+	private String rfc3966Field = null;
+
+	/** The custom output format, like "+CC (NNN) NNN-NNNN" */
+	@Injection(name = "TEMPLATE", group = "FIELDS")
+	private String template = null;
+
+	/** The phone number in the custom output format field name */
+	@Injection(name = "TEMPLATE_FIELD", group = "FIELDS")
+	private String templateField = null;
+
+	/** The do not call flag field name (Boolean) */
+	@Injection(name = "DO_NOT_CALL_FIELD", group = "FIELDS")
+	private String doNotCallField = null;
+
+	/** The geographical description field name, such as the city or the country */
+	@Injection(name = "DESCRIPTION_FIELD", group = "FIELDS")
+	private String descriptionField = null;
+
+	/** The carrier name field name */
+	@Injection(name = "CARRIER_FIELD", group = "FIELDS")
+	private String carrierField = null;
+
+	/** The time zones field name, comma separated */
+	@Injection(name = "TIME_ZONES_FIELD", group = "FIELDS")
+	private String timeZonesField = null;
+
 	/** The format */
 	@Injection(name = "FORMAT", group = "FIELDS")
 	private PhoneNumberFormat format = PhoneNumberFormat.E164;
 
+	/** How the phone numbers are found in the input field */
+	@Injection(name = "EXTRACT_MODE", group = "FIELDS")
+	private ExtractMode extractMode = ExtractMode.NONE;
+
+	/** How far the phone numbers are validated */
+	@Injection(name = "VALIDATION_LEVEL", group = "FIELDS")
+	private ValidationLevel validationLevel = ValidationLevel.VALID_AND_TYPE;
+
 	public StandardizePhoneNumber() {
 		super();		
 	}
@@ -101,6 +204,22 @@ public class StandardizePhoneNumber implements Cloneable {
 			this.format = param;
 	}
 
+	public ExtractMode getExtractMode() {
+		return extractMode;
+	}
+
+	public void setExtractMode(final ExtractMode mode) {
+		this.extractMode = (mode == null) ? ExtractMode.NONE : mode;
+	}
+
+	public ValidationLevel getValidationLevel() {
+		return validationLevel;
+	}
+
+	public void setValidationLevel(final ValidationLevel level) {
+		this.validationLevel = (level == null) ? ValidationLevel.VALID_AND_TYPE : level;
+	}
+
 
 
 	public String getPhoneNumberTypeField() {
@@ -118,4 +237,158 @@ public class StandardizePhoneNumber implements Cloneable {
 	public void setIsValidPhoneNumberField(final String field) {		
 		this.isValidNumberField = StringUtils.stripToNull(field);
 	}
-}
+
+	public String getReasonField() {
+		return reasonField;
+	}
+
+	public void setReasonField(final String field) {
+		this.reasonField = StringUtils.stripToNull(field);
+	}
+
+	public String getCountryCodeField() {
+		return countryCodeField;
+	}
+
+	public void setCountryCodeField(final String field) {
+		this.countryCodeField = StringUtils.stripToNull(field);
+	}
+
+	public String getNationalNumberField() {
+		return nationalNumberField;
+	}
+
+	public void setNationalNumberField(final String field) {
+		this.nationalNumberField = StringUtils.stripToNull(field);
+	}
+
+	public String getE164NumberField() {
+		return e164NumberField;
+	}
+
+	public void setE164NumberField(final String field) {
+		this.e164NumberField = StringUtils.stripToNull(field);
+	}
+
+	public String getExtensionField() {
+		return extensionField;
+	}
+
+	public void setExtensionField(final String field) {
+		this.extensionField = StringUtils.stripToNull(field);
+	}
+
+	public String getRegionField() {
+		return regionField;
+	}
+
+	public void setRegionField(final String field) {
+		this.regionField = StringUtils.stripToNull(field);
+	}
+
+	public String getClusterField() {
+		return clusterField;
+	}
+
+	public void setClusterField(final String field) {
+		this.clusterField = StringUtils.stripToNull(field);
+	}
+
+	public String getE164Field() {
+		return e164Field;
+	}
+
+	public void setE164Field(final String field) {
+		this.e164Field = StringUtils.stripToNull(field);
+	}
+
+	public String getInternationalField() {
+		return internationalField;
+	}
+
+	public void setInternationalField(final String field) {
+		this.internationalField = StringUtils.stripToNull(field);
+	}
+
+	public String getNationalField() {
+		return nationalField;
+	}
+
+	public void setNationalField(final String field) {
+		this.nationalField = StringUtils.stripToNull(field);
+	}
+
+	public String getRfc3966Field() {
+		return rfc3966Field;
+	}
+
+	public void setRfc3966Field(final String field) {
+		this.rfc3966Field = StringUtils.stripToNull(field);
+	}
+
+	public String getTemplate() {
+		return template;
+	}
+
+	public void setTemplate(final String template) {
+		this.template = StringUtils.stripToNull(template);
+	}
+
+	public String getTemplateField() {
+		return templateField;
+	}
+
+	public void setTemplateField(final String field) {
+		this.templateField = StringUtils.stripToNull(field);
+	}
+
+	/**
+	 * Returns the output field of a format, or null if none.
+	 */
+	public String getFormatField(final PhoneNumberFormat format) {
+		switch (format) {
+		case E164:
+			return e164Field;
+		case INTERNATIONAL:
+			return internationalField;
+		case NATIONAL:
+			return nationalField;
+		case RFC3966:
+			return rfc3966Field;
+		default:
+			return null;
+		}
+	}
+
+	public String getDoNotCallField() {
+		return doNotCallField;
+	}
+
+	public void setDoNotCallField(final String field) {
+		this.doNotCallField = StringUtils.stripToNull(field);
+	}
+
+	public String getDescriptionField() {
+		return descriptionField;
+	}
+
+	public void setDescriptionField(final String field) {
+		this.descriptionField = StringUtils.stripToNull(field);
+	}
+
+	public String getCarrierField() {
+		return carrierField;
+	}
+
+	public void setCarrierField(final String field) {
+		this.carrierField = StringUtils.stripToNull(field);
+	}
+
+	public String getTimeZonesField() {
+		return timeZonesField;
+	}
+
+	public void setTimeZonesField(final String field) {
+		this.timeZonesField = StringUtils.stripToNull(field);
+	}
+}
\ No newline at end of file
@@ -16,10 +16,19 @@
 
 package org.kettle.trans.steps.standardize;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.trans.step.BaseStepData;
 import org.pentaho.di.trans.step.StepDataInterface;
 
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
 /**
  * This class is part of the demo step plug-in implementation.
  * It demonstrates the basics of developing a plug-in step for PDI.
@@ -43,11 +52,201 @@ import org.pentaho.di.trans.step.StepDataInterface;
 public class StandardizePhoneNumberData extends BaseStepData implements StepDataInterface {
 
 
+  protected RowMetaInterface inputRowMeta;
 
   protected RowMetaInterface outputRowMeta;
 
+  /** The rules to apply, in order */
+  protected StandardizePhoneNumber[] standardizes;
+
+  /** Index of the input field of each rule in the input row */
+  protected int[] inputIndexes;
+
+  /** Index of the output field of each rule in the output row */
+  protected int[] outputIndexes;
+
+  /** Index of the country field of each rule, or -1 if none */
+  protected int[] countryIndexes;
+
+  /** Index of the phone number type field of each rule, or -1 if none */
+  protected int[] typeIndexes;
+
+  /** Index of the valid field of each rule, or -1 if none */
+  protected int[] validIndexes;
+
+  /** Index of the validation reason code field of each rule, or -1 if none */
+  protected int[] reasonIndexes;
+
+  /** Index of the do not call field of each rule, or -1 if none */
+  protected int[] doNotCallIndexes;
+
+  /** The do not call list, or null if none */
+  protected PhoneNumberDoNotCallList doNotCallList;
+
+  /** Index of the template field of each rule, or -1 if none */
+  protected int[] templateIndexes;
+
+  /** The compiled template of each rule, or null if none */
+  protected PhoneNumberTemplate[] templates;
+
+  /** Index of the country calling code field of each rule, or -1 if none */
+  protected int[] countryCodeIndexes;
+
+  /** Index of the national significant number field of each rule, or -1 if none */
+  protected int[] nationalNumberIndexes;
+
+  /** Index of the E164 number field of each rule, or -1 if none */
+  protected int[] e164NumberIndexes;
+
+  /** Index of the extension field of each rule, or -1 if none */
+  protected int[] extensionIndexes;
+
+  /** Index of the region field of each rule, or -1 if none */
+  protected int[] regionIndexes;
+
+  /** Index of the cluster id field of each rule, or -1 if none */
+  protected int[] clusterIndexes;
+
+  /** The cluster index of each rule, or null if none, used by the step thread only */
+  protected PhoneNumberClusterIndex[] clusters;
+
+  /** Index of the field of each format of each rule, or -1 if none, by format ordinal */
+  protected int[][] formatIndexes;
+
+  /** Index of the geographical description field of each rule, or -1 if none */
+  protected int[] descriptionIndexes;
+
+  /** Index of the carrier name field of each rule, or -1 if none */
+  protected int[] carrierIndexes;
+
+  /** Index of the time zones field of each rule, or -1 if none */
+  protected int[] timeZonesIndexes;
+
+  /** The shared prefix tables, or null if no rule is enriched */
+  protected PhoneNumberEnricher enricher;
+
+  /** The locale of the geographical descriptions and carrier names */
+  protected Locale locale;
+
+  /** The region of the phone numbers by country calling code and leading digits */
+  protected PhoneNumberRegionCache regionCache;
+
+  /** The compiled number patterns, or null if the patterns are matched by libphonenumber */
+  protected PhoneNumberAutomaton automaton;
+
+  /** The cache of standardized phone numbers, or null if disabled */
+  protected PhoneNumberCache cache;
+
+  /** The resolver of country field values to region code */
+  protected CountryResolver countryResolver;
+
+  /** The number of country values not resolved, the default country is used instead */
+  protected long unresolvedCountries;
+
+  /** The accepted regions, or null if all regions are accepted */
+  protected Set<String> regions;
+
+  /** The accepted country calling codes, or null if numbers of other regions are not rejected */
+  protected boolean[] countryCodes;
+
+  /** The number of country values outside the accepted regions */
+  protected long otherRegions;
+
+  /** The regions tried after the default country when the country field is empty, or null if none */
+  protected AdaptiveRegionList fallbackRegions;
+
+  /** The region of the cache key of the phone numbers standardized with the fallback regions */
+  protected String fallbackKey;
+
+  /** The number of phone numbers made valid by a fallback region */
+  protected long fallbackResolved;
+
+  /** The filter of values obviously not phone numbers, or null if disabled */
+  protected PhoneNumberPreFilter preFilter;
+
+  /** The number of values rejected by the filter */
+  protected long preFiltered;
+
+  /** The leniency of the phone numbers extracted from a text */
+  protected PhoneNumberUtil.Leniency leniency;
+
+  /** The maximum number of invalid candidates tried in a text */
+  protected long maxTries;
+
+  /** The delimiter of the phone numbers extracted in list mode */
+  protected String extractDelimiter;
+
+  /** The scanner of phone numbers already in international form */
+  protected PhoneNumberScanner scanner;
+
+  /** The parser of clean phone numbers in national form, or null if the fast mode is disabled */
+  protected PhoneNumberFastParser fastParser;
+
+  /** The phone number reused by each row when the cache is disabled */
+  protected final PhoneNumber phoneNumber = new PhoneNumber();
+
+  /** The pool of worker threads, or null if rows are processed by the step thread */
+  protected OrderedRowProcessor<Object[][]> processor;
+
+  /** The data of each worker thread */
+  protected final List<StandardizePhoneNumberData> workers = Collections.synchronizedList(new ArrayList<>());
+
   public StandardizePhoneNumberData() {
     super();
   }
 
+  /**
+   * Create the data of a worker thread, sharing the resolved rules of the step
+   * but with its own cache, scanner and row structure.
+   */
+  protected StandardizePhoneNumberData(StandardizePhoneNumberData parent, int cacheSize) {
+    super();
+
+    this.inputRowMeta = parent.inputRowMeta.clone();
+    this.outputRowMeta = parent.outputRowMeta;
+    this.standardizes = parent.standardizes;
+    this.inputIndexes = parent.inputIndexes;
+    this.outputIndexes = parent.outputIndexes;
+    this.countryIndexes = parent.countryIndexes;
+    this.typeIndexes = parent.typeIndexes;
+    this.validIndexes = parent.validIndexes;
+    this.reasonIndexes = parent.reasonIndexes;
+    this.doNotCallIndexes = parent.doNotCallIndexes;
+    this.doNotCallList = parent.doNotCallList;
+    this.templateIndexes = parent.templateIndexes;
+    this.templates = parent.templates;
+    this.countryCodeIndexes = parent.countryCodeIndexes;
+    this.nationalNumberIndexes = parent.nationalNumberIndexes;
+    this.e164NumberIndexes = parent.e164NumberIndexes;
+    this.extensionIndexes = parent.extensionIndexes;
+    this.regionIndexes = parent.regionIndexes;
+    this.clusterIndexes = parent.clusterIndexes;
+    this.formatIndexes = parent.formatIndexes;
+    this.descriptionIndexes = parent.descriptionIndexes;
+    this.carrierIndexes = parent.carrierIndexes;
+    this.timeZonesIndexes = parent.timeZonesIndexes;
+    this.enricher = parent.enricher;
+    this.locale = parent.locale;
+    this.countryResolver = parent.countryResolver;
+    this.regionCache = parent.regionCache;
+    this.automaton = parent.automaton;
+    this.regions = parent.regions;
+    this.countryCodes = parent.countryCodes;
+    if (parent.fallbackRegions != null) {
+      this.fallbackRegions = new AdaptiveRegionList(parent.fallbackRegions);
+    }
+    this.fallbackKey = parent.fallbackKey;
+    this.preFilter = parent.preFilter;
+    this.leniency = parent.leniency;
+    this.maxTries = parent.maxTries;
+    this.extractDelimiter = parent.extractDelimiter;
+    this.scanner = new PhoneNumberScanner(parent.scanner);
+    if (parent.fastParser != null) {
+      this.fastParser = new PhoneNumberFastParser(parent.fastParser);
+    }
+    if (cacheSize > 0) {
+      this.cache = new PhoneNumberCache(cacheSize);
+    }
+  }
+
 }
\ No newline at end of file
@@ -17,8 +17,11 @@
 package org.kettle.trans.steps.standardize;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 import org.kettle.ui.trans.steps.standardize.StandardizePhoneNumberDialog;
@@ -28,6 +31,7 @@ import org.pentaho.di.core.Const;
 import org.pentaho.di.core.annotations.Step;
 import org.pentaho.di.core.database.DatabaseMeta;
 import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.exception.KettlePluginException;
 import org.pentaho.di.core.exception.KettleStepException;
 import org.pentaho.di.core.exception.KettleValueException;
 import org.pentaho.di.core.exception.KettleXMLException;
@@ -54,6 +58,7 @@ import org.pentaho.metastore.api.IMetaStore;
 import org.w3c.dom.Node;
 
 import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.Leniency;
 import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberFormat;
 
 /**
@@ -77,6 +82,53 @@ public class StandardizePhoneNumberMeta extends BaseStepMeta implements StepMeta
 	private static final String TAG_DEFAULT_COUNTRY = "country"; //$NON-NLS-1$
 	private static final String TAG_PHONE_NUMBER_TYPE = "phonenumbertype"; //$NON-NLS-1$
 	private static final String TAG_VALID_FIELD = "valid_field"; //$NON-NLS-1$
+	private static final String TAG_COUNTRY_CODE_FIELD = "country_code_field"; //$NON-NLS-1$
+	private static final String TAG_NATIONAL_NUMBER_FIELD = "national_number_field"; //$NON-NLS-1$
+	private static final String TAG_E164_NUMBER_FIELD = "e164_number_field"; //$NON-NLS-1$
+	private static final String TAG_EXTENSION_FIELD = "extension_field"; //$NON-NLS-1$
+	private static final String TAG_REGION_FIELD = "region_field"; //$NON-NLS-1$
+	private static final String TAG_CLUSTER_FIELD = "cluster_field"; //$NON-NLS-1$
+	private static final String TAG_DESCRIPTION_FIELD = "description_field"; //$NON-NLS-1$
+	private static final String TAG_CARRIER_FIELD = "carrier_field"; //$NON-NLS-1$
+	private static final String TAG_TIME_ZONES_FIELD = "time_zones_field"; //$NON-NLS-1$
+	private static final String TAG_LANGUAGE = "language"; //$NON-NLS-1$
+	private static final String TAG_PRE_VALIDATION = "pre_validation"; //$NON-NLS-1$
+	private static final String TAG_MIN_DIGITS = "min_digits"; //$NON-NLS-1$
+	private static final String TAG_MAX_DIGITS = "max_digits"; //$NON-NLS-1$
+	private static final String TAG_MAX_LETTER_PERCENT = "max_letter_percent"; //$NON-NLS-1$
+	private static final String TAG_EXTRACT_MODE = "extract_mode"; //$NON-NLS-1$
+	private static final String TAG_E164_FIELD = "e164_field"; //$NON-NLS-1$
+	private static final String TAG_INTERNATIONAL_FIELD = "international_field"; //$NON-NLS-1$
+	private static final String TAG_NATIONAL_FIELD = "national_field"; //$NON-NLS-1$
+	private static final String TAG_RFC3966_FIELD = "rfc3966_field"; //$NON-NLS-1$
+	private static final String TAG_TEMPLATE = "template"; //$NON-NLS-1$
+	private static final String TAG_TEMPLATE_FIELD = "template_field"; //$NON-NLS-1$
+	private static final String TAG_DO_NOT_CALL_FIELD = "do_not_call_field"; //$NON-NLS-1$
+	private static final String TAG_VALIDATION_LEVEL = "validation_level"; //$NON-NLS-1$
+	private static final String TAG_REASON_FIELD = "reason_field"; //$NON-NLS-1$
+	private static final String TAG_LENIENCY = "leniency"; //$NON-NLS-1$
+	private static final String TAG_MAX_TRIES = "max_tries"; //$NON-NLS-1$
+	private static final String TAG_EXTRACT_DELIMITER = "extract_delimiter"; //$NON-NLS-1$
+	private static final String TAG_CACHE_SIZE = "cache_size"; //$NON-NLS-1$
+	private static final String TAG_REGIONS = "regions"; //$NON-NLS-1$
+	private static final String TAG_FALLBACK_REGIONS = "fallback_regions"; //$NON-NLS-1$
+	private static final String TAG_DO_NOT_CALL_FILE = "do_not_call_file"; //$NON-NLS-1$
+	private static final String TAG_PRELOAD_METADATA = "preload_metadata"; //$NON-NLS-1$
+	private static final String TAG_COMPILE_PATTERNS = "compile_patterns"; //$NON-NLS-1$
+	private static final String TAG_FAST_MODE = "fast_mode"; //$NON-NLS-1$
+	private static final String TAG_REJECT_OTHER_REGIONS = "reject_other_regions"; //$NON-NLS-1$
+	private static final String TAG_PARALLEL_WORKERS = "parallel_workers"; //$NON-NLS-1$
+	private static final String TAG_BATCH_SIZE = "batch_size"; //$NON-NLS-1$
+	private static final String TAG_MAX_LATENCY = "max_latency"; //$NON-NLS-1$
+
+	/** The default maximum number of entries of the phone number cache */
+	public static final int DEFAULT_CACHE_SIZE = 10000;
+
+	/** The default maximum number of invalid candidates tried in a text */
+	public static final long DEFAULT_MAX_TRIES = 100;
+
+	/** The default delimiter of the phone numbers extracted in list mode */
+	public static final String DEFAULT_EXTRACT_DELIMITER = ", "; //$NON-NLS-1$
 
 	private static final Set<PhoneNumberFormat> SUPPORTED_FORMATS = EnumSet.of(PhoneNumberFormat.E164,
 			PhoneNumberFormat.INTERNATIONAL, PhoneNumberFormat.NATIONAL, PhoneNumberFormat.RFC3966);
@@ -84,6 +136,82 @@ public class StandardizePhoneNumberMeta extends BaseStepMeta implements StepMeta
 	@Injection(name = "DEFAULT_COUNTRY")
 	private String defaultCountry;
 
+	/** The maximum number of cached phone numbers, 0 to disable the cache */
+	@Injection(name = "CACHE_SIZE")
+	private int cacheSize;
+
+	/** The accepted regions codes (ISO 2), comma separated, empty to accept all regions */
+	@Injection(name = "REGIONS")
+	private String regions;
+
+	/** The regions tried after the default country when the country field is empty, comma separated */
+	@Injection(name = "FALLBACK_REGIONS")
+	private String fallbackRegions;
+
+	/** The file of the do not call list, one phone number in E164 format per line, or a sorted binary file */
+	@Injection(name = "DO_NOT_CALL_FILE")
+	private String doNotCallFile;
+
+	/** Load the metadata of the default country and accepted regions when the step starts */
+	@Injection(name = "PRELOAD_METADATA")
+	private boolean preloadMetadata;
+
+	/** Compile the number patterns of the default country and accepted regions in automatons */
+	@Injection(name = "COMPILE_PATTERNS")
+	private boolean compilePatterns;
+
+	/** Recognize clean phone numbers in national form by the rules of their region, without the parser */
+	@Injection(name = "FAST_MODE")
+	private boolean fastMode;
+
+	/** Reject the phone numbers of the regions not accepted, instead of using the default country */
+	@Injection(name = "REJECT_OTHER_REGIONS")
+	private boolean rejectOtherRegions;
+
+	/** The language of the geographical descriptions and carrier names */
+	@Injection(name = "LANGUAGE")
+	private String language;
+
+	/** Reject the values obviously not phone numbers without parsing them */
+	@Injection(name = "PRE_VALIDATION")
+	private boolean preValidation;
+
+	/** The minimum number of digits of a phone number */
+	@Injection(name = "MIN_DIGITS")
+	private int minDigits;
+
+	/** The maximum number of digits of a phone number, including the extension */
+	@Injection(name = "MAX_DIGITS")
+	private int maxDigits;
+
+	/** The maximum percentage of letters among the letters and digits of a phone number */
+	@Injection(name = "MAX_LETTER_PERCENT")
+	private int maxLetterPercent;
+
+	/** The leniency of the phone numbers extracted from a text */
+	@Injection(name = "LENIENCY")
+	private String leniency;
+
+	/** The maximum number of invalid candidates tried in a text before giving up */
+	@Injection(name = "MAX_TRIES")
+	private long maxTries;
+
+	/** The delimiter of the phone numbers extracted in list mode */
+	@Injection(name = "EXTRACT_DELIMITER")
+	private String extractDelimiter;
+
+	/** The number of worker threads, 1 to process rows in the step thread */
+	@Injection(name = "PARALLEL_WORKERS")
+	private int parallelWorkers;
+
+	/** The maximum number of rows of a batch processed by a worker */
+	@Injection(name = "BATCH_SIZE")
+	private int batchSize;
+
+	/** The maximum time in milliseconds a row waits for its batch to be processed */
+	@Injection(name = "MAX_LATENCY")
+	private long maxLatency;
+
 	/** The phone number to standardize */
 	@InjectionDeep
 	private List<StandardizePhoneNumber> standardizes = new ArrayList<>();
@@ -136,6 +264,25 @@ public class StandardizePhoneNumberMeta extends BaseStepMeta implements StepMeta
 	public void setDefault() {
 		this.standardizes = new ArrayList<>();
 		this.defaultCountry = "FR";
+		this.cacheSize = DEFAULT_CACHE_SIZE;
+		this.regions = null;
+		this.fallbackRegions = null;
+		this.doNotCallFile = null;
+		this.preloadMetadata = true;
+		this.compilePatterns = false;
+		this.fastMode = false;
+		this.rejectOtherRegions = false;
+		this.language = Locale.ENGLISH.getLanguage();
+		this.preValidation = true;
+		this.minDigits = PhoneNumberPreFilter.DEFAULT_MIN_DIGITS;
+		this.maxDigits = PhoneNumberPreFilter.DEFAULT_MAX_DIGITS;
+		this.maxLetterPercent = PhoneNumberPreFilter.DEFAULT_MAX_LETTER_PERCENT;
+		this.leniency = Leniency.VALID.name();
+		this.maxTries = DEFAULT_MAX_TRIES;
+		this.extractDelimiter = DEFAULT_EXTRACT_DELIMITER;
+		this.parallelWorkers = 1;
+		this.batchSize = OrderedRowProcessor.DEFAULT_BATCH_SIZE;
+		this.maxLatency = OrderedRowProcessor.DEFAULT_MAX_LATENCY;
 	}
 
 	@Override
@@ -157,6 +304,25 @@ public class StandardizePhoneNumberMeta extends BaseStepMeta implements StepMeta
 		StringBuilder xml = new StringBuilder(500);
 
 		xml.append(XMLHandler.addTagValue(TAG_DEFAULT_COUNTRY, this.defaultCountry));
+		xml.append(XMLHandler.addTagValue(TAG_CACHE_SIZE, this.cacheSize));
+		xml.append(XMLHandler.addTagValue(TAG_REGIONS, this.regions));
+		xml.append(XMLHandler.addTagValue(TAG_FALLBACK_REGIONS, this.fallbackRegions));
+		xml.append(XMLHandler.addTagValue(TAG_DO_NOT_CALL_FILE, this.doNotCallFile));
+		xml.append(XMLHandler.addTagValue(TAG_PRELOAD_METADATA, this.preloadMetadata));
+		xml.append(XMLHandler.addTagValue(TAG_COMPILE_PATTERNS, this.compilePatterns));
+		xml.append(XMLHandler.addTagValue(TAG_FAST_MODE, this.fastMode));
+		xml.append(XMLHandler.addTagValue(TAG_REJECT_OTHER_REGIONS, this.rejectOtherRegions));
+		xml.append(XMLHandler.addTagValue(TAG_LANGUAGE, this.language));
+		xml.append(XMLHandler.addTagValue(TAG_PRE_VALIDATION, this.preValidation));
+		xml.append(XMLHandler.addTagValue(TAG_MIN_DIGITS, this.minDigits));
+		xml.append(XMLHandler.addTagValue(TAG_MAX_DIGITS, this.maxDigits));
+		xml.append(XMLHandler.addTagValue(TAG_MAX_LETTER_PERCENT, this.maxLetterPercent));
+		xml.append(XMLHandler.addTagValue(TAG_LENIENCY, this.leniency));
+		xml.append(XMLHandler.addTagValue(TAG_MAX_TRIES, this.maxTries));
+		xml.append(XMLHandler.addTagValue(TAG_EXTRACT_DELIMITER, this.extractDelimiter));
+		xml.append(XMLHandler.addTagValue(TAG_PARALLEL_WORKERS, this.parallelWorkers));
+		xml.append(XMLHandler.addTagValue(TAG_BATCH_SIZE, this.batchSize));
+		xml.append(XMLHandler.addTagValue(TAG_MAX_LATENCY, this.maxLatency));
 
 		xml.append("<fields>"); //$NON-NLS-1$
 		for (StandardizePhoneNumber standardize : this.getStandardizePhoneNumbers()) {
@@ -167,6 +333,25 @@ public class StandardizePhoneNumberMeta extends BaseStepMeta implements StepMeta
 			xml.append(XMLHandler.addTagValue(TAG_FORMAT, standardize.getFormat().name()));
 			xml.append(XMLHandler.addTagValue(TAG_PHONE_NUMBER_TYPE, standardize.getPhoneNumberTypeField()));
 			xml.append(XMLHandler.addTagValue(TAG_VALID_FIELD, standardize.getIsValidPhoneNumberField()));
+			xml.append(XMLHandler.addTagValue(TAG_COUNTRY_CODE_FIELD, standardize.getCountryCodeField()));
+			xml.append(XMLHandler.addTagValue(TAG_NATIONAL_NUMBER_FIELD, standardize.getNationalNumberField()));
+			xml.append(XMLHandler.addTagValue(TAG_E164_NUMBER_FIELD, standardize.getE164NumberField()));
+			xml.append(XMLHandler.addTagValue(TAG_EXTENSION_FIELD, standardize.getExtensionField()));
+			xml.append(XMLHandler.addTagValue(TAG_REGION_FIELD, standardize.getRegionField()));
+			xml.append(XMLHandler.addTagValue(TAG_CLUSTER_FIELD, standardize.getClusterField()));
+			xml.append(XMLHandler.addTagValue(TAG_DESCRIPTION_FIELD, standardize.getDescriptionField()));
+			xml.append(XMLHandler.addTagValue(TAG_CARRIER_FIELD, standardize.getCarrierField()));
+			xml.append(XMLHandler.addTagValue(TAG_TIME_ZONES_FIELD, standardize.getTimeZonesField()));
+			xml.append(XMLHandler.addTagValue(TAG_EXTRACT_MODE, standardize.getExtractMode().name()));
+			xml.append(XMLHandler.addTagValue(TAG_E164_FIELD, standardize.getE164Field()));
+			xml.append(XMLHandler.addTagValue(TAG_INTERNATIONAL_FIELD, standardize.getInternationalField()));
+			xml.append(XMLHandler.addTagValue(TAG_NATIONAL_FIELD, standardize.getNationalField()));
+			xml.append(XMLHandler.addTagValue(TAG_RFC3966_FIELD, standardize.getRfc3966Field()));
+			xml.append(XMLHandler.addTagValue(TAG_VALIDATION_LEVEL, standardize.getValidationLevel().name()));
+			xml.append(XMLHandler.addTagValue(TAG_REASON_FIELD, standardize.getReasonField()));
+			xml.append(XMLHandler.addTagValue(TAG_TEMPLATE, standardize.getTemplate()));
+			xml.append(XMLHandler.addTagValue(TAG_TEMPLATE_FIELD, standardize.getTemplateField()));
+			xml.append(XMLHandler.addTagValue(TAG_DO_NOT_CALL_FIELD, standardize.getDoNotCallField()));
 			xml.append("</field>"); //$NON-NLS-1$
 		}
 		xml.append("</fields>"); //$NON-NLS-1$
@@ -179,6 +364,27 @@ public class StandardizePhoneNumberMeta extends BaseStepMeta implements StepMeta
 
 		try {
 			this.defaultCountry = XMLHandler.getTagValue(stepNode, TAG_DEFAULT_COUNTRY);
+			this.cacheSize = Const.toInt(XMLHandler.getTagValue(stepNode, TAG_CACHE_SIZE), 0);
+			this.regions = XMLHandler.getTagValue(stepNode, TAG_REGIONS);
+			this.fallbackRegions = XMLHandler.getTagValue(stepNode, TAG_FALLBACK_REGIONS);
+			this.doNotCallFile = XMLHandler.getTagValue(stepNode, TAG_DO_NOT_CALL_FILE);
+			this.preloadMetadata = "Y".equalsIgnoreCase(XMLHandler.getTagValue(stepNode, TAG_PRELOAD_METADATA));
+			this.compilePatterns = "Y".equalsIgnoreCase(XMLHandler.getTagValue(stepNode, TAG_COMPILE_PATTERNS));
+			this.fastMode = "Y".equalsIgnoreCase(XMLHandler.getTagValue(stepNode, TAG_FAST_MODE));
+			this.rejectOtherRegions = "Y".equalsIgnoreCase(XMLHandler.getTagValue(stepNode, TAG_REJECT_OTHER_REGIONS));
+			this.language = XMLHandler.getTagValue(stepNode, TAG_LANGUAGE);
+			this.preValidation = "Y".equalsIgnoreCase(XMLHandler.getTagValue(stepNode, TAG_PRE_VALIDATION));
+			this.setMinDigits(Const.toInt(XMLHandler.getTagValue(stepNode, TAG_MIN_DIGITS), 0));
+			this.setMaxDigits(Const.toInt(XMLHandler.getTagValue(stepNode, TAG_MAX_DIGITS), 0));
+			this.setMaxLetterPercent(Const.toInt(XMLHandler.getTagValue(stepNode, TAG_MAX_LETTER_PERCENT),
+					PhoneNumberPreFilter.DEFAULT_MAX_LETTER_PERCENT));
+			this.leniency = XMLHandler.getTagValue(stepNode, TAG_LENIENCY);
+			this.setMaxTries(Const.toLong(XMLHandler.getTagValue(stepNode, TAG_MAX_TRIES), DEFAULT_MAX_TRIES));
+			this.extractDelimiter = Const.NVL(XMLHandler.getTagValue(stepNode, TAG_EXTRACT_DELIMITER),
+					DEFAULT_EXTRACT_DELIMITER);
+			this.setParallelWorkers(Const.toInt(XMLHandler.getTagValue(stepNode, TAG_PARALLEL_WORKERS), 1));
+			this.setBatchSize(Const.toInt(XMLHandler.getTagValue(stepNode, TAG_BATCH_SIZE), 0));
+			this.setMaxLatency(Const.toLong(XMLHandler.getTagValue(stepNode, TAG_MAX_LATENCY), 0));
 
 			Node fields = XMLHandler.getSubNode(stepNode, "fields");
 			int count = XMLHandler.countNodes(fields, "field");
@@ -192,6 +398,26 @@ public class StandardizePhoneNumberMeta extends BaseStepMeta implements StepMeta
 				standardize.setCountryField(XMLHandler.getTagValue(field, TAG_COUNTRY_FIELD));
 				standardize.setPhoneNumberTypeField(XMLHandler.getTagValue(field, TAG_PHONE_NUMBER_TYPE));
 				standardize.setIsValidPhoneNumberField(XMLHandler.getTagValue(field, TAG_VALID_FIELD));
+				standardize.setCountryCodeField(XMLHandler.getTagValue(field, TAG_COUNTRY_CODE_FIELD));
+				standardize.setNationalNumberField(XMLHandler.getTagValue(field, TAG_NATIONAL_NUMBER_FIELD));
+				standardize.setE164NumberField(XMLHandler.getTagValue(field, TAG_E164_NUMBER_FIELD));
+				standardize.setExtensionField(XMLHandler.getTagValue(field, TAG_EXTENSION_FIELD));
+				standardize.setRegionField(XMLHandler.getTagValue(field, TAG_REGION_FIELD));
+				standardize.setClusterField(XMLHandler.getTagValue(field, TAG_CLUSTER_FIELD));
+				standardize.setDescriptionField(XMLHandler.getTagValue(field, TAG_DESCRIPTION_FIELD));
+				standardize.setCarrierField(XMLHandler.getTagValue(field, TAG_CARRIER_FIELD));
+				standardize.setTimeZonesField(XMLHandler.getTagValue(field, TAG_TIME_ZONES_FIELD));
+				standardize.setExtractMode(toExtractMode(XMLHandler.getTagValue(field, TAG_EXTRACT_MODE)));
+				standardize.setE164Field(XMLHandler.getTagValue(field, TAG_E164_FIELD));
+				standardize.setInternationalField(XMLHandler.getTagValue(field, TAG_INTERNATIONAL_FIELD));
+				standardize.setNationalField(XMLHandler.getTagValue(field, TAG_NATIONAL_FIELD));
+				standardize.setRfc3966Field(XMLHandler.getTagValue(field, TAG_RFC3966_FIELD));
+				standardize.setValidationLevel(
+						toValidationLevel(XMLHandler.getTagValue(field, TAG_VALIDATION_LEVEL)));
+				standardize.setReasonField(XMLHandler.getTagValue(field, TAG_REASON_FIELD));
+				standardize.setTemplate(XMLHandler.getTagValue(field, TAG_TEMPLATE));
+				standardize.setTemplateField(XMLHandler.getTagValue(field, TAG_TEMPLATE_FIELD));
+				standardize.setDoNotCallField(XMLHandler.getTagValue(field, TAG_DO_NOT_CALL_FIELD));
 
 				try {
 					String value = XMLHandler.getTagValue(field, TAG_FORMAT);
@@ -228,9 +454,67 @@ public class StandardizePhoneNumberMeta extends BaseStepMeta implements StepMeta
 						standardize.getPhoneNumberTypeField());
 				repository.saveStepAttribute(id_transformation, id_step, i, TAG_VALID_FIELD,
 						standardize.getIsValidPhoneNumberField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_COUNTRY_CODE_FIELD,
+						standardize.getCountryCodeField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_NATIONAL_NUMBER_FIELD,
+						standardize.getNationalNumberField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_E164_NUMBER_FIELD,
+						standardize.getE164NumberField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_EXTENSION_FIELD,
+						standardize.getExtensionField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_REGION_FIELD,
+						standardize.getRegionField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_CLUSTER_FIELD,
+						standardize.getClusterField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_DESCRIPTION_FIELD,
+						standardize.getDescriptionField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_CARRIER_FIELD,
+						standardize.getCarrierField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_TIME_ZONES_FIELD,
+						standardize.getTimeZonesField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_EXTRACT_MODE,
+						standardize.getExtractMode().name());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_E164_FIELD, standardize.getE164Field());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_INTERNATIONAL_FIELD,
+						standardize.getInternationalField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_NATIONAL_FIELD,
+						standardize.getNationalField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_RFC3966_FIELD,
+						standardize.getRfc3966Field());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_VALIDATION_LEVEL,
+						standardize.getValidationLevel().name());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_REASON_FIELD,
+						standardize.getReasonField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_TEMPLATE, standardize.getTemplate());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_TEMPLATE_FIELD,
+						standardize.getTemplateField());
+				repository.saveStepAttribute(id_transformation, id_step, i, TAG_DO_NOT_CALL_FIELD,
+						standardize.getDoNotCallField());
 			}
 
 			repository.saveStepAttribute(id_transformation, id_step, TAG_DEFAULT_COUNTRY, this.getDefaultCountry());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_CACHE_SIZE, this.getCacheSize());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_REGIONS, this.getRegions());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_FALLBACK_REGIONS, this.getFallbackRegions());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_DO_NOT_CALL_FILE, this.getDoNotCallFile());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_PRELOAD_METADATA, this.isPreloadMetadata());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_COMPILE_PATTERNS, this.isCompilePatterns());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_FAST_MODE, this.isFastMode());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_REJECT_OTHER_REGIONS,
+					this.isRejectOtherRegions());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_LANGUAGE, this.getLanguage());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_PRE_VALIDATION, this.isPreValidation());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_MIN_DIGITS, this.getMinDigits());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_MAX_DIGITS, this.getMaxDigits());
+			// Saved as a string, so that a missing attribute reads as the default
+			repository.saveStepAttribute(id_transformation, id_step, TAG_MAX_LETTER_PERCENT,
+					String.valueOf(this.getMaxLetterPercent()));
+			repository.saveStepAttribute(id_transformation, id_step, TAG_LENIENCY, this.getLeniency());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_MAX_TRIES, this.getMaxTries());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_EXTRACT_DELIMITER, this.getExtractDelimiter());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_PARALLEL_WORKERS, this.getParallelWorkers());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_BATCH_SIZE, this.getBatchSize());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_MAX_LATENCY, this.getMaxLatency());
 		} catch (Exception e) {
 			throw new KettleException(
 					BaseMessages.getString(PKG, "StandardizeMeta.Exception.UnableToSaveRepository", id_step), e); //$NON-NLS-1$
@@ -252,6 +536,29 @@ public class StandardizePhoneNumberMeta extends BaseStepMeta implements StepMeta
 						.setPhoneNumberTypeField(repository.getStepAttributeString(id_step, i, TAG_PHONE_NUMBER_TYPE));
 
 				standardize.setIsValidPhoneNumberField(repository.getStepAttributeString(id_step, i, TAG_VALID_FIELD));
+				standardize.setCountryCodeField(repository.getStepAttributeString(id_step, i, TAG_COUNTRY_CODE_FIELD));
+				standardize.setNationalNumberField(
+						repository.getStepAttributeString(id_step, i, TAG_NATIONAL_NUMBER_FIELD));
+				standardize.setE164NumberField(repository.getStepAttributeString(id_step, i, TAG_E164_NUMBER_FIELD));
+				standardize.setExtensionField(repository.getStepAttributeString(id_step, i, TAG_EXTENSION_FIELD));
+				standardize.setRegionField(repository.getStepAttributeString(id_step, i, TAG_REGION_FIELD));
+				standardize.setClusterField(repository.getStepAttributeString(id_step, i, TAG_CLUSTER_FIELD));
+				standardize.setDescriptionField(repository.getStepAttributeString(id_step, i, TAG_DESCRIPTION_FIELD));
+				standardize.setCarrierField(repository.getStepAttributeString(id_step, i, TAG_CARRIER_FIELD));
+				standardize.setTimeZonesField(repository.getStepAttributeString(id_step, i, TAG_TIME_ZONES_FIELD));
+				standardize.setExtractMode(
+						toExtractMode(repository.getStepAttributeString(id_step, i, TAG_EXTRACT_MODE)));
+				standardize.setE164Field(repository.getStepAttributeString(id_step, i, TAG_E164_FIELD));
+				standardize
+						.setInternationalField(repository.getStepAttributeString(id_step, i, TAG_INTERNATIONAL_FIELD));
+				standardize.setNationalField(repository.getStepAttributeString(id_step, i, TAG_NATIONAL_FIELD));
+				standardize.setRfc3966Field(repository.getStepAttributeString(id_step, i, TAG_RFC3966_FIELD));
+				standardize.setValidationLevel(
+						toValidationLevel(repository.getStepAttributeString(id_step, i, TAG_VALIDATION_LEVEL)));
+				standardize.setReasonField(repository.getStepAttributeString(id_step, i, TAG_REASON_FIELD));
+				standardize.setTemplate(repository.getStepAttributeString(id_step, i, TAG_TEMPLATE));
+				standardize.setTemplateField(repository.getStepAttributeString(id_step, i, TAG_TEMPLATE_FIELD));
+				standardize.setDoNotCallField(repository.getStepAttributeString(id_step, i, TAG_DO_NOT_CALL_FIELD));
 
 				String formatAttribute = repository.getStepAttributeString(id_step, i, TAG_FORMAT);
 				if (formatAttribute != null) {
@@ -262,6 +569,27 @@ public class StandardizePhoneNumberMeta extends BaseStepMeta implements StepMeta
 			}
 
 			this.defaultCountry = repository.getStepAttributeString(id_step, TAG_DEFAULT_COUNTRY);
+			this.cacheSize = (int) repository.getStepAttributeInteger(id_step, TAG_CACHE_SIZE);
+			this.regions = repository.getStepAttributeString(id_step, TAG_REGIONS);
+			this.fallbackRegions = repository.getStepAttributeString(id_step, TAG_FALLBACK_REGIONS);
+			this.doNotCallFile = repository.getStepAttributeString(id_step, TAG_DO_NOT_CALL_FILE);
+			this.preloadMetadata = repository.getStepAttributeBoolean(id_step, TAG_PRELOAD_METADATA);
+			this.compilePatterns = repository.getStepAttributeBoolean(id_step, TAG_COMPILE_PATTERNS);
+			this.fastMode = repository.getStepAttributeBoolean(id_step, TAG_FAST_MODE);
+			this.rejectOtherRegions = repository.getStepAttributeBoolean(id_step, TAG_REJECT_OTHER_REGIONS);
+			this.language = repository.getStepAttributeString(id_step, TAG_LANGUAGE);
+			this.preValidation = repository.getStepAttributeBoolean(id_step, TAG_PRE_VALIDATION);
+			this.setMinDigits((int) repository.getStepAttributeInteger(id_step, TAG_MIN_DIGITS));
+			this.setMaxDigits((int) repository.getStepAttributeInteger(id_step, TAG_MAX_DIGITS));
+			this.setMaxLetterPercent(Const.toInt(repository.getStepAttributeString(id_step, TAG_MAX_LETTER_PERCENT),
+					PhoneNumberPreFilter.DEFAULT_MAX_LETTER_PERCENT));
+			this.leniency = repository.getStepAttributeString(id_step, TAG_LENIENCY);
+			this.setMaxTries(repository.getStepAttributeInteger(id_step, TAG_MAX_TRIES));
+			this.extractDelimiter = Const.NVL(repository.getStepAttributeString(id_step, TAG_EXTRACT_DELIMITER),
+					DEFAULT_EXTRACT_DELIMITER);
+			this.setParallelWorkers((int) repository.getStepAttributeInteger(id_step, TAG_PARALLEL_WORKERS));
+			this.setBatchSize((int) repository.getStepAttributeInteger(id_step, TAG_BATCH_SIZE));
+			this.setMaxLatency(repository.getStepAttributeInteger(id_step, TAG_MAX_LATENCY));
 
 		} catch (Exception e) {
 
@@ -326,12 +654,41 @@ public class StandardizePhoneNumberMeta extends BaseStepMeta implements StepMeta
 					valueMeta.setOrigin(stepName);
 					inputRowMeta.addValueMeta(valueMeta);
 				}
+
+				// add validation reason code field
+				addField(inputRowMeta, standardize.getReasonField(), ValueMetaInterface.TYPE_STRING, stepName);
+
+				// add the decomposed phone number fields
+				addField(inputRowMeta, standardize.getCountryCodeField(), ValueMetaInterface.TYPE_INTEGER, stepName);
+				addField(inputRowMeta, standardize.getNationalNumberField(), ValueMetaInterface.TYPE_INTEGER, stepName);
+				addField(inputRowMeta, standardize.getE164NumberField(), ValueMetaInterface.TYPE_INTEGER, stepName);
+				addField(inputRowMeta, standardize.getExtensionField(), ValueMetaInterface.TYPE_STRING, stepName);
+				addField(inputRowMeta, standardize.getRegionField(), ValueMetaInterface.TYPE_STRING, stepName);
+				addField(inputRowMeta, standardize.getClusterField(), ValueMetaInterface.TYPE_INTEGER, stepName);
+				addField(inputRowMeta, standardize.getDescriptionField(), ValueMetaInterface.TYPE_STRING, stepName);
+				addField(inputRowMeta, standardize.getCarrierField(), ValueMetaInterface.TYPE_STRING, stepName);
+				addField(inputRowMeta, standardize.getTimeZonesField(), ValueMetaInterface.TYPE_STRING, stepName);
+				for (PhoneNumberFormat format : SUPPORTED_FORMATS) {
+					addField(inputRowMeta, standardize.getFormatField(format), ValueMetaInterface.TYPE_STRING,
+							stepName);
+				}
+				addField(inputRowMeta, standardize.getTemplateField(), ValueMetaInterface.TYPE_STRING, stepName);
+				addField(inputRowMeta, standardize.getDoNotCallField(), ValueMetaInterface.TYPE_BOOLEAN, stepName);
 			}
 		} catch (Exception e) {
 			throw new KettleStepException(e);
 		}
 	}
 
+	private static void addField(RowMetaInterface rowMeta, String name, int type, String stepName)
+			throws KettlePluginException {
+		if (!Utils.isEmpty(name)) {
+			ValueMetaInterface valueMeta = ValueMetaFactory.createValueMeta(name, type);
+			valueMeta.setOrigin(stepName);
+			rowMeta.addValueMeta(valueMeta);
+		}
+	}
+
 	/**
 	 * This method is called when the user selects the "Verify Transformation"
 	 * option in Spoon.
@@ -400,6 +757,123 @@ public class StandardizePhoneNumberMeta extends BaseStepMeta implements StepMeta
 					stepMeta));
 		}
 
+		// Only one rule can extract one row per phone number
+		int rowsRules = 0;
+		for (StandardizePhoneNumber standardize : this.getStandardizePhoneNumbers()) {
+			if (standardize.getExtractMode() == StandardizePhoneNumber.ExtractMode.ROWS) {
+				rowsRules++;
+			}
+		}
+		if (rowsRules > 1) {
+			remarks.add(new CheckResult(CheckResultInterface.TYPE_RESULT_ERROR,
+					BaseMessages.getString(PKG, "StandardizePhoneNumberMeta.CheckResult.ExtractRowsTwice"), stepMeta));
+		}
+
+		// The type is resolved only by the highest validation level
+		for (StandardizePhoneNumber standardize : this.getStandardizePhoneNumbers()) {
+			if (!Utils.isEmpty(standardize.getPhoneNumberTypeField())
+					&& standardize.getValidationLevel() != StandardizePhoneNumber.ValidationLevel.VALID_AND_TYPE) {
+				String message = BaseMessages.getString(PKG, "StandardizePhoneNumberMeta.CheckResult.TypeNotResolved",
+						standardize.getPhoneNumberTypeField(), standardize.getValidationLevel().name());
+				remarks.add(new CheckResult(CheckResultInterface.TYPE_RESULT_WARNING, message, stepMeta));
+			}
+		}
+
+		// The do not call flag needs a list
+		if (Utils.isEmpty(this.getDoNotCallFile())) {
+			for (StandardizePhoneNumber standardize : this.getStandardizePhoneNumbers()) {
+				if (!Utils.isEmpty(standardize.getDoNotCallField())) {
+					String message = BaseMessages.getString(PKG,
+							"StandardizePhoneNumberMeta.CheckResult.NoDoNotCallFile", standardize.getDoNotCallField());
+					remarks.add(new CheckResult(CheckResultInterface.TYPE_RESULT_ERROR, message, stepMeta));
+				}
+			}
+		}
+
+		// The cluster ids are assigned by each copy of the step, so they would
+		// collide across copies
+		if (stepMeta.getCopies() > 1) {
+			for (StandardizePhoneNumber standardize : this.getStandardizePhoneNumbers()) {
+				if (!Utils.isEmpty(standardize.getClusterField())) {
+					String message = BaseMessages.getString(PKG,
+							"StandardizePhoneNumberMeta.CheckResult.ClusterWithCopies", standardize.getClusterField(),
+							stepMeta.getCopies());
+					remarks.add(new CheckResult(CheckResultInterface.TYPE_RESULT_ERROR, message, stepMeta));
+				}
+			}
+		}
+
+		// See if the templates compile
+		for (StandardizePhoneNumber standardize : this.getStandardizePhoneNumbers()) {
+			if (Utils.isEmpty(standardize.getTemplateField())) {
+				continue;
+			}
+			try {
+				PhoneNumberTemplate.compile(standardize.getTemplate());
+			} catch (IllegalArgumentException e) {
+				String message = BaseMessages.getString(PKG, "StandardizePhoneNumberMeta.CheckResult.InvalidTemplate",
+						standardize.getTemplateField(), e.getMessage());
+				remarks.add(new CheckResult(CheckResultInterface.TYPE_RESULT_ERROR, message, stepMeta));
+			}
+		}
+
+		// See if the accepted and fallback regions are supported
+		Set<String> supportedRegions = PhoneNumberUtil.getInstance().getSupportedRegions();
+		Set<String> regionCodes = new LinkedHashSet<>(Arrays.asList(this.getRegionCodes()));
+		regionCodes.addAll(Arrays.asList(this.getFallbackRegionCodes()));
+		for (String region : regionCodes) {
+			if (!supportedRegions.contains(region)) {
+				String message = BaseMessages.getString(PKG, "StandardizePhoneNumberMeta.CheckResult.UnsupportedRegion",
+						region);
+				remarks.add(new CheckResult(CheckResultInterface.TYPE_RESULT_ERROR, message, stepMeta));
+			}
+		}
+	}
+
+	private static StandardizePhoneNumber.ExtractMode toExtractMode(String value) {
+		if (Utils.isEmpty(value)) {
+			return StandardizePhoneNumber.ExtractMode.NONE;
+		}
+		try {
+			return StandardizePhoneNumber.ExtractMode.valueOf(value);
+		} catch (IllegalArgumentException e) {
+			return StandardizePhoneNumber.ExtractMode.NONE;
+		}
+	}
+
+	private static StandardizePhoneNumber.ValidationLevel toValidationLevel(String value) {
+		if (Utils.isEmpty(value)) {
+			return StandardizePhoneNumber.ValidationLevel.VALID_AND_TYPE;
+		}
+		try {
+			return StandardizePhoneNumber.ValidationLevel.valueOf(value);
+		} catch (IllegalArgumentException e) {
+			return StandardizePhoneNumber.ValidationLevel.VALID_AND_TYPE;
+		}
+	}
+
+	public String[] getSupportedValidationLevels() {
+		ArrayList<String> result = new ArrayList<>();
+		for (StandardizePhoneNumber.ValidationLevel level : StandardizePhoneNumber.ValidationLevel.values()) {
+			result.add(level.name());
+		}
+		return result.toArray(new String[result.size()]);
+	}
+
+	public String[] getSupportedExtractModes() {
+		ArrayList<String> result = new ArrayList<>();
+		for (StandardizePhoneNumber.ExtractMode mode : StandardizePhoneNumber.ExtractMode.values()) {
+			result.add(mode.name());
+		}
+		return result.toArray(new String[result.size()]);
+	}
+
+	public String[] getSupportedLeniencies() {
+		ArrayList<String> result = new ArrayList<>();
+		for (Leniency value : Leniency.values()) {
+			result.add(value.name());
+		}
+		return result.toArray(new String[result.size()]);
 	}
 
 	public String[] getSupportedFormats() {
@@ -451,4 +925,325 @@ public class StandardizePhoneNumberMeta extends BaseStepMeta implements StepMeta
 	public void setDefaultCountry(String country) {
 		this.defaultCountry = country;
 	}
+
+	/**
+	 * Get the maximum number of cached phone numbers
+	 * 
+	 * @return the cache size, 0 if the cache is disabled
+	 */
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * Set the maximum number of cached phone numbers
+	 * 
+	 * @param size
+	 *            the cache size, 0 to disable the cache
+	 */
+	public void setCacheSize(int size) {
+		this.cacheSize = Math.max(0, size);
+	}
+
+	/**
+	 * Get the number of worker threads
+	 * 
+	 * @return the number of workers, 1 if rows are processed in the step thread
+	 */
+	public int getParallelWorkers() {
+		return parallelWorkers;
+	}
+
+	/**
+	 * Set the number of worker threads
+	 * 
+	 * @param workers
+	 *            the number of workers, 1 to process rows in the step thread
+	 */
+	public void setParallelWorkers(int workers) {
+		this.parallelWorkers = Math.max(1, workers);
+	}
+
+	/**
+	 * Get the maximum number of rows of a batch processed by a worker
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Set the maximum number of rows of a batch processed by a worker
+	 * 
+	 * @param size
+	 *            the batch size, 0 for the default
+	 */
+	public void setBatchSize(int size) {
+		this.batchSize = (size > 0) ? size : OrderedRowProcessor.DEFAULT_BATCH_SIZE;
+	}
+
+	/**
+	 * Get the maximum time in milliseconds a row waits for its batch to be
+	 * processed
+	 */
+	public long getMaxLatency() {
+		return maxLatency;
+	}
+
+	/**
+	 * Set the maximum time in milliseconds a row waits for its batch to be
+	 * processed
+	 * 
+	 * @param latency
+	 *            the latency in milliseconds, 0 for the default
+	 */
+	public void setMaxLatency(long latency) {
+		this.maxLatency = (latency > 0) ? latency : OrderedRowProcessor.DEFAULT_MAX_LATENCY;
+	}
+
+	/**
+	 * Get the accepted regions codes
+	 * 
+	 * @return the regions codes (ISO 2), comma separated, empty if all regions
+	 *         are accepted
+	 */
+	public String getRegions() {
+		return regions;
+	}
+
+	/**
+	 * Set the accepted regions codes
+	 * 
+	 * @param regions
+	 *            the regions codes (ISO 2), comma separated, empty to accept all
+	 *            regions
+	 */
+	public void setRegions(String regions) {
+		this.regions = regions;
+	}
+
+	/**
+	 * Returns the accepted regions codes, upper case, or an empty array if all
+	 * regions are accepted.
+	 */
+	public String[] getRegionCodes() {
+		return toRegionCodes(regions);
+	}
+
+	/**
+	 * Get the fallback regions codes
+	 * 
+	 * @return the regions codes (ISO 2), comma separated, empty if only the
+	 *         default country is tried
+	 */
+	public String getFallbackRegions() {
+		return fallbackRegions;
+	}
+
+	/**
+	 * Set the fallback regions codes, tried in turn after the default country
+	 * when the country field is empty
+	 * 
+	 * @param regions
+	 *            the regions codes (ISO 2), comma separated, empty to try only
+	 *            the default country
+	 */
+	public void setFallbackRegions(String regions) {
+		this.fallbackRegions = regions;
+	}
+
+	/**
+	 * Returns the fallback regions codes, upper case, in their initial order.
+	 */
+	public String[] getFallbackRegionCodes() {
+		return toRegionCodes(fallbackRegions);
+	}
+
+	/**
+	 * Returns the file of the do not call list, one phone number in E164
+	 * format per line, or the sorted numbers as big-endian longs in a binary
+	 * file (.bin) that is memory mapped.
+	 */
+	public String getDoNotCallFile() {
+		return doNotCallFile;
+	}
+
+	public void setDoNotCallFile(String file) {
+		this.doNotCallFile = file;
+	}
+
+	private static String[] toRegionCodes(String regions) {
+		if (Utils.isEmpty(regions)) {
+			return new String[0];
+		}
+
+		Set<String> result = new LinkedHashSet<>();
+		for (String region : regions.split("[,;\\s]+")) {
+			if (!region.isEmpty()) {
+				result.add(region.toUpperCase());
+			}
+		}
+		return result.toArray(new String[result.size()]);
+	}
+
+	public boolean isPreloadMetadata() {
+		return preloadMetadata;
+	}
+
+	public void setPreloadMetadata(boolean preload) {
+		this.preloadMetadata = preload;
+	}
+
+	public boolean isCompilePatterns() {
+		return compilePatterns;
+	}
+
+	public void setCompilePatterns(boolean compile) {
+		this.compilePatterns = compile;
+	}
+
+	public boolean isFastMode() {
+		return fastMode;
+	}
+
+	public void setFastMode(boolean fastMode) {
+		this.fastMode = fastMode;
+	}
+
+	public boolean isRejectOtherRegions() {
+		return rejectOtherRegions;
+	}
+
+	public void setRejectOtherRegions(boolean reject) {
+		this.rejectOtherRegions = reject;
+	}
+
+	/**
+	 * Get the language of the geographical descriptions and carrier names
+	 * 
+	 * @return the language code (ISO 639), such as en or fr
+	 */
+	public String getLanguage() {
+		return language;
+	}
+
+	public void setLanguage(String language) {
+		this.language = language;
+	}
+
+	public boolean isPreValidation() {
+		return preValidation;
+	}
+
+	public void setPreValidation(boolean preValidation) {
+		this.preValidation = preValidation;
+	}
+
+	public int getMinDigits() {
+		return minDigits;
+	}
+
+	/**
+	 * Set the minimum number of digits of a phone number
+	 * 
+	 * @param digits
+	 *            the number of digits, 0 for the default
+	 */
+	public void setMinDigits(int digits) {
+		this.minDigits = (digits > 0) ? digits : PhoneNumberPreFilter.DEFAULT_MIN_DIGITS;
+	}
+
+	public int getMaxDigits() {
+		return maxDigits;
+	}
+
+	/**
+	 * Set the maximum number of digits of a phone number, including the
+	 * extension
+	 * 
+	 * @param digits
+	 *            the number of digits, 0 for the default
+	 */
+	public void setMaxDigits(int digits) {
+		this.maxDigits = (digits > 0) ? digits : PhoneNumberPreFilter.DEFAULT_MAX_DIGITS;
+	}
+
+	public int getMaxLetterPercent() {
+		return maxLetterPercent;
+	}
+
+	/**
+	 * Set the maximum percentage of letters among the letters and digits of a
+	 * phone number
+	 * 
+	 * @param percent
+	 *            the percentage, between 0 and 100
+	 */
+	public void setMaxLetterPercent(int percent) {
+		this.maxLetterPercent = Math.min(100, Math.max(0, percent));
+	}
+
+	/**
+	 * Get the leniency of the phone numbers extracted from a text
+	 * 
+	 * @return the name of a {@link Leniency}
+	 */
+	public String getLeniency() {
+		return leniency;
+	}
+
+	public void setLeniency(String leniency) {
+		this.leniency = leniency;
+	}
+
+	/**
+	 * Returns the leniency of the phone numbers extracted from a text, VALID if
+	 * not set.
+	 */
+	public Leniency getLeniencyValue() {
+		if (!Utils.isEmpty(leniency)) {
+			try {
+				return Leniency.valueOf(leniency.trim().toUpperCase());
+			} catch (IllegalArgumentException e) {
+				// Use the default
+			}
+		}
+		return Leniency.VALID;
+	}
+
+	/**
+	 * Get the maximum number of invalid candidates tried in a text before
+	 * giving up, so a pathological text can't stall the step
+	 */
+	public long getMaxTries() {
+		return maxTries;
+	}
+
+	/**
+	 * Set the maximum number of invalid candidates tried in a text
+	 * 
+	 * @param tries
+	 *            the number of tries, 0 for the default
+	 */
+	public void setMaxTries(long tries) {
+		this.maxTries = (tries > 0) ? tries : DEFAULT_MAX_TRIES;
+	}
+
+	public String getExtractDelimiter() {
+		return extractDelimiter;
+	}
+
+	public void setExtractDelimiter(String delimiter) {
+		this.extractDelimiter = delimiter;
+	}
+
+	/**
+	 * Returns the locale of the geographical descriptions and carrier names,
+	 * English if no language is set.
+	 */
+	public Locale getLocale() {
+		if (Utils.isEmpty(language)) {
+			return Locale.ENGLISH;
+		}
+		return new Locale(language.trim());
+	}
 }
\ No newline at end of file
@@ -16,9 +16,18 @@
 
 package org.kettle.trans.steps.standardize;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.util.Utils;
@@ -32,8 +41,12 @@ import org.pentaho.di.trans.step.StepMeta;
 import org.pentaho.di.trans.step.StepMetaInterface;
 
 import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberMatch;
 import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberFormat;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberType;
 import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber.CountryCodeSource;
 
 /**
  * 
@@ -46,8 +59,12 @@ public class StandardizePhoneNumberStep extends BaseStep implements StepInterfac
 
 	private static final Class<?> PKG = StandardizePhoneNumberMeta.class;
 
+	/** The result of a phone number not parsed or rejected */
+	private static final PhoneNumberCache.Result REJECTED = new PhoneNumberCache.Result(null, null);
+
+	private static final PhoneNumberFormat[] FORMATS = PhoneNumberFormat.values();
+
 	private PhoneNumberUtil phoneNumberService;
-	private Set<String> supportedRegions;
 
 	public StandardizePhoneNumberStep(StepMeta stepMeta, StepDataInterface stepDataInterface, int copyNr,
 			TransMeta transMeta, Trans trans) {
@@ -64,7 +81,123 @@ public class StandardizePhoneNumberStep extends BaseStep implements StepInterfac
 			first = true;
 
 			this.phoneNumberService = PhoneNumberUtil.getInstance();
-			this.supportedRegions = phoneNumberService.getSupportedRegions();
+			data.countryResolver = CountryResolver.getInstance();
+
+			if (meta.getCacheSize() > 0) {
+				data.cache = new PhoneNumberCache(meta.getCacheSize());
+			}
+
+			data.scanner = new PhoneNumberScanner(phoneNumberService);
+			data.regionCache = new PhoneNumberRegionCache(phoneNumberService);
+
+			data.leniency = meta.getLeniencyValue();
+			data.maxTries = meta.getMaxTries();
+			data.extractDelimiter = Const.NVL(meta.getExtractDelimiter(), "");
+
+			// Only one rule can extract one row per phone number
+			int rowsRules = 0;
+			for (StandardizePhoneNumber standardize : meta.getStandardizePhoneNumbers()) {
+				if (standardize.getExtractMode() == StandardizePhoneNumber.ExtractMode.ROWS) {
+					rowsRules++;
+				}
+			}
+			if (rowsRules > 1) {
+				logError(BaseMessages.getString(PKG, "StandardizePhoneNumberMeta.CheckResult.ExtractRowsTwice"));
+				return false;
+			}
+
+			if (meta.isPreValidation()) {
+				data.preFilter = new PhoneNumberPreFilter(meta.getMinDigits(), meta.getMaxDigits(),
+						meta.getMaxLetterPercent());
+			}
+
+			// The accepted regions, the default country is always accepted
+			Set<String> regions = new LinkedHashSet<>();
+			regions.add(meta.getDefaultCountry());
+			for (String region : meta.getRegionCodes()) {
+				if (!phoneNumberService.getSupportedRegions().contains(region)) {
+					logError(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.RegionNotSupported", region));
+					return false;
+				}
+				regions.add(region);
+			}
+
+			if (meta.getRegionCodes().length > 0) {
+				data.regions = regions;
+				if (meta.isRejectOtherRegions()) {
+					data.countryCodes = new boolean[1000];
+					for (String region : regions) {
+						data.countryCodes[phoneNumberService.getCountryCodeForRegion(region)] = true;
+					}
+				}
+			}
+
+			// The regions tried after the default country when the country
+			// field is empty
+			Set<String> fallbackRegions = new LinkedHashSet<>();
+			for (String region : meta.getFallbackRegionCodes()) {
+				if (!phoneNumberService.getSupportedRegions().contains(region)) {
+					logError(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.RegionNotSupported", region));
+					return false;
+				}
+				if (!region.equals(meta.getDefaultCountry())) {
+					fallbackRegions.add(region);
+				}
+			}
+			if (!fallbackRegions.isEmpty()) {
+				data.fallbackRegions = new AdaptiveRegionList(fallbackRegions);
+				data.fallbackKey = meta.getDefaultCountry() + ',' + String.join(",", fallbackRegions);
+			}
+
+			Set<String> knownRegions = new LinkedHashSet<>(regions);
+			knownRegions.addAll(fallbackRegions);
+
+			// Compile the number patterns once, shared by the worker threads
+			if (meta.isCompilePatterns()) {
+				long start = System.currentTimeMillis();
+				data.automaton = PhoneNumberAutomaton.compile(phoneNumberService, knownRegions);
+				if (log.isDetailed()) {
+					logDetailed(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.PatternsCompiled",
+							data.automaton.getRegions(), data.automaton.getStates(),
+							System.currentTimeMillis() - start));
+				}
+			}
+
+			// Build the rules of the fast mode from the metadata of the known regions
+			if (meta.isFastMode()) {
+				data.fastParser = new PhoneNumberFastParser(knownRegions);
+				if (log.isDetailed()) {
+					logDetailed(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.FastMode",
+							data.fastParser.size(), knownRegions.size()));
+				}
+			}
+
+			// Load the do not call list once, shared by the worker threads
+			if (!Utils.isEmpty(meta.getDoNotCallFile())) {
+				String file = environmentSubstitute(meta.getDoNotCallFile());
+				long start = System.currentTimeMillis();
+				try {
+					data.doNotCallList = PhoneNumberDoNotCallList.load(Paths.get(file));
+				} catch (IOException | RuntimeException e) {
+					logError(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.DoNotCallFileError", file), e);
+					return false;
+				}
+				logBasic(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.DoNotCallListLoaded",
+						data.doNotCallList.size(), file, System.currentTimeMillis() - start,
+						data.doNotCallList.getInvalid()));
+			}
+
+			// Load the metadata in background, so the first rows don't pay for it
+			if (meta.isPreloadMetadata()) {
+				Set<PhoneNumberFormat> formats = EnumSet.noneOf(PhoneNumberFormat.class);
+				for (StandardizePhoneNumber standardize : meta.getStandardizePhoneNumbers()) {
+					formats.add(standardize.getFormat());
+				}
+
+				Thread thread = new Thread(() -> preload(knownRegions, formats), getStepname() + " metadata preload");
+				thread.setDaemon(true);
+				thread.start();
+			}
 
 			return true;
 		}
@@ -91,6 +224,15 @@ public class StandardizePhoneNumberStep extends BaseStep implements StepInterfac
 		// if no more rows are expected, indicate step is finished and
 		// processRow() should not be called again
 		if (row == null) {
+			if (data.processor != null) {
+				data.processor.submit();
+				if (!data.processor.consume(outputRows -> putRows(data, outputRows), true)) {
+					// a row asked to stop the step
+					setErrors(1);
+					stopAll();
+					return false;
+				}
+			}
 			setOutputDone();
 			return false;
 		}
@@ -111,114 +253,760 @@ public class StandardizePhoneNumberStep extends BaseStep implements StepInterfac
 			// structure
 			meta.getFields(data.outputRowMeta, getStepname(), null, null, this, null, null);
 
+			// resolve the field indexes once, so the row loop is pure array access
+			if (!compile(meta, data)) {
+				this.setErrors(1);
+				return false;
+			}
+			data.inputRowMeta = getInputRowMeta();
+
+			if (meta.getParallelWorkers() > 1) {
+				data.processor = new OrderedRowProcessor<>(getStepname(), meta.getParallelWorkers(),
+						meta.getBatchSize(), meta.getMaxLatency(), () -> {
+							StandardizePhoneNumberData worker = new StandardizePhoneNumberData(data,
+									meta.getCacheSize());
+							data.workers.add(worker);
+							return workerRow -> standardizeRow(meta, worker, workerRow);
+						});
+			}
 		}
 
-		RowMetaInterface inputRowMeta = getInputRowMeta();
+		if (data.processor != null) {
+			return processBatch(data, row);
+		}
+
+		// put the rows to the output row stream
+		putRows(data, standardizeRow(meta, data, row));
+
+		// log progress if it is time to to so
+		if (checkFeedback(getLinesRead())) {
+			logBasic("Line nr " + getLinesRead());
+		}
+
+		// indicate that processRow() should be called again
+		return true;
+	}
+
+	/**
+	 * Standardize the phone numbers of a row.
+	 * 
+	 * <p>
+	 * Called by the step thread, or by a worker thread with its own data.
+	 * </p>
+	 * 
+	 * @return the output rows, one row per phone number found if a rule
+	 *         extracts rows
+	 */
+	protected Object[][] standardizeRow(StandardizePhoneNumberMeta meta, StandardizePhoneNumberData data,
+			Object[] row) throws KettleException {
+
+		RowMetaInterface inputRowMeta = data.inputRowMeta;
 
 		// copies row into outputRowValues and pads extra null-default slots for
 		// the output values
 		Object[] outputRow = Arrays.copyOf(row, data.outputRowMeta.size());
 
-		for (StandardizePhoneNumber standardize : meta.getStandardizePhoneNumbers()) {
+		// The rule extracting rows is applied last, on the completed row
+		int rowsRule = -1;
+		String rowsValue = null;
+		String rowsRegion = null;
+
+		for (int rule = 0; rule < data.standardizes.length; rule++) {
 
 			// Default region
 			String defaultRegion = meta.getDefaultCountry();
-			if (!Utils.isEmpty(standardize.getCountryField())) {
+			boolean rejected = false;
+			boolean fallback = data.fallbackRegions != null;
+			if (data.countryIndexes[rule] >= 0) {
+				String country = inputRowMeta.getString(row, data.countryIndexes[rule]);
+				if (!Utils.isEmpty(country)) {
+					fallback = false;
+					String region = data.countryResolver.resolve(country);
+					if (region == null) {
+						data.unresolvedCountries++;
+						if (log.isRowLevel()) {
+							logRowlevel(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.RegionNotSupported",
+									country));
+						}
+					} else if (data.regions != null && !data.regions.contains(region)) {
+						// reject or fall back to the default country
+						data.otherRegions++;
+						rejected = (data.countryCodes != null);
+						if (log.isRowLevel()) {
+							logRowlevel(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.RegionNotAccepted",
+									region));
+						}
+					} else {
+						defaultRegion = region;
+					}
+				}
+			}
 
-				int index = inputRowMeta.indexOfValue(standardize.getCountryField());
+			// Parse phone number
+			String value = inputRowMeta.getString(row, data.inputIndexes[rule]);
 
-				// if country field not found
-				if (index < 0) {
-					logError(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.CountryFieldNotFound",
-							standardize.getCountryField()));
-					this.setErrors(1);
-					return false;
+			switch (data.standardizes[rule].getExtractMode()) {
+			case ROWS:
+				rowsRule = rule;
+				rowsValue = value;
+				rowsRegion = rejected ? null : defaultRegion;
+				continue;
+			case LIST:
+				extractList(data, rule, value, rejected ? null : defaultRegion, outputRow);
+				continue;
+			default:
+				break;
+			}
+
+			if (value != null && !Utils.isEmpty(value)) {
+				PhoneNumberFormat format = data.standardizes[rule].getFormat();
+
+				PhoneNumberCache.Result result = null;
+				if (rejected) {
+					result = REJECTED;
+				} else if (data.preFilter != null && !data.preFilter.accept(value)) {
+					// Don't pay for a parse exception, nor pollute the cache
+					data.preFiltered++;
+					result = REJECTED;
+				} else if (data.cache != null) {
+					result = data.cache.get(value, fallback ? data.fallbackKey : defaultRegion, format);
+				}
+				if (result == null) {
+					result = fallback ? standardizeWithFallback(data, value, defaultRegion, format)
+							: standardize(data, value, defaultRegion, format);
+					if (data.cache != null) {
+						data.cache.put(value, fallback ? data.fallbackKey : defaultRegion, format, result);
+					}
 				}
 
-				String country = inputRowMeta.getString(row, index);
-				if (country == null || Utils.isEmpty(country)) {
-					defaultRegion = meta.getDefaultCountry();					
-				} else if (supportedRegions.contains(country.toUpperCase())) {
-					defaultRegion = country.toUpperCase();
-				} else {
-					logError(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.RegionNotSupported", country));
-					defaultRegion = meta.getDefaultCountry();
+				if (!result.isParsed() && log.isRowLevel()) {
+					logRowlevel(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.ProcessPhoneNumberError",
+							data.standardizes[rule].getInputField(), value));
 				}
 
+				fill(data, rule, result, outputRow);
+			} else {
+				if (data.validIndexes[rule] >= 0) {
+					outputRow[data.validIndexes[rule]] = false;
+				}
 			}
+		}
 
-			// Parse phone number
-			String value = null;
-			int index = inputRowMeta.indexOfValue(standardize.getInputField());
+		if (rowsRule >= 0) {
+			return extractRows(data, rowsRule, rowsValue, rowsRegion, outputRow);
+		}
 
-			// if input field not found
-			if (index < 0) {
-				this.logError(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.InputFieldNotFound",
-						standardize.getInputField()));
-				this.setErrors(1);
-				return false;
+		return new Object[][] { outputRow };
+	}
+
+	/**
+	 * Fill the output fields of a rule from the result of a phone number.
+	 */
+	protected void fill(StandardizePhoneNumberData data, int rule, PhoneNumberCache.Result result,
+			Object[] outputRow) {
+
+		if (result.isParsed()) {
+			outputRow[data.outputIndexes[rule]] = result.getFormatted();
+		}
+
+		// The type is resolved only by the highest validation level, and gives
+		// the validity for free
+		StandardizePhoneNumber.ValidationLevel level = data.standardizes[rule].getValidationLevel();
+		if (level == StandardizePhoneNumber.ValidationLevel.VALID
+				|| level == StandardizePhoneNumber.ValidationLevel.VALID_AND_TYPE) {
+			resolveType(data, result);
+		}
+		if (data.typeIndexes[rule] >= 0) {
+			if (!result.isParsed()) {
+				outputRow[data.typeIndexes[rule]] = "ERROR";
+			} else if (level == StandardizePhoneNumber.ValidationLevel.VALID_AND_TYPE) {
+				outputRow[data.typeIndexes[rule]] = result.getType(phoneNumberService).name();
 			}
-			value = inputRowMeta.getString(row, index);
+		}
 
-			if (value != null && !Utils.isEmpty(value)) {
-				PhoneNumber phoneNumber = null;
-				try {
-					// Replace unsupported character wit blank
-					value = value.replace(',', ' ');
+		if (data.validIndexes[rule] >= 0) {
+			outputRow[data.validIndexes[rule]] = result.isValid(phoneNumberService, level);
+		}
 
-					// Parse phone number
-					phoneNumber = phoneNumberService.parse(value, defaultRegion);
-					if (!Utils.isEmpty(standardize.getOutputField())) {
-						index = data.outputRowMeta.indexOfValue(standardize.getOutputField());
-					}
-					outputRow[index] = phoneNumberService.format(phoneNumber, standardize.getFormat());
-				} catch (NumberParseException e) {
-					if (log.isRowLevel()) {
-						logRowlevel(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.ProcessPhoneNumberError",
-								standardize.getInputField(), value));
-					}
-				}
+		if (data.reasonIndexes[rule] >= 0) {
+			outputRow[data.reasonIndexes[rule]] = result.getReason(phoneNumberService, level);
+		}
 
-				if (!Utils.isEmpty(standardize.getPhoneNumberTypeField())) {
-					int i = data.outputRowMeta.indexOfValue(standardize.getPhoneNumberTypeField());
-					if (phoneNumber != null)
-						outputRow[i] = phoneNumberService.getNumberType(phoneNumber);
-					else
-						outputRow[i] = "ERROR";
+		if (result.isParsed()) {
+			// Each format from the same parse
+			int[] formatIndexes = data.formatIndexes[rule];
+			for (PhoneNumberFormat format : FORMATS) {
+				if (formatIndexes[format.ordinal()] >= 0) {
+					outputRow[formatIndexes[format.ordinal()]] = result.getFormatted(phoneNumberService, format);
 				}
+			}
+
+			// The custom format, or the format of the rule if no template fits
+			// the length of the number
+			if (data.templateIndexes[rule] >= 0) {
+				PhoneNumber phoneNumber = result.getPhoneNumber();
+				String formatted = data.templates[rule].format(phoneNumber.getCountryCode(),
+						phoneNumberService.getNationalSignificantNumber(phoneNumber));
+				outputRow[data.templateIndexes[rule]] = (formatted != null) ? formatted : result.getFormatted();
+			}
+
+			if (data.doNotCallIndexes[rule] >= 0) {
+				Long e164Number = toE164Number(result.getPhoneNumber());
+				outputRow[data.doNotCallIndexes[rule]] = e164Number != null
+						&& data.doNotCallList.contains(e164Number.longValue());
+			}
 
-				if (!Utils.isEmpty(standardize.getIsValidPhoneNumberField())) {
-					int i = data.outputRowMeta.indexOfValue(standardize.getIsValidPhoneNumberField());
-					if (phoneNumber != null)
-						outputRow[i] = phoneNumberService.isValidNumber(phoneNumber);
-					else
-						outputRow[i] = false;
+			decompose(data, rule, result, outputRow);
+		}
+	}
+
+	/**
+	 * Resolve the type and validity of a parsed phone number with the compiled
+	 * number patterns, unless its country calling code is left to
+	 * libphonenumber.
+	 */
+	protected void resolveType(StandardizePhoneNumberData data, PhoneNumberCache.Result result) {
+		if (data.automaton != null && result.isParsed() && result.type == null) {
+			result.type = data.automaton.getNumberType(result.getPhoneNumber());
+			if (result.type != null) {
+				result.valid = result.type != PhoneNumberType.UNKNOWN;
+			}
+		}
+	}
+
+	/**
+	 * Find the phone numbers in a text.
+	 * 
+	 * <p>
+	 * The search gives up after the maximum number of invalid candidates, so
+	 * a pathological text can't stall the step. The phone numbers of the
+	 * regions not accepted are ignored.
+	 * </p>
+	 * 
+	 * @param region
+	 *            the region of the phone numbers not in international form, or
+	 *            null if the row is rejected
+	 * @return the results, parsed and formatted, empty if none
+	 */
+	protected List<PhoneNumberCache.Result> extract(StandardizePhoneNumberData data, int rule, String text,
+			String region) {
+
+		if (region == null || Utils.isEmpty(text)) {
+			return Collections.emptyList();
+		}
+
+		PhoneNumberFormat format = data.standardizes[rule].getFormat();
+		List<PhoneNumberCache.Result> results = new ArrayList<>();
+		for (PhoneNumberMatch match : phoneNumberService.findNumbers(text, region, data.leniency, data.maxTries)) {
+			PhoneNumber phoneNumber = match.number();
+			if (data.countryCodes != null && !data.countryCodes[phoneNumber.getCountryCode()]) {
+				continue;
+			}
+			results.add(
+					new PhoneNumberCache.Result(phoneNumber, phoneNumberService.format(phoneNumber, format), format));
+		}
+		return results;
+	}
+
+	/**
+	 * Put the phone numbers found in a text in the output field, delimited.
+	 * The valid field tells whether a phone number is found.
+	 */
+	protected void extractList(StandardizePhoneNumberData data, int rule, String text, String region,
+			Object[] outputRow) {
+
+		List<PhoneNumberCache.Result> results = extract(data, rule, text, region);
+
+		if (!results.isEmpty()) {
+			StringBuilder list = new StringBuilder();
+			for (PhoneNumberCache.Result result : results) {
+				if (list.length() > 0) {
+					list.append(data.extractDelimiter);
 				}
-			} else {
-				if (!Utils.isEmpty(standardize.getIsValidPhoneNumberField())) {
-					int i = data.outputRowMeta.indexOfValue(standardize.getIsValidPhoneNumberField());
-					outputRow[i] = false;
+				list.append(result.getFormatted());
+			}
+			outputRow[data.outputIndexes[rule]] = list.toString();
+		}
+
+		if (data.validIndexes[rule] >= 0) {
+			outputRow[data.validIndexes[rule]] = !results.isEmpty();
+		}
+	}
+
+	/**
+	 * Returns one output row per phone number found in a text, or the row
+	 * itself if none is found so that no input row is lost.
+	 */
+	protected Object[][] extractRows(StandardizePhoneNumberData data, int rule, String text, String region,
+			Object[] outputRow) {
+
+		List<PhoneNumberCache.Result> results = extract(data, rule, text, region);
+
+		if (results.isEmpty()) {
+			if (data.validIndexes[rule] >= 0) {
+				outputRow[data.validIndexes[rule]] = false;
+			}
+			return new Object[][] { outputRow };
+		}
+
+		Object[][] outputRows = new Object[results.size()][];
+		for (int i = 0; i < outputRows.length; i++) {
+			outputRows[i] = (i == outputRows.length - 1) ? outputRow : Arrays.copyOf(outputRow, outputRow.length);
+			fill(data, rule, results.get(i), outputRows[i]);
+		}
+		return outputRows;
+	}
+
+	/**
+	 * Fill the decomposed phone number fields of a rule from the parsed phone
+	 * number.
+	 */
+	protected void decompose(StandardizePhoneNumberData data, int rule, PhoneNumberCache.Result result,
+			Object[] outputRow) {
+
+		PhoneNumber phoneNumber = result.getPhoneNumber();
+
+		if (data.countryCodeIndexes[rule] >= 0) {
+			outputRow[data.countryCodeIndexes[rule]] = Long.valueOf(phoneNumber.getCountryCode());
+		}
+
+		if (data.nationalNumberIndexes[rule] >= 0) {
+			outputRow[data.nationalNumberIndexes[rule]] = Long.valueOf(phoneNumber.getNationalNumber());
+		}
+
+		if (data.e164NumberIndexes[rule] >= 0) {
+			outputRow[data.e164NumberIndexes[rule]] = toE164Number(phoneNumber);
+		}
+
+		if (data.extensionIndexes[rule] >= 0 && phoneNumber.hasExtension()) {
+			outputRow[data.extensionIndexes[rule]] = phoneNumber.getExtension();
+		}
+
+		if (data.regionIndexes[rule] >= 0) {
+			if (result.region == null) {
+				String region = data.regionCache.getRegionCode(phoneNumber);
+				result.region = (region == null) ? PhoneNumberCache.Result.UNKNOWN_REGION : region;
+			}
+			if (result.region != PhoneNumberCache.Result.UNKNOWN_REGION) {
+				outputRow[data.regionIndexes[rule]] = result.region;
+			}
+		}
+
+		if (data.enricher != null) {
+			enrich(data, rule, result, outputRow);
+		}
+
+		// The cluster id is assigned later by the step thread, in the order of
+		// the rows. The phone number reused by each row must be copied.
+		if (data.clusterIndexes[rule] >= 0) {
+			outputRow[data.clusterIndexes[rule]] = (data.cache == null) ? new PhoneNumber().mergeFrom(phoneNumber)
+					: phoneNumber;
+		}
+	}
+
+	/**
+	 * Fill the geographical description, carrier name and time zones fields of
+	 * a rule, the lookups are memoized in the cached result.
+	 */
+	protected void enrich(StandardizePhoneNumberData data, int rule, PhoneNumberCache.Result result,
+			Object[] outputRow) {
+
+		PhoneNumber phoneNumber = result.getPhoneNumber();
+		// The type selects the lookups, computed once for all the outputs
+		PhoneNumberType type = result.getType(phoneNumberService);
+
+		if (data.descriptionIndexes[rule] >= 0) {
+			if (result.description == null) {
+				String description = data.enricher.getDescription(phoneNumber, type, data.locale);
+				result.description = (description == null) ? PhoneNumberCache.Result.UNKNOWN : description;
+			}
+			if (result.description != PhoneNumberCache.Result.UNKNOWN) {
+				outputRow[data.descriptionIndexes[rule]] = result.description;
+			}
+		}
+
+		if (data.carrierIndexes[rule] >= 0) {
+			if (result.carrier == null) {
+				String carrier = data.enricher.getCarrier(phoneNumber, type, data.locale);
+				result.carrier = (carrier == null) ? PhoneNumberCache.Result.UNKNOWN : carrier;
+			}
+			if (result.carrier != PhoneNumberCache.Result.UNKNOWN) {
+				outputRow[data.carrierIndexes[rule]] = result.carrier;
+			}
+		}
+
+		if (data.timeZonesIndexes[rule] >= 0) {
+			if (result.timeZones == null) {
+				String timeZones = data.enricher.getTimeZones(phoneNumber, type);
+				result.timeZones = (timeZones == null) ? PhoneNumberCache.Result.UNKNOWN : timeZones;
+			}
+			if (result.timeZones != PhoneNumberCache.Result.UNKNOWN) {
+				outputRow[data.timeZonesIndexes[rule]] = result.timeZones;
+			}
+		}
+	}
+
+	/**
+	 * Put the output rows of an input row, in order, to the output row stream.
+	 */
+	protected void putRows(StandardizePhoneNumberData data, Object[][] outputRows) throws KettleException {
+		for (Object[] outputRow : outputRows) {
+			putRow(data.outputRowMeta, assignClusters(data, outputRow));
+
+			if (log.isRowLevel()) {
+				logRowlevel(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.WroteRowToNextStep", outputRow));
+			}
+		}
+	}
+
+	/**
+	 * Replace the parsed phone numbers of the cluster fields by their cluster
+	 * id.
+	 * 
+	 * <p>
+	 * Called by the step thread only, in the order of the rows.
+	 * </p>
+	 * 
+	 * @return the output row
+	 */
+	protected Object[] assignClusters(StandardizePhoneNumberData data, Object[] outputRow) {
+		for (int rule = 0; rule < data.clusters.length; rule++) {
+			if (data.clusters[rule] != null) {
+				Object value = outputRow[data.clusterIndexes[rule]];
+				if (value instanceof PhoneNumber) {
+					long cluster = data.clusters[rule].cluster((PhoneNumber) value);
+					outputRow[data.clusterIndexes[rule]] = Long.valueOf(cluster);
 				}
 			}
 		}
+		return outputRow;
+	}
 
-		// put the row to the output row stream
-		putRow(data.outputRowMeta, outputRow);
+	/**
+	 * Returns the digits of the phone number in E164 format as an integer,
+	 * like 33612345678 for +33612345678, or null if it has more than 18 digits.
+	 */
+	protected static Long toE164Number(PhoneNumber phoneNumber) {
+		long nationalNumber = phoneNumber.getNationalNumber();
 
-		if (log.isRowLevel()) {
-			logRowlevel(
-					BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.WroteRowToNextStep", outputRow));
+		// Italian leading zeros are part of the national significant number
+		int nsnDigits = phoneNumber.isItalianLeadingZero() ? phoneNumber.getNumberOfLeadingZeros() : 0;
+		for (long value = nationalNumber; value > 0; value /= 10) {
+			nsnDigits++;
+		}
+		int ccDigits = 0;
+		for (int value = phoneNumber.getCountryCode(); value > 0; value /= 10) {
+			ccDigits++;
+		}
+		if (ccDigits + nsnDigits > 18) {
+			return null;
+		}
+
+		long scale = 1;
+		for (int i = 0; i < nsnDigits; i++) {
+			scale *= 10;
+		}
+		return phoneNumber.getCountryCode() * scale + nationalNumber;
+	}
+
+	/**
+	 * Add a row to the current batch of the worker pool, and put the rows of
+	 * the completed batches in the original order.
+	 */
+	protected boolean processBatch(StandardizePhoneNumberData data, Object[] row) throws KettleException {
+
+		data.processor.add(row);
+
+		// don't keep rows waiting while the input is idle
+		boolean idle = OrderedRowProcessor.isIdle(getInputRowSets());
+		if (idle) {
+			data.processor.submit();
+		}
+
+		if (!data.processor.consume(outputRows -> putRows(data, outputRows), idle)) {
+			// a row asked to stop the step
+			setErrors(1);
+			stopAll();
+			return false;
 		}
 
-		// log progress if it is time to to so
 		if (checkFeedback(getLinesRead())) {
 			logBasic("Line nr " + getLinesRead());
 		}
 
-		// indicate that processRow() should be called again
 		return true;
 	}
 
+	/**
+	 * Parse and format a phone number.
+	 * 
+	 * <p>
+	 * Phone numbers already in international form are recognized by a single
+	 * pass scan, without calling the libphonenumber parser. In fast mode, clean
+	 * phone numbers in national form are recognized by the rules of the region
+	 * the same way. The per-step phone number instance is reused when the
+	 * result is not cached.
+	 * </p>
+	 * 
+	 * @return the result, not parsed if the value is not a phone number
+	 */
+	protected PhoneNumberCache.Result standardize(StandardizePhoneNumberData data, String value, String region,
+			PhoneNumberFormat format) {
+
+		PhoneNumber phoneNumber = (data.cache == null) ? data.phoneNumber : new PhoneNumber();
+
+		boolean scanned = data.scanner.scan(value, phoneNumber);
+		boolean fast = !scanned && data.fastParser != null && data.fastParser.parse(value, region, phoneNumber);
+		if (!scanned && !fast) {
+			try {
+				// Replace unsupported character wit blank
+				phoneNumber.clear();
+				phoneNumberService.parse(value.replace(',', ' '), region, phoneNumber);
+			} catch (NumberParseException e) {
+				return REJECTED;
+			}
+		}
+
+		// Don't load the metadata of the regions not accepted
+		if (data.countryCodes != null && !data.countryCodes[phoneNumber.getCountryCode()]) {
+			return REJECTED;
+		}
+
+		String formatted;
+		if (scanned && format == PhoneNumberFormat.E164) {
+			formatted = data.scanner.isCanonical() ? value : data.scanner.toE164();
+		} else if (fast && format == PhoneNumberFormat.E164) {
+			formatted = data.fastParser.toE164();
+		} else {
+			formatted = phoneNumberService.format(phoneNumber, format);
+		}
+		return new PhoneNumberCache.Result(phoneNumber, formatted, format);
+	}
+
+	/**
+	 * Parse and format a phone number with the default region, then with the
+	 * fallback regions in their adaptive order until one of them gives a valid
+	 * phone number.
+	 * 
+	 * <p>
+	 * The fallback regions are only tried if the phone number can't be parsed
+	 * with the default region, or if its country code comes from the default
+	 * region. A phone number with its own country code, like +41 or 0041, is
+	 * not standardized differently by another region.
+	 * </p>
+	 * 
+	 * @return the first valid result, or the result of the default region if
+	 *         none is valid
+	 */
+	protected PhoneNumberCache.Result standardizeWithFallback(StandardizePhoneNumberData data, String value,
+			String region, PhoneNumberFormat format) {
+
+		PhoneNumberCache.Result result = standardize(data, value, region, format);
+		resolveType(data, result);
+		if (result.isParsed() && (result.isValid(phoneNumberService) || !isFromDefaultCountry(value, region))) {
+			return result;
+		}
+
+		// The per-step phone number instance is reused by the next attempts
+		if (result.isParsed() && data.cache == null) {
+			result = new PhoneNumberCache.Result(new PhoneNumber().mergeFrom(result.getPhoneNumber()),
+					result.getFormatted(), format);
+		}
+
+		AdaptiveRegionList fallbackRegions = data.fallbackRegions;
+		for (int index = 0; index < fallbackRegions.size(); index++) {
+			PhoneNumberCache.Result attempt = standardize(data, value, fallbackRegions.get(index), format);
+			resolveType(data, attempt);
+			if (attempt.isParsed() && attempt.isValid(phoneNumberService)) {
+				fallbackRegions.success(index);
+				data.fallbackResolved++;
+				return attempt;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns true if the country code of a phone number comes from the
+	 * default region, and not from the number itself.
+	 * 
+	 * <p>
+	 * The source of the country code is only kept by parseAndKeepRawInput, so
+	 * the value is parsed again. Called for the invalid phone numbers only.
+	 * </p>
+	 */
+	protected boolean isFromDefaultCountry(String value, String region) {
+		try {
+			PhoneNumber phoneNumber = phoneNumberService.parseAndKeepRawInput(value.replace(',', ' '), region);
+			return phoneNumber.getCountryCodeSource() == CountryCodeSource.FROM_DEFAULT_COUNTRY;
+		} catch (NumberParseException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Load the metadata of the regions and compile their patterns, by
+	 * formatting and validating the example number of each region.
+	 */
+	protected void preload(Collection<String> regions, Collection<PhoneNumberFormat> formats) {
+		long start = System.currentTimeMillis();
+
+		for (String region : regions) {
+			if (isStopped()) {
+				return;
+			}
+
+			PhoneNumber example = phoneNumberService.getExampleNumber(region);
+			if (example == null) {
+				continue;
+			}
+
+			try {
+				for (PhoneNumberFormat format : formats) {
+					phoneNumberService.format(example, format);
+				}
+				phoneNumberService.getNumberType(example);
+				phoneNumberService.isValidNumber(example);
+				phoneNumberService.parse(phoneNumberService.format(example, PhoneNumberFormat.NATIONAL), region);
+			} catch (NumberParseException e) {
+				// Only the metadata matters
+			}
+		}
+
+		if (log.isDetailed()) {
+			logDetailed(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.MetadataPreloaded", regions.size(),
+					System.currentTimeMillis() - start));
+		}
+	}
+
+	/**
+	 * Resolve the field indexes of each rule against the input and output row
+	 * structures.
+	 * 
+	 * @return false if a configured field is missing
+	 */
+	protected boolean compile(StandardizePhoneNumberMeta meta, StandardizePhoneNumberData data) {
+
+		RowMetaInterface inputRowMeta = getInputRowMeta();
+		List<StandardizePhoneNumber> standardizes = meta.getStandardizePhoneNumbers();
+		int count = standardizes.size();
+
+		data.standardizes = standardizes.toArray(new StandardizePhoneNumber[count]);
+		data.inputIndexes = new int[count];
+		data.outputIndexes = new int[count];
+		data.countryIndexes = new int[count];
+		data.typeIndexes = new int[count];
+		data.validIndexes = new int[count];
+		data.reasonIndexes = new int[count];
+		data.doNotCallIndexes = new int[count];
+		data.templateIndexes = new int[count];
+		data.templates = new PhoneNumberTemplate[count];
+		data.countryCodeIndexes = new int[count];
+		data.nationalNumberIndexes = new int[count];
+		data.e164NumberIndexes = new int[count];
+		data.extensionIndexes = new int[count];
+		data.regionIndexes = new int[count];
+		data.clusterIndexes = new int[count];
+		data.clusters = new PhoneNumberClusterIndex[count];
+		data.formatIndexes = new int[count][FORMATS.length];
+		data.descriptionIndexes = new int[count];
+		data.carrierIndexes = new int[count];
+		data.timeZonesIndexes = new int[count];
+		data.enricher = null;
+		data.locale = meta.getLocale();
+
+		for (int rule = 0; rule < count; rule++) {
+			StandardizePhoneNumber standardize = data.standardizes[rule];
+
+			// if input field not found
+			int index = inputRowMeta.indexOfValue(standardize.getInputField());
+			if (index < 0) {
+				this.logError(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.InputFieldNotFound",
+						standardize.getInputField()));
+				return false;
+			}
+			data.inputIndexes[rule] = index;
+
+			// update the input field if no output field
+			if (!Utils.isEmpty(standardize.getOutputField())) {
+				index = data.outputRowMeta.indexOfValue(standardize.getOutputField());
+			}
+			data.outputIndexes[rule] = index;
+
+			// if country field not found
+			data.countryIndexes[rule] = -1;
+			if (!Utils.isEmpty(standardize.getCountryField())) {
+				index = inputRowMeta.indexOfValue(standardize.getCountryField());
+				if (index < 0) {
+					logError(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.CountryFieldNotFound",
+							standardize.getCountryField()));
+					return false;
+				}
+				data.countryIndexes[rule] = index;
+			}
+
+			data.typeIndexes[rule] = -1;
+			if (!Utils.isEmpty(standardize.getPhoneNumberTypeField())) {
+				data.typeIndexes[rule] = data.outputRowMeta.indexOfValue(standardize.getPhoneNumberTypeField());
+			}
+
+			data.validIndexes[rule] = -1;
+			if (!Utils.isEmpty(standardize.getIsValidPhoneNumberField())) {
+				data.validIndexes[rule] = data.outputRowMeta.indexOfValue(standardize.getIsValidPhoneNumberField());
+			}
+
+			data.reasonIndexes[rule] = indexOfOutput(data, standardize.getReasonField());
+			data.countryCodeIndexes[rule] = indexOfOutput(data, standardize.getCountryCodeField());
+			data.nationalNumberIndexes[rule] = indexOfOutput(data, standardize.getNationalNumberField());
+			data.e164NumberIndexes[rule] = indexOfOutput(data, standardize.getE164NumberField());
+			data.extensionIndexes[rule] = indexOfOutput(data, standardize.getExtensionField());
+			data.regionIndexes[rule] = indexOfOutput(data, standardize.getRegionField());
+			data.clusterIndexes[rule] = indexOfOutput(data, standardize.getClusterField());
+			if (data.clusterIndexes[rule] >= 0) {
+				data.clusters[rule] = new PhoneNumberClusterIndex(phoneNumberService);
+			}
+
+			for (PhoneNumberFormat format : FORMATS) {
+				data.formatIndexes[rule][format.ordinal()] = indexOfOutput(data, standardize.getFormatField(format));
+			}
+
+			data.doNotCallIndexes[rule] = -1;
+			if (data.doNotCallList != null) {
+				data.doNotCallIndexes[rule] = indexOfOutput(data, standardize.getDoNotCallField());
+			}
+
+			data.templateIndexes[rule] = indexOfOutput(data, standardize.getTemplateField());
+			if (data.templateIndexes[rule] >= 0) {
+				try {
+					data.templates[rule] = PhoneNumberTemplate.compile(standardize.getTemplate());
+				} catch (IllegalArgumentException e) {
+					logError(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.InvalidTemplate",
+							standardize.getTemplateField(), e.getMessage()));
+					return false;
+				}
+			}
+
+			data.descriptionIndexes[rule] = indexOfOutput(data, standardize.getDescriptionField());
+			data.carrierIndexes[rule] = indexOfOutput(data, standardize.getCarrierField());
+			data.timeZonesIndexes[rule] = indexOfOutput(data, standardize.getTimeZonesField());
+			if (data.descriptionIndexes[rule] >= 0 || data.carrierIndexes[rule] >= 0
+					|| data.timeZonesIndexes[rule] >= 0) {
+				data.enricher = PhoneNumberEnricher.getInstance();
+			}
+		}
+
+		return true;
+	}
+
+	private static int indexOfOutput(StandardizePhoneNumberData data, String field) {
+		if (Utils.isEmpty(field)) {
+			return -1;
+		}
+		return data.outputRowMeta.indexOfValue(field);
+	}
+
 	/**
 	 * This method is called by PDI once the step is done processing.
 	 *
@@ -233,7 +1021,80 @@ public class StandardizePhoneNumberStep extends BaseStep implements StepInterfac
 		StandardizePhoneNumberMeta meta = (StandardizePhoneNumberMeta) smi;
 		StandardizePhoneNumberData data = (StandardizePhoneNumberData) sdi;
 
+		if (data.processor != null) {
+			data.processor.shutdown();
+			data.processor = null;
+		}
+
+		// merge the statistics of the workers
+		long hits = 0;
+		long misses = 0;
+		int size = 0;
+		for (StandardizePhoneNumberData worker : data.workers) {
+			data.unresolvedCountries += worker.unresolvedCountries;
+			data.otherRegions += worker.otherRegions;
+			data.preFiltered += worker.preFiltered;
+			data.fallbackResolved += worker.fallbackResolved;
+			if (worker.fallbackRegions != null) {
+				data.fallbackRegions.addSuccesses(worker.fallbackRegions);
+			}
+			if (worker.cache != null) {
+				hits += worker.cache.getHits();
+				misses += worker.cache.getMisses();
+				size += worker.cache.size();
+				worker.cache.clear();
+			}
+		}
+		data.workers.clear();
+
+		if (data.cache != null) {
+			hits += data.cache.getHits();
+			misses += data.cache.getMisses();
+			size += data.cache.size();
+			logBasic(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.CacheStatistics", hits, misses,
+					size));
+			data.cache.clear();
+			data.cache = null;
+		}
+
+		if (data.clusters != null) {
+			for (int rule = 0; rule < data.clusters.length; rule++) {
+				PhoneNumberClusterIndex index = data.clusters[rule];
+				if (index != null) {
+					logBasic(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.ClusterStatistics",
+							data.standardizes[rule].getInputField(), index.size(), index.getClusters(),
+							index.getComparisons()));
+					index.clear();
+				}
+			}
+			data.clusters = null;
+		}
+
+		if (data.preFiltered > 0) {
+			logBasic(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.PreFiltered", data.preFiltered));
+		}
+
+		if (data.fallbackRegions != null) {
+			logBasic(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.FallbackRegions",
+					data.fallbackResolved, data.fallbackRegions));
+		}
+
+		if (data.otherRegions > 0) {
+			logBasic(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.OtherRegions", data.otherRegions));
+		}
+
+		if (data.unresolvedCountries > 0) {
+			logBasic(BaseMessages.getString(PKG, "StandardizePhoneNumberStep.Log.UnresolvedCountries",
+					data.unresolvedCountries));
+		}
+
 		data.outputRowMeta = null;
+		data.standardizes = null;
+		data.scanner = null;
+		data.fastParser = null;
+		data.regionCache = null;
+		data.doNotCallList = null;
+		data.inputRowMeta = null;
 
 		super.dispose(meta, data);
 	}
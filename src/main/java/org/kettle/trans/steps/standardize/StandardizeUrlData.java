@@ -44,11 +44,38 @@ import org.pentaho.di.trans.step.StepDataInterface;
 public class StandardizeUrlData extends BaseStepData implements StepDataInterface {
 
 
+  protected RowMetaInterface inputRowMeta;
 
   protected RowMetaInterface outputRowMeta;
 
+  /** The rules to apply, in order */
+  protected StandardizeUrl[] standardizes;
+
+  /** Index of the input field of each rule in the input row */
+  protected int[] inputIndexes;
+
+  /** Index of the output field of each rule in the output row */
+  protected int[] outputIndexes;
+
+  /** The pool of worker threads, or null if rows are processed by the step thread */
+  protected OrderedRowProcessor<Object[]> processor;
+
   public StandardizeUrlData() {
     super();
   }
 
+  /**
+   * Create the data of a worker thread, sharing the resolved rules of the step
+   * but with its own row structure.
+   */
+  protected StandardizeUrlData(StandardizeUrlData parent) {
+    super();
+
+    this.inputRowMeta = parent.inputRowMeta.clone();
+    this.outputRowMeta = parent.outputRowMeta;
+    this.standardizes = parent.standardizes;
+    this.inputIndexes = parent.inputIndexes;
+    this.outputIndexes = parent.outputIndexes;
+  }
+
 }
\ No newline at end of file
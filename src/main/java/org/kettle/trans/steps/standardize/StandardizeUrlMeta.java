@@ -22,6 +22,7 @@ import java.util.List;
 import org.kettle.ui.trans.steps.standardize.StandardizeUrlDialog;
 import org.pentaho.di.core.CheckResult;
 import org.pentaho.di.core.CheckResultInterface;
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.annotations.Step;
 import org.pentaho.di.core.database.DatabaseMeta;
 import org.pentaho.di.core.exception.KettleException;
@@ -88,6 +89,21 @@ public class StandardizeUrlMeta extends BaseStepMeta implements StepMetaInterfac
 	private static final String TAG_REMOVE_TRAILING_SLASH = "remove_trailing_slash"; //$NON-NLS-1$
 	private static final String TAG_REMOVE_FRAGMENT = "remove_fragment"; //$NON-NLS-1$
 	private static final String TAG_REMOVE_SESSION_ID = "remove_session_id"; //$NON-NLS-1$
+	private static final String TAG_PARALLEL_WORKERS = "parallel_workers"; //$NON-NLS-1$
+	private static final String TAG_BATCH_SIZE = "batch_size"; //$NON-NLS-1$
+	private static final String TAG_MAX_LATENCY = "max_latency"; //$NON-NLS-1$
+
+	/** The number of worker threads, 1 to process rows in the step thread */
+	@Injection(name = "PARALLEL_WORKERS")
+	private int parallelWorkers;
+
+	/** The maximum number of rows of a batch processed by a worker */
+	@Injection(name = "BATCH_SIZE")
+	private int batchSize;
+
+	/** The maximum time in milliseconds a row waits for its batch to be processed */
+	@Injection(name = "MAX_LATENCY")
+	private long maxLatency;
 
 	/** The urls to standardize */
 	@InjectionDeep
@@ -159,6 +175,9 @@ public class StandardizeUrlMeta extends BaseStepMeta implements StepMetaInterfac
 	@Override
 	public void setDefault() {
 		this.removeDefaultPort = true;
+		this.parallelWorkers = 1;
+		this.batchSize = OrderedRowProcessor.DEFAULT_BATCH_SIZE;
+		this.maxLatency = OrderedRowProcessor.DEFAULT_MAX_LATENCY;
 	}
 
 	@Override
@@ -189,6 +208,9 @@ public class StandardizeUrlMeta extends BaseStepMeta implements StepMetaInterfac
 		xml.append(XMLHandler.addTagValue(TAG_REMOVE_SESSION_ID, this.isRemoveSessionId()));
 		xml.append(XMLHandler.addTagValue(TAG_REMOVE_DIRECTORY_INDEX, this.isRemoveDirectoryIndex()));
 		xml.append(XMLHandler.addTagValue(TAG_REMOVE_TRAILING_SLASH, this.isRemoveTrailingSlash()));
+		xml.append(XMLHandler.addTagValue(TAG_PARALLEL_WORKERS, this.parallelWorkers));
+		xml.append(XMLHandler.addTagValue(TAG_BATCH_SIZE, this.batchSize));
+		xml.append(XMLHandler.addTagValue(TAG_MAX_LATENCY, this.maxLatency));
 
 		xml.append("<fields>");
 		for (StandardizeUrl standardize : this.getStandardizeUrls()) {
@@ -222,6 +244,9 @@ public class StandardizeUrlMeta extends BaseStepMeta implements StepMetaInterfac
 			this.setRemoveTrailingSlash(
 					"Y".equalsIgnoreCase(XMLHandler.getTagValue(stepNode, TAG_REMOVE_TRAILING_SLASH)));
 			this.setRemoveDefaultPort("Y".equalsIgnoreCase(XMLHandler.getTagValue(stepNode, TAG_REMOVE_DEFAULT_PORT)));
+			this.setParallelWorkers(Const.toInt(XMLHandler.getTagValue(stepNode, TAG_PARALLEL_WORKERS), 1));
+			this.setBatchSize(Const.toInt(XMLHandler.getTagValue(stepNode, TAG_BATCH_SIZE), 0));
+			this.setMaxLatency(Const.toLong(XMLHandler.getTagValue(stepNode, TAG_MAX_LATENCY), 0));
 
 			Node fields = XMLHandler.getSubNode(stepNode, "fields");
 			int count = XMLHandler.countNodes(fields, "field");
@@ -264,6 +289,9 @@ public class StandardizeUrlMeta extends BaseStepMeta implements StepMetaInterfac
 					this.isRemoveTrailingSlash());
 			repository.saveStepAttribute(id_transformation, id_step, TAG_REMOVE_DEFAULT_PORT,
 					this.isRemoveDefaultPort());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_PARALLEL_WORKERS, this.getParallelWorkers());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_BATCH_SIZE, this.getBatchSize());
+			repository.saveStepAttribute(id_transformation, id_step, TAG_MAX_LATENCY, this.getMaxLatency());
 
 			for (int i = 0; i < this.standardizes.size(); i++) {
 				StandardizeUrl standardize = standardizes.get(i);
@@ -294,6 +322,9 @@ public class StandardizeUrlMeta extends BaseStepMeta implements StepMetaInterfac
 			this.setRemoveDirectoryIndex(repository.getStepAttributeBoolean(id_step, TAG_REMOVE_DIRECTORY_INDEX));
 			this.setRemoveTrailingSlash(repository.getStepAttributeBoolean(id_step, TAG_REMOVE_TRAILING_SLASH));
 			this.setRemoveDefaultPort(repository.getStepAttributeBoolean(id_step, TAG_REMOVE_DEFAULT_PORT));
+			this.setParallelWorkers((int) repository.getStepAttributeInteger(id_step, TAG_PARALLEL_WORKERS));
+			this.setBatchSize((int) repository.getStepAttributeInteger(id_step, TAG_BATCH_SIZE));
+			this.setMaxLatency(repository.getStepAttributeInteger(id_step, TAG_MAX_LATENCY));
 
 			int count = repository.countNrStepAttributes(id_step, TAG_INPUT_FIELD);
 			standardizes = new ArrayList<>(count);
@@ -512,4 +543,58 @@ public class StandardizeUrlMeta extends BaseStepMeta implements StepMetaInterfac
 		this.removeDefaultPort = removeDefaultPort;
 	}
 
+	/**
+	 * Get the number of worker threads
+	 * 
+	 * @return the number of workers, 1 if rows are processed in the step thread
+	 */
+	public int getParallelWorkers() {
+		return parallelWorkers;
+	}
+
+	/**
+	 * Set the number of worker threads
+	 * 
+	 * @param workers
+	 *            the number of workers, 1 to process rows in the step thread
+	 */
+	public void setParallelWorkers(int workers) {
+		this.parallelWorkers = Math.max(1, workers);
+	}
+
+	/**
+	 * Get the maximum number of rows of a batch processed by a worker
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Set the maximum number of rows of a batch processed by a worker
+	 * 
+	 * @param size
+	 *            the batch size, 0 for the default
+	 */
+	public void setBatchSize(int size) {
+		this.batchSize = (size > 0) ? size : OrderedRowProcessor.DEFAULT_BATCH_SIZE;
+	}
+
+	/**
+	 * Get the maximum time in milliseconds a row waits for its batch to be
+	 * processed
+	 */
+	public long getMaxLatency() {
+		return maxLatency;
+	}
+
+	/**
+	 * Set the maximum time in milliseconds a row waits for its batch to be
+	 * processed
+	 * 
+	 * @param latency
+	 *            the latency in milliseconds, 0 for the default
+	 */
+	public void setMaxLatency(long latency) {
+		this.maxLatency = (latency > 0) ? latency : OrderedRowProcessor.DEFAULT_MAX_LATENCY;
+	}
 }
\ No newline at end of file
@@ -17,6 +17,7 @@
 package org.kettle.trans.steps.standardize;
 
 import java.util.Arrays;
+import java.util.List;
 
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.row.RowMetaInterface;
@@ -76,6 +77,15 @@ public class StandardizeUrlStep extends BaseStep implements StepInterface {
 		// if no more rows are expected, indicate step is finished and
 		// processRow() should not be called again
 		if (row == null) {
+			if (data.processor != null) {
+				data.processor.submit();
+				if (!data.processor.consume(outputRow -> putRow(data.outputRowMeta, outputRow), true)) {
+					// a row asked to stop the step
+					setErrors(1);
+					stopAll();
+					return false;
+				}
+			}
 			setOutputDone();
 			return false;
 		}
@@ -96,30 +106,71 @@ public class StandardizeUrlStep extends BaseStep implements StepInterface {
 			// structure
 			meta.getFields(data.outputRowMeta, getStepname(), null, null, this, null, null);
 
+			// resolve the field indexes once, so the row loop is pure array access
+			if (!compile(meta, data)) {
+				this.setErrors(1);
+				return false;
+			}
+			data.inputRowMeta = getInputRowMeta();
+
+			if (meta.getParallelWorkers() > 1) {
+				data.processor = new OrderedRowProcessor<>(getStepname(), meta.getParallelWorkers(),
+						meta.getBatchSize(), meta.getMaxLatency(), () -> {
+							StandardizeUrlData worker = new StandardizeUrlData(data);
+							return workerRow -> standardizeRow(meta, worker, workerRow);
+						});
+			}
 		}
 
-		RowMetaInterface inputRowMeta = getInputRowMeta();
+		if (data.processor != null) {
+			return processBatch(data, row);
+		}
+
+		Object[] outputRowValues = standardizeRow(meta, data, row);
+		if (outputRowValues == null) {
+			return false;
+		}
+
+		// put the row to the output row stream
+		putRow(data.outputRowMeta, outputRowValues);
+
+		if (log.isRowLevel()) {
+			logRowlevel(BaseMessages.getString(PKG, "StandardizeUrlStep.Log.WroteRowToNextStep", outputRowValues));
+		}
+
+		// log progress if it is time to to so
+		if (checkFeedback(getLinesRead())) {
+			logBasic("Line nr " + getLinesRead()); // Some basic logging
+		}
+
+		// indicate that processRow() should be called again
+		return true;
+	}
+
+	/**
+	 * Standardize the urls of a row.
+	 * 
+	 * <p>
+	 * Called by the step thread, or by a worker thread with its own data.
+	 * </p>
+	 * 
+	 * @return the output row, or null to stop the step
+	 */
+	protected Object[] standardizeRow(StandardizeUrlMeta meta, StandardizeUrlData data, Object[] row)
+			throws KettleException {
+
+		RowMetaInterface inputRowMeta = data.inputRowMeta;
 
 		// copies row into outputRowValues and pads extra null-default slots for
 		// the output values
 		Object[] outputRowValues = Arrays.copyOf(row, data.outputRowMeta.size());
 
 		// apply rules by order
-		for (StandardizeUrl standardize : meta.getStandardizeUrls()) {
+		for (int rule = 0; rule < data.standardizes.length; rule++) {
 
 			String value = null;
 			try {
-				int index = inputRowMeta.indexOfValue(standardize.getInputField());
-
-				// if input field not found
-				if (index < 0) {
-					this.logError(BaseMessages.getString(PKG, "StandardizeUrlStep.Log.InputFieldNotFound",
-							standardize.getInputField()));
-					this.setErrors(1);
-					return false;
-				}
-
-				value = inputRowMeta.getString(row, index);
+				value = inputRowMeta.getString(row, data.inputIndexes[rule]);
 				if (!Utils.isEmpty(value)) {
 
 					Url url = new Url(value.toString());
@@ -164,33 +215,82 @@ public class StandardizeUrlStep extends BaseStep implements StepInterface {
 						url.sortQueryParameters();
 					}
 
-					if (!Utils.isEmpty(standardize.getOutputField())) {
-						index = data.outputRowMeta.indexOfValue(standardize.getOutputField());
-					}
-
-					outputRowValues[index] = url.toString();
+					outputRowValues[data.outputIndexes[rule]] = url.toString();
 				}
 			} catch (Exception e) {
 				logError(BaseMessages.getString(PKG, "StandardizeUrlStep.Log.UrlNormalizationError",
-						standardize.getInputField(), value, e));
+						data.standardizes[rule].getInputField(), value, e));
 
-				return false;
+				return null;
 			}
 		}
 
-		// put the row to the output row stream
-		putRow(data.outputRowMeta, outputRowValues);
+		return outputRowValues;
+	}
 
-		if (log.isRowLevel()) {
-			logRowlevel(BaseMessages.getString(PKG, "StandardizeUrlStep.Log.WroteRowToNextStep", outputRowValues));
+	/**
+	 * Add a row to the current batch of the worker pool, and put the rows of
+	 * the completed batches in the original order.
+	 */
+	protected boolean processBatch(StandardizeUrlData data, Object[] row) throws KettleException {
+
+		data.processor.add(row);
+
+		// don't keep rows waiting while the input is idle
+		boolean idle = OrderedRowProcessor.isIdle(getInputRowSets());
+		if (idle) {
+			data.processor.submit();
+		}
+
+		if (!data.processor.consume(outputRow -> putRow(data.outputRowMeta, outputRow), idle)) {
+			// a row asked to stop the step
+			setErrors(1);
+			stopAll();
+			return false;
 		}
 
-		// log progress if it is time to to so
 		if (checkFeedback(getLinesRead())) {
-			logBasic("Line nr " + getLinesRead()); // Some basic logging
+			logBasic("Line nr " + getLinesRead());
+		}
+
+		return true;
+	}
+
+	/**
+	 * Resolve the field indexes of each rule against the input and output row
+	 * structures.
+	 * 
+	 * @return false if a configured field is missing
+	 */
+	protected boolean compile(StandardizeUrlMeta meta, StandardizeUrlData data) {
+
+		RowMetaInterface inputRowMeta = getInputRowMeta();
+		List<StandardizeUrl> standardizes = meta.getStandardizeUrls();
+		int count = standardizes.size();
+
+		data.standardizes = standardizes.toArray(new StandardizeUrl[count]);
+		data.inputIndexes = new int[count];
+		data.outputIndexes = new int[count];
+
+		for (int rule = 0; rule < count; rule++) {
+			StandardizeUrl standardize = data.standardizes[rule];
+
+			// if input field not found
+			int index = inputRowMeta.indexOfValue(standardize.getInputField());
+			if (index < 0) {
+				this.logError(BaseMessages.getString(PKG, "StandardizeUrlStep.Log.InputFieldNotFound",
+						standardize.getInputField()));
+				return false;
+			}
+			data.inputIndexes[rule] = index;
+
+			// update the input field if no output field
+			if (!Utils.isEmpty(standardize.getOutputField())) {
+				index = data.outputRowMeta.indexOfValue(standardize.getOutputField());
+			}
+			data.outputIndexes[rule] = index;
 		}
 
-		// indicate that processRow() should be called again
 		return true;
 	}
 
@@ -208,7 +308,14 @@ public class StandardizeUrlStep extends BaseStep implements StepInterface {
 		StandardizeUrlMeta meta = (StandardizeUrlMeta) smi;
 		StandardizeUrlData data = (StandardizeUrlData) sdi;
 
+		if (data.processor != null) {
+			data.processor.shutdown();
+			data.processor = null;
+		}
+
+		data.inputRowMeta = null;
 		data.outputRowMeta = null;
+		data.standardizes = null;
 
 		super.dispose(meta, data);
 	}
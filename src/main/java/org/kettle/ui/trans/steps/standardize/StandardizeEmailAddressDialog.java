@@ -25,10 +25,12 @@ import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.layout.FormLayout;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.swt.widgets.Text;
 import org.kettle.trans.steps.standardize.StandardizeEmailAddress;
 import org.kettle.trans.steps.standardize.StandardizeEmailAddressMeta;
 import org.pentaho.di.core.Const;
@@ -50,6 +52,13 @@ public class StandardizeEmailAddressDialog extends AbstractStepDialog<Standardiz
 	private static final Class<?> PKG = StandardizeEmailAddressMeta.class; // for i18n
 																			// purposes
 
+	private Text txtParallelWorkers;
+	private Text txtBatchSize;
+	private Text txtMaxLatency;
+	private Text txtProviderRulesFile;
+	private Text txtTopLevelDomainsFile;
+	private Text txtDisposableDomainsFile;
+	private Text txtPopularDomainsFile;
 	private TableView tblFields;
 
 	/**
@@ -82,9 +91,27 @@ public class StandardizeEmailAddressDialog extends AbstractStepDialog<Standardiz
 				ti.setText(1, StringUtils.stripToEmpty(standardize.getInputField()));
 				ti.setText(2, StringUtils.stripToEmpty(standardize.getOutputField()));
 				ti.setText(3, StringUtils.stripToEmpty(standardize.getValidField()));
+				ti.setText(4, StringUtils.stripToEmpty(standardize.getReasonField()));
+				ti.setText(5, StringUtils.stripToEmpty(standardize.getLocalPartField()));
+				ti.setText(6, StringUtils.stripToEmpty(standardize.getDomainField()));
+				ti.setText(7, StringUtils.stripToEmpty(standardize.getTopLevelDomainField()));
+				ti.setText(8, StringUtils.stripToEmpty(standardize.getCanonicalField()));
+				ti.setText(9, StringUtils.stripToEmpty(standardize.getKnownTopLevelDomainField()));
+				ti.setText(10, StringUtils.stripToEmpty(standardize.getDisposableField()));
+				ti.setText(11, StringUtils.stripToEmpty(standardize.getSuggestionField()));
 			}
 		}
 
+		// Parallel processing
+		txtParallelWorkers.setText(String.valueOf(meta.getParallelWorkers()));
+		txtBatchSize.setText(String.valueOf(meta.getBatchSize()));
+		txtMaxLatency.setText(String.valueOf(meta.getMaxLatency()));
+
+		txtProviderRulesFile.setText(StringUtils.stripToEmpty(meta.getProviderRulesFile()));
+		txtTopLevelDomainsFile.setText(StringUtils.stripToEmpty(meta.getTopLevelDomainsFile()));
+		txtDisposableDomainsFile.setText(StringUtils.stripToEmpty(meta.getDisposableDomainsFile()));
+		txtPopularDomainsFile.setText(StringUtils.stripToEmpty(meta.getPopularDomainsFile()));
+
 		tblFields.removeEmptyRows();
 		tblFields.setRowNums();
 		tblFields.optWidth(true);
@@ -95,7 +122,7 @@ public class StandardizeEmailAddressDialog extends AbstractStepDialog<Standardiz
 
 	@Override
 	public Point getMinimumSize() {
-		return new Point(600, 300);
+		return new Point(900, 650);
 	}
 
 	@Override
@@ -113,9 +140,27 @@ public class StandardizeEmailAddressDialog extends AbstractStepDialog<Standardiz
 			standardize.setInputField(StringUtils.stripToNull(item.getText(1)));
 			standardize.setOutputField(StringUtils.stripToNull(item.getText(2)));
 			standardize.setValidField(StringUtils.stripToNull(item.getText(3)));
+			standardize.setReasonField(StringUtils.stripToNull(item.getText(4)));
+			standardize.setLocalPartField(StringUtils.stripToNull(item.getText(5)));
+			standardize.setDomainField(StringUtils.stripToNull(item.getText(6)));
+			standardize.setTopLevelDomainField(StringUtils.stripToNull(item.getText(7)));
+			standardize.setCanonicalField(StringUtils.stripToNull(item.getText(8)));
+			standardize.setKnownTopLevelDomainField(StringUtils.stripToNull(item.getText(9)));
+			standardize.setDisposableField(StringUtils.stripToNull(item.getText(10)));
+			standardize.setSuggestionField(StringUtils.stripToNull(item.getText(11)));
 			standardizes.add(standardize);
 		}
 		meta.setStandardizeEmailAddresses(standardizes);
+
+		// parallel processing
+		meta.setParallelWorkers(Const.toInt(txtParallelWorkers.getText(), 1));
+		meta.setBatchSize(Const.toInt(txtBatchSize.getText(), 0));
+		meta.setMaxLatency(Const.toLong(txtMaxLatency.getText(), 0));
+
+		meta.setProviderRulesFile(StringUtils.stripToNull(txtProviderRulesFile.getText()));
+		meta.setTopLevelDomainsFile(StringUtils.stripToNull(txtTopLevelDomainsFile.getText()));
+		meta.setDisposableDomainsFile(StringUtils.stripToNull(txtDisposableDomainsFile.getText()));
+		meta.setPopularDomainsFile(StringUtils.stripToNull(txtPopularDomainsFile.getText()));
 	}
 
 	@Override
@@ -125,9 +170,113 @@ public class StandardizeEmailAddressDialog extends AbstractStepDialog<Standardiz
 		generalLayout.marginHeight = Const.FORM_MARGIN;
 		parent.setLayout(generalLayout);
 
+		// Parallel processing
+		Group groupParallel = new Group(parent, SWT.SHADOW_IN);
+		groupParallel.setText(BaseMessages.getString(PKG, "StandardizeDialog.Group.Parallel.Label"));
+		FormLayout parallelLayout = new FormLayout();
+		parallelLayout.marginWidth = Const.FORM_MARGIN;
+		parallelLayout.marginHeight = Const.FORM_MARGIN;
+		groupParallel.setLayout(parallelLayout);
+		groupParallel.setLayoutData(new FormDataBuilder().top().fullWidth().result());
+		props.setLook(groupParallel);
+
+		Label wlParallelWorkers = new Label(groupParallel, SWT.NONE);
+		wlParallelWorkers.setText(BaseMessages.getString(PKG, "StandardizeDialog.ParallelWorkers.Label"));
+		wlParallelWorkers.setLayoutData(new FormDataBuilder().top().fullWidth().result());
+		props.setLook(wlParallelWorkers);
+
+		txtParallelWorkers = new Text(groupParallel, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtParallelWorkers.setToolTipText(BaseMessages.getString(PKG, "StandardizeDialog.ParallelWorkers.Tooltip"));
+		txtParallelWorkers
+				.setLayoutData(new FormDataBuilder().top(wlParallelWorkers, Const.MARGIN).fullWidth().result());
+		txtParallelWorkers.addModifyListener(lsMod);
+		props.setLook(txtParallelWorkers);
+
+		Label wlBatchSize = new Label(groupParallel, SWT.NONE);
+		wlBatchSize.setText(BaseMessages.getString(PKG, "StandardizeDialog.BatchSize.Label"));
+		wlBatchSize.setLayoutData(new FormDataBuilder().top(txtParallelWorkers, Const.MARGIN).fullWidth().result());
+		props.setLook(wlBatchSize);
+
+		txtBatchSize = new Text(groupParallel, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtBatchSize.setToolTipText(BaseMessages.getString(PKG, "StandardizeDialog.BatchSize.Tooltip"));
+		txtBatchSize.setLayoutData(new FormDataBuilder().top(wlBatchSize, Const.MARGIN).fullWidth().result());
+		txtBatchSize.addModifyListener(lsMod);
+		props.setLook(txtBatchSize);
+
+		Label wlMaxLatency = new Label(groupParallel, SWT.NONE);
+		wlMaxLatency.setText(BaseMessages.getString(PKG, "StandardizeDialog.MaxLatency.Label"));
+		wlMaxLatency.setLayoutData(new FormDataBuilder().top(txtBatchSize, Const.MARGIN).fullWidth().result());
+		props.setLook(wlMaxLatency);
+
+		txtMaxLatency = new Text(groupParallel, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtMaxLatency.setToolTipText(BaseMessages.getString(PKG, "StandardizeDialog.MaxLatency.Tooltip"));
+		txtMaxLatency.setLayoutData(new FormDataBuilder().top(wlMaxLatency, Const.MARGIN).fullWidth().result());
+		txtMaxLatency.addModifyListener(lsMod);
+		props.setLook(txtMaxLatency);
+
+		Label wlProviderRulesFile = new Label(parent, SWT.NONE);
+		wlProviderRulesFile
+				.setText(BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ProviderRulesFile.Label"));
+		wlProviderRulesFile
+				.setLayoutData(new FormDataBuilder().top(groupParallel, Const.MARGIN * 2).fullWidth().result());
+		props.setLook(wlProviderRulesFile);
+
+		txtProviderRulesFile = new Text(parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtProviderRulesFile.setToolTipText(
+				BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ProviderRulesFile.Tooltip"));
+		txtProviderRulesFile
+				.setLayoutData(new FormDataBuilder().top(wlProviderRulesFile, Const.MARGIN).fullWidth().result());
+		txtProviderRulesFile.addModifyListener(lsMod);
+		props.setLook(txtProviderRulesFile);
+
+		Label wlTopLevelDomainsFile = new Label(parent, SWT.NONE);
+		wlTopLevelDomainsFile
+				.setText(BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.TopLevelDomainsFile.Label"));
+		wlTopLevelDomainsFile
+				.setLayoutData(new FormDataBuilder().top(txtProviderRulesFile, Const.MARGIN).fullWidth().result());
+		props.setLook(wlTopLevelDomainsFile);
+
+		txtTopLevelDomainsFile = new Text(parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtTopLevelDomainsFile.setToolTipText(
+				BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.TopLevelDomainsFile.Tooltip"));
+		txtTopLevelDomainsFile
+				.setLayoutData(new FormDataBuilder().top(wlTopLevelDomainsFile, Const.MARGIN).fullWidth().result());
+		txtTopLevelDomainsFile.addModifyListener(lsMod);
+		props.setLook(txtTopLevelDomainsFile);
+
+		Label wlDisposableDomainsFile = new Label(parent, SWT.NONE);
+		wlDisposableDomainsFile
+				.setText(BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.DisposableDomainsFile.Label"));
+		wlDisposableDomainsFile
+				.setLayoutData(new FormDataBuilder().top(txtTopLevelDomainsFile, Const.MARGIN).fullWidth().result());
+		props.setLook(wlDisposableDomainsFile);
+
+		txtDisposableDomainsFile = new Text(parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtDisposableDomainsFile.setToolTipText(
+				BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.DisposableDomainsFile.Tooltip"));
+		txtDisposableDomainsFile.setLayoutData(
+				new FormDataBuilder().top(wlDisposableDomainsFile, Const.MARGIN).fullWidth().result());
+		txtDisposableDomainsFile.addModifyListener(lsMod);
+		props.setLook(txtDisposableDomainsFile);
+
+		Label wlPopularDomainsFile = new Label(parent, SWT.NONE);
+		wlPopularDomainsFile
+				.setText(BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.PopularDomainsFile.Label"));
+		wlPopularDomainsFile
+				.setLayoutData(new FormDataBuilder().top(txtDisposableDomainsFile, Const.MARGIN).fullWidth().result());
+		props.setLook(wlPopularDomainsFile);
+
+		txtPopularDomainsFile = new Text(parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtPopularDomainsFile.setToolTipText(
+				BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.PopularDomainsFile.Tooltip"));
+		txtPopularDomainsFile
+				.setLayoutData(new FormDataBuilder().top(wlPopularDomainsFile, Const.MARGIN).fullWidth().result());
+		txtPopularDomainsFile.addModifyListener(lsMod);
+		props.setLook(txtPopularDomainsFile);
+
 		Label lblFields = new Label(parent, SWT.NONE);
 		lblFields.setText(BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.Fields.Label"));
-		lblFields.setLayoutData(new FormDataBuilder().left().top().result());
+		lblFields.setLayoutData(new FormDataBuilder().left().top(txtPopularDomainsFile, Const.MARGIN * 2).result());
 		props.setLook(lblFields);
 
 		ColumnInfo[] columns = new ColumnInfo[] {
@@ -137,6 +286,32 @@ public class StandardizeEmailAddressDialog extends AbstractStepDialog<Standardiz
 						BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.OutputField.Label"),
 						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
 				new ColumnInfo(BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.ValidField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.ReasonField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.LocalPartField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.DomainField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG,
+								"StandardizeEmailAddressDialog.ColumnInfo.TopLevelDomainField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.CanonicalField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG,
+								"StandardizeEmailAddressDialog.ColumnInfo.KnownTopLevelDomainField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.DisposableField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.SuggestionField.Label"),
 						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false) };
 
 		columns[1].setToolTip(
@@ -145,12 +320,36 @@ public class StandardizeEmailAddressDialog extends AbstractStepDialog<Standardiz
 		columns[2]
 				.setToolTip(BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.ValidField.Tooltip"));
 		columns[2].setUsingVariables(true);
+		columns[3].setToolTip(
+				BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.ReasonField.Tooltip"));
+		columns[3].setUsingVariables(true);
+		columns[4].setToolTip(
+				BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.LocalPartField.Tooltip"));
+		columns[4].setUsingVariables(true);
+		columns[5].setToolTip(
+				BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.DomainField.Tooltip"));
+		columns[5].setUsingVariables(true);
+		columns[6].setToolTip(
+				BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.TopLevelDomainField.Tooltip"));
+		columns[6].setUsingVariables(true);
+		columns[7].setToolTip(
+				BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.CanonicalField.Tooltip"));
+		columns[7].setUsingVariables(true);
+		columns[8].setToolTip(BaseMessages.getString(PKG,
+				"StandardizeEmailAddressDialog.ColumnInfo.KnownTopLevelDomainField.Tooltip"));
+		columns[8].setUsingVariables(true);
+		columns[9].setToolTip(
+				BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.DisposableField.Tooltip"));
+		columns[9].setUsingVariables(true);
+		columns[10].setToolTip(
+				BaseMessages.getString(PKG, "StandardizeEmailAddressDialog.ColumnInfo.SuggestionField.Tooltip"));
+		columns[10].setUsingVariables(true);
 
 		tblFields = new TableView(transMeta, parent, SWT.BORDER | SWT.FULL_SELECTION | SWT.MULTI, columns, 0, lsMod,
 				props);
 		tblFields
 				.setLayoutData(new FormDataBuilder().left().fullWidth().top(lblFields, Const.MARGIN).bottom().result());
-		tblFields.getTable().addListener(SWT.Resize, new ColumnsResizer(4, 40, 40, 16));
+		tblFields.getTable().addListener(SWT.Resize, new ColumnsResizer(4, 11, 11, 7, 7, 9, 9, 7, 9, 8, 8, 10));
 
 		// -----------------------------------------------------------------------------
 		// Search the fields in the background
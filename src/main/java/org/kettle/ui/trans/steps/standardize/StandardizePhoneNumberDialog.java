@@ -22,14 +22,20 @@ import java.util.List;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.CCombo;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.layout.FormLayout;
+import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.swt.widgets.Text;
 import org.kettle.trans.steps.standardize.StandardizePhoneNumber;
 import org.kettle.trans.steps.standardize.StandardizePhoneNumberMeta;
 import org.pentaho.di.core.Const;
@@ -55,6 +61,25 @@ public class StandardizePhoneNumberDialog extends AbstractStepDialog<Standardize
 	private static final Class<?> PKG = StandardizePhoneNumberMeta.class; // for i18n
 																	// purposes
 	private CCombo cmbCountry;
+	private Text txtCacheSize;
+	private Text txtRegions;
+	private Text txtFallbackRegions;
+	private Text txtDoNotCallFile;
+	private Button btnPreloadMetadata;
+	private Button btnCompilePatterns;
+	private Button btnFastMode;
+	private Button btnRejectOtherRegions;
+	private Text txtLanguage;
+	private Button btnPreValidation;
+	private Text txtMinDigits;
+	private Text txtMaxDigits;
+	private Text txtMaxLetterPercent;
+	private CCombo cmbLeniency;
+	private Text txtMaxTries;
+	private Text txtExtractDelimiter;
+	private Text txtParallelWorkers;
+	private Text txtBatchSize;
+	private Text txtMaxLatency;
 	private TableView tblFields;
 
 	public static void main(String[] args) {
@@ -88,7 +113,7 @@ public class StandardizePhoneNumberDialog extends AbstractStepDialog<Standardize
 
 	@Override
 	public Point getMinimumSize() {
-		return new Point(600, 300);
+		return new Point(600, 930);
 	}
 
 	@Override
@@ -108,6 +133,25 @@ public class StandardizePhoneNumberDialog extends AbstractStepDialog<Standardize
 				ti.setText(4, standardize.getFormat().name());
 				ti.setText(5, StringUtils.stripToEmpty(standardize.getPhoneNumberTypeField()));
 				ti.setText(6, StringUtils.stripToEmpty(standardize.getIsValidPhoneNumberField()));
+				ti.setText(7, StringUtils.stripToEmpty(standardize.getCountryCodeField()));
+				ti.setText(8, StringUtils.stripToEmpty(standardize.getNationalNumberField()));
+				ti.setText(9, StringUtils.stripToEmpty(standardize.getE164NumberField()));
+				ti.setText(10, StringUtils.stripToEmpty(standardize.getExtensionField()));
+				ti.setText(11, StringUtils.stripToEmpty(standardize.getRegionField()));
+				ti.setText(12, StringUtils.stripToEmpty(standardize.getClusterField()));
+				ti.setText(13, StringUtils.stripToEmpty(standardize.getDescriptionField()));
+				ti.setText(14, StringUtils.stripToEmpty(standardize.getCarrierField()));
+				ti.setText(15, StringUtils.stripToEmpty(standardize.getTimeZonesField()));
+				ti.setText(16, standardize.getExtractMode().name());
+				ti.setText(17, StringUtils.stripToEmpty(standardize.getE164Field()));
+				ti.setText(18, StringUtils.stripToEmpty(standardize.getInternationalField()));
+				ti.setText(19, StringUtils.stripToEmpty(standardize.getNationalField()));
+				ti.setText(20, StringUtils.stripToEmpty(standardize.getRfc3966Field()));
+				ti.setText(21, standardize.getValidationLevel().name());
+				ti.setText(22, StringUtils.stripToEmpty(standardize.getReasonField()));
+				ti.setText(23, StringUtils.stripToEmpty(standardize.getTemplate()));
+				ti.setText(24, StringUtils.stripToEmpty(standardize.getTemplateField()));
+				ti.setText(25, StringUtils.stripToEmpty(standardize.getDoNotCallField()));
 			}
 		}
 
@@ -119,6 +163,32 @@ public class StandardizePhoneNumberDialog extends AbstractStepDialog<Standardize
 			}
 		}
 
+		txtCacheSize.setText(String.valueOf(meta.getCacheSize()));
+		txtRegions.setText(StringUtils.stripToEmpty(meta.getRegions()));
+		txtFallbackRegions.setText(StringUtils.stripToEmpty(meta.getFallbackRegions()));
+		txtDoNotCallFile.setText(StringUtils.stripToEmpty(meta.getDoNotCallFile()));
+		btnPreloadMetadata.setSelection(meta.isPreloadMetadata());
+		btnCompilePatterns.setSelection(meta.isCompilePatterns());
+		btnFastMode.setSelection(meta.isFastMode());
+		btnRejectOtherRegions.setSelection(meta.isRejectOtherRegions());
+		txtLanguage.setText(StringUtils.stripToEmpty(meta.getLanguage()));
+
+		// Pre-validation
+		btnPreValidation.setSelection(meta.isPreValidation());
+		txtMinDigits.setText(String.valueOf(meta.getMinDigits()));
+		txtMaxDigits.setText(String.valueOf(meta.getMaxDigits()));
+		txtMaxLetterPercent.setText(String.valueOf(meta.getMaxLetterPercent()));
+
+		// Extract from text
+		cmbLeniency.setText(meta.getLeniencyValue().name());
+		txtMaxTries.setText(String.valueOf(meta.getMaxTries()));
+		txtExtractDelimiter.setText(Const.NVL(meta.getExtractDelimiter(), ""));
+
+		// Parallel processing
+		txtParallelWorkers.setText(String.valueOf(meta.getParallelWorkers()));
+		txtBatchSize.setText(String.valueOf(meta.getBatchSize()));
+		txtMaxLatency.setText(String.valueOf(meta.getMaxLatency()));
+
 		tblFields.removeEmptyRows();
 		tblFields.setRowNums();
 		tblFields.optWidth(true);
@@ -143,6 +213,35 @@ public class StandardizePhoneNumberDialog extends AbstractStepDialog<Standardize
 			standardize.setCountryField(StringUtils.stripToNull(item.getText(3)));
 			standardize.setPhoneNumberTypeField(item.getText(5));
 			standardize.setIsValidPhoneNumberField(StringUtils.stripToNull(item.getText(6)));
+			standardize.setCountryCodeField(item.getText(7));
+			standardize.setNationalNumberField(item.getText(8));
+			standardize.setE164NumberField(item.getText(9));
+			standardize.setExtensionField(item.getText(10));
+			standardize.setRegionField(item.getText(11));
+			standardize.setClusterField(item.getText(12));
+			standardize.setDescriptionField(item.getText(13));
+			standardize.setCarrierField(item.getText(14));
+			standardize.setTimeZonesField(item.getText(15));
+			standardize.setE164Field(item.getText(17));
+			standardize.setInternationalField(item.getText(18));
+			standardize.setNationalField(item.getText(19));
+			standardize.setRfc3966Field(item.getText(20));
+			standardize.setReasonField(item.getText(22));
+			standardize.setTemplate(item.getText(23));
+			standardize.setTemplateField(item.getText(24));
+			standardize.setDoNotCallField(item.getText(25));
+
+			try {
+				standardize.setExtractMode(StandardizePhoneNumber.ExtractMode.valueOf(item.getText(16)));
+			} catch (Exception e) {
+				standardize.setExtractMode(StandardizePhoneNumber.ExtractMode.NONE);
+			}
+
+			try {
+				standardize.setValidationLevel(StandardizePhoneNumber.ValidationLevel.valueOf(item.getText(21)));
+			} catch (Exception e) {
+				standardize.setValidationLevel(StandardizePhoneNumber.ValidationLevel.VALID_AND_TYPE);
+			}
 
 			try {
 				standardize.setFormat(PhoneNumberFormat.valueOf(item.getText(4)));
@@ -157,6 +256,32 @@ public class StandardizePhoneNumberDialog extends AbstractStepDialog<Standardize
 
 		if (cmbCountry.getSelectionIndex() > 0)
 			meta.setDefaultCountry(cmbCountry.getItem(cmbCountry.getSelectionIndex()));
+
+		meta.setCacheSize(Const.toInt(txtCacheSize.getText(), 0));
+		meta.setRegions(StringUtils.stripToNull(txtRegions.getText()));
+		meta.setFallbackRegions(StringUtils.stripToNull(txtFallbackRegions.getText()));
+		meta.setDoNotCallFile(StringUtils.stripToNull(txtDoNotCallFile.getText()));
+		meta.setPreloadMetadata(btnPreloadMetadata.getSelection());
+		meta.setCompilePatterns(btnCompilePatterns.getSelection());
+		meta.setFastMode(btnFastMode.getSelection());
+		meta.setRejectOtherRegions(btnRejectOtherRegions.getSelection());
+		meta.setLanguage(StringUtils.stripToNull(txtLanguage.getText()));
+
+		// pre-validation
+		meta.setPreValidation(btnPreValidation.getSelection());
+		meta.setMinDigits(Const.toInt(txtMinDigits.getText(), 0));
+		meta.setMaxDigits(Const.toInt(txtMaxDigits.getText(), 0));
+		meta.setMaxLetterPercent(Const.toInt(txtMaxLetterPercent.getText(), meta.getMaxLetterPercent()));
+
+		// extract from text
+		meta.setLeniency(StringUtils.stripToNull(cmbLeniency.getText()));
+		meta.setMaxTries(Const.toLong(txtMaxTries.getText(), 0));
+		meta.setExtractDelimiter(txtExtractDelimiter.getText());
+
+		// parallel processing
+		meta.setParallelWorkers(Const.toInt(txtParallelWorkers.getText(), 1));
+		meta.setBatchSize(Const.toInt(txtBatchSize.getText(), 0));
+		meta.setMaxLatency(Const.toLong(txtMaxLatency.getText(), 0));
 	}
 
 	@Override
@@ -175,10 +300,262 @@ public class StandardizePhoneNumberDialog extends AbstractStepDialog<Standardize
 		cmbCountry.addModifyListener(lsMod);
 		props.setLook(cmbCountry);
 
+		// Cache size
+		Label wlCacheSize = new Label(parent, SWT.NONE);
+		wlCacheSize.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.CacheSize.Label"));
+		wlCacheSize.setLayoutData(new FormDataBuilder().top(cmbCountry, Const.MARGIN).fullWidth().result());
+		props.setLook(wlCacheSize);
+
+		txtCacheSize = new Text(parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtCacheSize.setToolTipText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.CacheSize.Tooltip"));
+		txtCacheSize.setLayoutData(new FormDataBuilder().top(wlCacheSize, Const.MARGIN).fullWidth().result());
+		txtCacheSize.addModifyListener(lsMod);
+		props.setLook(txtCacheSize);
+
+		SelectionAdapter lsSelection = new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				baseStepMeta.setChanged();
+			}
+		};
+
+		// Accepted regions
+		Label wlRegions = new Label(parent, SWT.NONE);
+		wlRegions.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.Regions.Label"));
+		wlRegions.setLayoutData(new FormDataBuilder().top(txtCacheSize, Const.MARGIN).fullWidth().result());
+		props.setLook(wlRegions);
+
+		txtRegions = new Text(parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtRegions.setToolTipText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.Regions.Tooltip"));
+		txtRegions.setLayoutData(new FormDataBuilder().top(wlRegions, Const.MARGIN).fullWidth().result());
+		txtRegions.addModifyListener(lsMod);
+		props.setLook(txtRegions);
+
+		// Fallback regions
+		Label wlFallbackRegions = new Label(parent, SWT.NONE);
+		wlFallbackRegions.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.FallbackRegions.Label"));
+		wlFallbackRegions.setLayoutData(new FormDataBuilder().top(txtRegions, Const.MARGIN).fullWidth().result());
+		props.setLook(wlFallbackRegions);
+
+		txtFallbackRegions = new Text(parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtFallbackRegions
+				.setToolTipText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.FallbackRegions.Tooltip"));
+		txtFallbackRegions
+				.setLayoutData(new FormDataBuilder().top(wlFallbackRegions, Const.MARGIN).fullWidth().result());
+		txtFallbackRegions.addModifyListener(lsMod);
+		props.setLook(txtFallbackRegions);
+
+		// Do not call list
+		Label wlDoNotCallFile = new Label(parent, SWT.NONE);
+		wlDoNotCallFile.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.DoNotCallFile.Label"));
+		wlDoNotCallFile.setLayoutData(new FormDataBuilder().top(txtFallbackRegions, Const.MARGIN).fullWidth().result());
+		props.setLook(wlDoNotCallFile);
+
+		txtDoNotCallFile = new Text(parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtDoNotCallFile
+				.setToolTipText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.DoNotCallFile.Tooltip"));
+		txtDoNotCallFile.setLayoutData(new FormDataBuilder().top(wlDoNotCallFile, Const.MARGIN).fullWidth().result());
+		txtDoNotCallFile.addModifyListener(lsMod);
+		props.setLook(txtDoNotCallFile);
+
+		btnPreloadMetadata = new Button(parent, SWT.CHECK);
+		btnPreloadMetadata.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.PreloadMetadata.Label"));
+		btnPreloadMetadata
+				.setToolTipText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.PreloadMetadata.Tooltip"));
+		btnPreloadMetadata
+				.setLayoutData(new FormDataBuilder().top(txtDoNotCallFile, Const.MARGIN).fullWidth().result());
+		btnPreloadMetadata.addSelectionListener(lsSelection);
+		props.setLook(btnPreloadMetadata);
+
+		btnCompilePatterns = new Button(parent, SWT.CHECK);
+		btnCompilePatterns.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.CompilePatterns.Label"));
+		btnCompilePatterns
+				.setToolTipText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.CompilePatterns.Tooltip"));
+		btnCompilePatterns
+				.setLayoutData(new FormDataBuilder().top(btnPreloadMetadata, Const.MARGIN).fullWidth().result());
+		btnCompilePatterns.addSelectionListener(lsSelection);
+		props.setLook(btnCompilePatterns);
+
+		btnFastMode = new Button(parent, SWT.CHECK);
+		btnFastMode.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.FastMode.Label"));
+		btnFastMode.setToolTipText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.FastMode.Tooltip"));
+		btnFastMode.setLayoutData(new FormDataBuilder().top(btnCompilePatterns, Const.MARGIN).fullWidth().result());
+		btnFastMode.addSelectionListener(lsSelection);
+		props.setLook(btnFastMode);
+
+		btnRejectOtherRegions = new Button(parent, SWT.CHECK);
+		btnRejectOtherRegions
+				.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.RejectOtherRegions.Label"));
+		btnRejectOtherRegions.setToolTipText(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.RejectOtherRegions.Tooltip"));
+		btnRejectOtherRegions
+				.setLayoutData(new FormDataBuilder().top(btnFastMode, Const.MARGIN).fullWidth().result());
+		btnRejectOtherRegions.addSelectionListener(lsSelection);
+		props.setLook(btnRejectOtherRegions);
+
+		// Language of the geographical descriptions and carrier names
+		Label wlLanguage = new Label(parent, SWT.NONE);
+		wlLanguage.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.Language.Label"));
+		wlLanguage.setLayoutData(new FormDataBuilder().top(btnRejectOtherRegions, Const.MARGIN).fullWidth().result());
+		props.setLook(wlLanguage);
+
+		txtLanguage = new Text(parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtLanguage.setToolTipText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.Language.Tooltip"));
+		txtLanguage.setLayoutData(new FormDataBuilder().top(wlLanguage, Const.MARGIN).fullWidth().result());
+		txtLanguage.addModifyListener(lsMod);
+		props.setLook(txtLanguage);
+
+		// Pre-validation
+		Group groupPreValidation = new Group(parent, SWT.SHADOW_IN);
+		groupPreValidation
+				.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.Group.PreValidation.Label"));
+		FormLayout preValidationLayout = new FormLayout();
+		preValidationLayout.marginWidth = Const.FORM_MARGIN;
+		preValidationLayout.marginHeight = Const.FORM_MARGIN;
+		groupPreValidation.setLayout(preValidationLayout);
+		groupPreValidation
+				.setLayoutData(new FormDataBuilder().top(txtLanguage, Const.MARGIN * 2).fullWidth().result());
+		props.setLook(groupPreValidation);
+
+		btnPreValidation = new Button(groupPreValidation, SWT.CHECK);
+		btnPreValidation.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.PreValidation.Label"));
+		btnPreValidation
+				.setToolTipText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.PreValidation.Tooltip"));
+		btnPreValidation.setLayoutData(new FormDataBuilder().top().fullWidth().result());
+		btnPreValidation.addSelectionListener(lsSelection);
+		props.setLook(btnPreValidation);
+
+		Label wlMinDigits = new Label(groupPreValidation, SWT.NONE);
+		wlMinDigits.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.MinDigits.Label"));
+		wlMinDigits.setLayoutData(new FormDataBuilder().top(btnPreValidation, Const.MARGIN).fullWidth().result());
+		props.setLook(wlMinDigits);
+
+		txtMinDigits = new Text(groupPreValidation, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtMinDigits.setToolTipText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.MinDigits.Tooltip"));
+		txtMinDigits.setLayoutData(new FormDataBuilder().top(wlMinDigits, Const.MARGIN).fullWidth().result());
+		txtMinDigits.addModifyListener(lsMod);
+		props.setLook(txtMinDigits);
+
+		Label wlMaxDigits = new Label(groupPreValidation, SWT.NONE);
+		wlMaxDigits.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.MaxDigits.Label"));
+		wlMaxDigits.setLayoutData(new FormDataBuilder().top(txtMinDigits, Const.MARGIN).fullWidth().result());
+		props.setLook(wlMaxDigits);
+
+		txtMaxDigits = new Text(groupPreValidation, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtMaxDigits.setToolTipText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.MaxDigits.Tooltip"));
+		txtMaxDigits.setLayoutData(new FormDataBuilder().top(wlMaxDigits, Const.MARGIN).fullWidth().result());
+		txtMaxDigits.addModifyListener(lsMod);
+		props.setLook(txtMaxDigits);
+
+		Label wlMaxLetterPercent = new Label(groupPreValidation, SWT.NONE);
+		wlMaxLetterPercent.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.MaxLetterPercent.Label"));
+		wlMaxLetterPercent.setLayoutData(new FormDataBuilder().top(txtMaxDigits, Const.MARGIN).fullWidth().result());
+		props.setLook(wlMaxLetterPercent);
+
+		txtMaxLetterPercent = new Text(groupPreValidation, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtMaxLetterPercent.setToolTipText(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.MaxLetterPercent.Tooltip"));
+		txtMaxLetterPercent
+				.setLayoutData(new FormDataBuilder().top(wlMaxLetterPercent, Const.MARGIN).fullWidth().result());
+		txtMaxLetterPercent.addModifyListener(lsMod);
+		props.setLook(txtMaxLetterPercent);
+
+		// Extract from text
+		Group groupExtract = new Group(parent, SWT.SHADOW_IN);
+		groupExtract.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.Group.Extract.Label"));
+		FormLayout extractLayout = new FormLayout();
+		extractLayout.marginWidth = Const.FORM_MARGIN;
+		extractLayout.marginHeight = Const.FORM_MARGIN;
+		groupExtract.setLayout(extractLayout);
+		groupExtract
+				.setLayoutData(new FormDataBuilder().top(groupPreValidation, Const.MARGIN * 2).fullWidth().result());
+		props.setLook(groupExtract);
+
+		Label wlLeniency = new Label(groupExtract, SWT.NONE);
+		wlLeniency.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.Leniency.Label"));
+		wlLeniency.setLayoutData(new FormDataBuilder().top().fullWidth().result());
+		props.setLook(wlLeniency);
+
+		cmbLeniency = new CCombo(groupExtract, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		cmbLeniency.setItems(this.getStepMeta().getSupportedLeniencies());
+		cmbLeniency.setToolTipText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.Leniency.Tooltip"));
+		cmbLeniency.setLayoutData(new FormDataBuilder().top(wlLeniency, Const.MARGIN).fullWidth().result());
+		cmbLeniency.addModifyListener(lsMod);
+		props.setLook(cmbLeniency);
+
+		Label wlMaxTries = new Label(groupExtract, SWT.NONE);
+		wlMaxTries.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.MaxTries.Label"));
+		wlMaxTries.setLayoutData(new FormDataBuilder().top(cmbLeniency, Const.MARGIN).fullWidth().result());
+		props.setLook(wlMaxTries);
+
+		txtMaxTries = new Text(groupExtract, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtMaxTries.setToolTipText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.MaxTries.Tooltip"));
+		txtMaxTries.setLayoutData(new FormDataBuilder().top(wlMaxTries, Const.MARGIN).fullWidth().result());
+		txtMaxTries.addModifyListener(lsMod);
+		props.setLook(txtMaxTries);
+
+		Label wlExtractDelimiter = new Label(groupExtract, SWT.NONE);
+		wlExtractDelimiter.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ExtractDelimiter.Label"));
+		wlExtractDelimiter.setLayoutData(new FormDataBuilder().top(txtMaxTries, Const.MARGIN).fullWidth().result());
+		props.setLook(wlExtractDelimiter);
+
+		txtExtractDelimiter = new Text(groupExtract, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtExtractDelimiter.setToolTipText(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ExtractDelimiter.Tooltip"));
+		txtExtractDelimiter
+				.setLayoutData(new FormDataBuilder().top(wlExtractDelimiter, Const.MARGIN).fullWidth().result());
+		txtExtractDelimiter.addModifyListener(lsMod);
+		props.setLook(txtExtractDelimiter);
+
+		// Parallel processing
+		Group groupParallel = new Group(parent, SWT.SHADOW_IN);
+		groupParallel.setText(BaseMessages.getString(PKG, "StandardizeDialog.Group.Parallel.Label"));
+		FormLayout parallelLayout = new FormLayout();
+		parallelLayout.marginWidth = Const.FORM_MARGIN;
+		parallelLayout.marginHeight = Const.FORM_MARGIN;
+		groupParallel.setLayout(parallelLayout);
+		groupParallel.setLayoutData(
+				new FormDataBuilder().top(groupExtract, Const.MARGIN * 2).fullWidth().result());
+		props.setLook(groupParallel);
+
+		Label wlParallelWorkers = new Label(groupParallel, SWT.NONE);
+		wlParallelWorkers.setText(BaseMessages.getString(PKG, "StandardizeDialog.ParallelWorkers.Label"));
+		wlParallelWorkers.setLayoutData(new FormDataBuilder().top().fullWidth().result());
+		props.setLook(wlParallelWorkers);
+
+		txtParallelWorkers = new Text(groupParallel, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtParallelWorkers.setToolTipText(BaseMessages.getString(PKG, "StandardizeDialog.ParallelWorkers.Tooltip"));
+		txtParallelWorkers
+				.setLayoutData(new FormDataBuilder().top(wlParallelWorkers, Const.MARGIN).fullWidth().result());
+		txtParallelWorkers.addModifyListener(lsMod);
+		props.setLook(txtParallelWorkers);
+
+		Label wlBatchSize = new Label(groupParallel, SWT.NONE);
+		wlBatchSize.setText(BaseMessages.getString(PKG, "StandardizeDialog.BatchSize.Label"));
+		wlBatchSize.setLayoutData(new FormDataBuilder().top(txtParallelWorkers, Const.MARGIN).fullWidth().result());
+		props.setLook(wlBatchSize);
+
+		txtBatchSize = new Text(groupParallel, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtBatchSize.setToolTipText(BaseMessages.getString(PKG, "StandardizeDialog.BatchSize.Tooltip"));
+		txtBatchSize.setLayoutData(new FormDataBuilder().top(wlBatchSize, Const.MARGIN).fullWidth().result());
+		txtBatchSize.addModifyListener(lsMod);
+		props.setLook(txtBatchSize);
+
+		Label wlMaxLatency = new Label(groupParallel, SWT.NONE);
+		wlMaxLatency.setText(BaseMessages.getString(PKG, "StandardizeDialog.MaxLatency.Label"));
+		wlMaxLatency.setLayoutData(new FormDataBuilder().top(txtBatchSize, Const.MARGIN).fullWidth().result());
+		props.setLook(wlMaxLatency);
+
+		txtMaxLatency = new Text(groupParallel, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtMaxLatency.setToolTipText(BaseMessages.getString(PKG, "StandardizeDialog.MaxLatency.Tooltip"));
+		txtMaxLatency.setLayoutData(new FormDataBuilder().top(wlMaxLatency, Const.MARGIN).fullWidth().result());
+		txtMaxLatency.addModifyListener(lsMod);
+		props.setLook(txtMaxLatency);
+
 		// Table with fields
 		Label lblFields = new Label(parent, SWT.LEFT);
 		lblFields.setText(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.Fields.Label"));
-		lblFields.setLayoutData(new FormDataBuilder().top(cmbCountry, Const.MARGIN * 2).fullWidth().result());
+		lblFields.setLayoutData(new FormDataBuilder().top(groupParallel, Const.MARGIN * 2).fullWidth().result());
 		props.setLook(lblFields);
 
 		ColumnInfo[] columns = new ColumnInfo[] {
@@ -198,6 +575,63 @@ public class StandardizePhoneNumberDialog extends AbstractStepDialog<Standardize
 				new ColumnInfo(
 						BaseMessages.getString(PKG,
 								"StandardizePhoneNumberDialog.ColumnInfo.IsValidPhoneNumberField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.CountryCodeField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG,
+								"StandardizePhoneNumberDialog.ColumnInfo.NationalNumberField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.E164NumberField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.ExtensionField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.RegionField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.ClusterField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.DescriptionField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.CarrierField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.TimeZonesField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.ExtractMode.Label"),
+						ColumnInfo.COLUMN_TYPE_CCOMBO, this.getStepMeta().getSupportedExtractModes(), false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.E164Field.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG,
+								"StandardizePhoneNumberDialog.ColumnInfo.InternationalField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.NationalField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.RFC3966Field.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.ValidationLevel.Label"),
+						ColumnInfo.COLUMN_TYPE_CCOMBO, this.getStepMeta().getSupportedValidationLevels(), false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.ReasonField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.Template.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.TemplateField.Label"),
+						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false),
+				new ColumnInfo(
+						BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.DoNotCallField.Label"),
 						ColumnInfo.COLUMN_TYPE_TEXT, new String[] { "" }, false) };
 
 		columns[0]
@@ -205,6 +639,8 @@ public class StandardizePhoneNumberDialog extends AbstractStepDialog<Standardize
 		columns[1]
 				.setToolTip(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.OutputField.Tooltip"));
 		columns[1].setUsingVariables(true);
+		columns[2]
+				.setToolTip(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.CountryField.Tooltip"));
 		columns[3].setToolTip(BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.Format.Tooltip"));
 		columns[4].setUsingVariables(true);
 		columns[4].setToolTip(
@@ -212,11 +648,67 @@ public class StandardizePhoneNumberDialog extends AbstractStepDialog<Standardize
 		columns[5].setUsingVariables(true);
 		columns[5].setToolTip(
 				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.IsValidPhoneNumberField.Tooltip"));
+		columns[6].setUsingVariables(true);
+		columns[6].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.CountryCodeField.Tooltip"));
+		columns[7].setUsingVariables(true);
+		columns[7].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.NationalNumberField.Tooltip"));
+		columns[8].setUsingVariables(true);
+		columns[8].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.E164NumberField.Tooltip"));
+		columns[9].setUsingVariables(true);
+		columns[9].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.ExtensionField.Tooltip"));
+		columns[10].setUsingVariables(true);
+		columns[10].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.RegionField.Tooltip"));
+		columns[11].setUsingVariables(true);
+		columns[11].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.ClusterField.Tooltip"));
+		columns[12].setUsingVariables(true);
+		columns[12].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.DescriptionField.Tooltip"));
+		columns[13].setUsingVariables(true);
+		columns[13].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.CarrierField.Tooltip"));
+		columns[14].setUsingVariables(true);
+		columns[14].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.TimeZonesField.Tooltip"));
+		columns[15].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.ExtractMode.Tooltip"));
+		columns[16].setUsingVariables(true);
+		columns[16].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.E164Field.Tooltip"));
+		columns[17].setUsingVariables(true);
+		columns[17].setToolTip(
+				BaseMessages.getString(PKG,
+						"StandardizePhoneNumberDialog.ColumnInfo.InternationalField.Tooltip"));
+		columns[18].setUsingVariables(true);
+		columns[18].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.NationalField.Tooltip"));
+		columns[19].setUsingVariables(true);
+		columns[19].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.RFC3966Field.Tooltip"));
+		columns[20].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.ValidationLevel.Tooltip"));
+		columns[21].setUsingVariables(true);
+		columns[21].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.ReasonField.Tooltip"));
+		columns[22].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.Template.Tooltip"));
+		columns[23].setUsingVariables(true);
+		columns[23].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.TemplateField.Tooltip"));
+		columns[24].setUsingVariables(true);
+		columns[24].setToolTip(
+				BaseMessages.getString(PKG, "StandardizePhoneNumberDialog.ColumnInfo.DoNotCallField.Tooltip"));
 
 		tblFields = new TableView(transMeta, parent, SWT.BORDER | SWT.FULL_SELECTION | SWT.MULTI, columns, 0, lsMod,
 				props);
 		tblFields.setLayoutData(new FormDataBuilder().left().fullWidth().top(lblFields, Const.MARGIN).bottom().result());
-		tblFields.getTable().addListener(SWT.Resize, new ColumnsResizer(2, 25, 25, 12, 12, 12, 12));
+		tblFields.getTable().addListener(SWT.Resize,
+				new ColumnsResizer(2, 5, 5, 4, 4, 4, 4, 4, 4, 4, 4, 4, 4, 4, 4, 4, 4, 4, 4, 3, 2, 3, 4, 4, 4, 4));
 
 		//
 		// Search the fields in the background
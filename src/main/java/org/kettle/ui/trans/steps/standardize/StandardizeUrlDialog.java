@@ -24,6 +24,7 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.layout.FormLayout;
 import org.eclipse.swt.layout.RowLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
@@ -33,6 +34,7 @@ import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.swt.widgets.Text;
 import org.kettle.trans.steps.standardize.StandardizeUrl;
 import org.kettle.trans.steps.standardize.StandardizeUrlMeta;
 import org.pentaho.di.core.Const;
@@ -63,6 +65,9 @@ public class StandardizeUrlDialog extends AbstractStepDialog<StandardizeUrlMeta>
 	private Button btnRemoveSessionId;
 	private Button btnRemoveDirectoryIndex;
 	private Button btnRemoveTrailingSlash;
+	private Text txtParallelWorkers;
+	private Text txtBatchSize;
+	private Text txtMaxLatency;
 	private Button btnRemoveDefaultPort;
 
 	private TableView tblFields;
@@ -98,6 +103,11 @@ public class StandardizeUrlDialog extends AbstractStepDialog<StandardizeUrlMeta>
 		this.btnReplaceIPWithDomainName.setSelection(meta.isReplaceIPWithDomainName());
 		this.btnSortQueryParameters.setSelection(meta.isSortQueryParameters());
 
+		// Parallel processing
+		txtParallelWorkers.setText(String.valueOf(meta.getParallelWorkers()));
+		txtBatchSize.setText(String.valueOf(meta.getBatchSize()));
+		txtMaxLatency.setText(String.valueOf(meta.getMaxLatency()));
+
 		// Fields
 		List<StandardizeUrl> standardizes = meta.getStandardizeUrls();
 		if (standardizes.size() > 0) {
@@ -122,7 +132,7 @@ public class StandardizeUrlDialog extends AbstractStepDialog<StandardizeUrlMeta>
 
 	@Override
 	public Point getMinimumSize() {
-		return new Point(400, 400);
+		return new Point(400, 550);
 	}
 
 	@Override
@@ -144,6 +154,11 @@ public class StandardizeUrlDialog extends AbstractStepDialog<StandardizeUrlMeta>
 		meta.setReplaceIPWithDomainName(this.btnReplaceIPWithDomainName.getSelection());
 		meta.setSortQueryParameters(this.btnSortQueryParameters.getSelection());
 
+		// parallel processing
+		meta.setParallelWorkers(Const.toInt(txtParallelWorkers.getText(), 1));
+		meta.setBatchSize(Const.toInt(txtBatchSize.getText(), 0));
+		meta.setMaxLatency(Const.toLong(txtMaxLatency.getText(), 0));
+
 		// fields
 		List<StandardizeUrl> standardizes = new ArrayList<>();
 		for (int i = 0; i < tblFields.nrNonEmpty(); i++) {
@@ -286,10 +301,54 @@ public class StandardizeUrlDialog extends AbstractStepDialog<StandardizeUrlMeta>
 		btnUnshorten.addSelectionListener(lsDef);
 		props.setLook(btnUnshorten);
 
+		// Parallel processing
+		Group groupParallel = new Group(parent, SWT.SHADOW_IN);
+		groupParallel.setText(BaseMessages.getString(PKG, "StandardizeDialog.Group.Parallel.Label"));
+		FormLayout parallelLayout = new FormLayout();
+		parallelLayout.marginWidth = Const.FORM_MARGIN;
+		parallelLayout.marginHeight = Const.FORM_MARGIN;
+		groupParallel.setLayout(parallelLayout);
+		groupParallel.setLayoutData(new FormDataBuilder().top(groupNotPreservingSemantics, Const.MARGIN * 2).fullWidth().result());
+		props.setLook(groupParallel);
+
+		Label wlParallelWorkers = new Label(groupParallel, SWT.NONE);
+		wlParallelWorkers.setText(BaseMessages.getString(PKG, "StandardizeDialog.ParallelWorkers.Label"));
+		wlParallelWorkers.setLayoutData(new FormDataBuilder().top().fullWidth().result());
+		props.setLook(wlParallelWorkers);
+
+		txtParallelWorkers = new Text(groupParallel, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtParallelWorkers.setToolTipText(BaseMessages.getString(PKG, "StandardizeDialog.ParallelWorkers.Tooltip"));
+		txtParallelWorkers
+				.setLayoutData(new FormDataBuilder().top(wlParallelWorkers, Const.MARGIN).fullWidth().result());
+		txtParallelWorkers.addModifyListener(lsMod);
+		props.setLook(txtParallelWorkers);
+
+		Label wlBatchSize = new Label(groupParallel, SWT.NONE);
+		wlBatchSize.setText(BaseMessages.getString(PKG, "StandardizeDialog.BatchSize.Label"));
+		wlBatchSize.setLayoutData(new FormDataBuilder().top(txtParallelWorkers, Const.MARGIN).fullWidth().result());
+		props.setLook(wlBatchSize);
+
+		txtBatchSize = new Text(groupParallel, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtBatchSize.setToolTipText(BaseMessages.getString(PKG, "StandardizeDialog.BatchSize.Tooltip"));
+		txtBatchSize.setLayoutData(new FormDataBuilder().top(wlBatchSize, Const.MARGIN).fullWidth().result());
+		txtBatchSize.addModifyListener(lsMod);
+		props.setLook(txtBatchSize);
+
+		Label wlMaxLatency = new Label(groupParallel, SWT.NONE);
+		wlMaxLatency.setText(BaseMessages.getString(PKG, "StandardizeDialog.MaxLatency.Label"));
+		wlMaxLatency.setLayoutData(new FormDataBuilder().top(txtBatchSize, Const.MARGIN).fullWidth().result());
+		props.setLook(wlMaxLatency);
+
+		txtMaxLatency = new Text(groupParallel, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+		txtMaxLatency.setToolTipText(BaseMessages.getString(PKG, "StandardizeDialog.MaxLatency.Tooltip"));
+		txtMaxLatency.setLayoutData(new FormDataBuilder().top(wlMaxLatency, Const.MARGIN).fullWidth().result());
+		txtMaxLatency.addModifyListener(lsMod);
+		props.setLook(txtMaxLatency);
+
 		Label lblFields = new Label(parent, SWT.NONE);
 		lblFields.setText(BaseMessages.getString(PKG, "StandardizeUrlDialog.Fields.Label"));
 		lblFields.setLayoutData(
-				new FormDataBuilder().top(groupNotPreservingSemantics, 2 * Const.MARGIN).fullWidth().result());
+				new FormDataBuilder().top(groupParallel, 2 * Const.MARGIN).fullWidth().result());
 		props.setLook(lblFields);
 
 		ColumnInfo[] columns = new ColumnInfo[] {
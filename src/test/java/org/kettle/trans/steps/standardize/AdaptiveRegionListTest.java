@@ -0,0 +1,64 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class AdaptiveRegionListTest {
+
+	@Test
+	public void order() {
+		AdaptiveRegionList list = new AdaptiveRegionList(Arrays.asList("BE", "CH", "DE"));
+		assertEquals("BE", list.get(0));
+
+		list.success(2);
+		assertEquals("DE", list.get(0));
+		assertEquals("BE", list.get(1));
+		assertEquals("CH", list.get(2));
+
+		// Ties keep their order
+		list.success(2);
+		assertEquals("CH", list.get(1));
+		assertEquals("BE", list.get(2));
+
+		list.success(1);
+		assertEquals("CH", list.get(0));
+		assertEquals(2, list.getSuccesses(0));
+		assertEquals("CH=2, DE=1, BE=0", list.toString());
+	}
+
+	@Test
+	public void copy() {
+		AdaptiveRegionList list = new AdaptiveRegionList(Arrays.asList("BE", "CH"));
+		list.success(1);
+
+		AdaptiveRegionList copy = new AdaptiveRegionList(list);
+		assertEquals("CH", copy.get(0));
+		assertEquals(0, copy.getSuccesses(0));
+
+		copy.success(1);
+		assertEquals("BE", copy.get(0));
+		assertEquals("CH", list.get(0));
+	}
+
+	@Test
+	public void addSuccesses() {
+		AdaptiveRegionList list = new AdaptiveRegionList(Arrays.asList("BE", "CH", "DE"));
+
+		AdaptiveRegionList worker1 = new AdaptiveRegionList(list);
+		worker1.success(2);
+		worker1.success(1);
+		assertEquals("DE=1, BE=1, CH=0", worker1.toString());
+		AdaptiveRegionList worker2 = new AdaptiveRegionList(list);
+		worker2.success(1);
+		worker2.success(0);
+		assertEquals("CH=2, BE=0, DE=0", worker2.toString());
+
+		list.addSuccesses(worker1);
+		assertEquals("BE=1, DE=1, CH=0", list.toString());
+		list.addSuccesses(worker2);
+		assertEquals("CH=2, BE=1, DE=1", list.toString());
+	}
+}
@@ -0,0 +1,46 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class CountryResolverTest {
+
+	private final CountryResolver resolver = CountryResolver.getInstance();
+
+	@Test
+	public void isoCodes() throws Exception {
+		assertEquals("FR", resolver.resolve("FR"));
+		assertEquals("FR", resolver.resolve("fr"));
+		assertEquals("FR", resolver.resolve("FRA"));
+		assertEquals("FR", resolver.resolve("250"));
+		assertEquals("AF", resolver.resolve("004"));
+		assertEquals("AF", resolver.resolve("4"));
+		assertEquals("GB", resolver.resolve(" gbr "));
+	}
+
+	@Test
+	public void names() throws Exception {
+		assertEquals("FR", resolver.resolve("France"));
+		assertEquals("FR", resolver.resolve("FRANCE"));
+		assertEquals("DE", resolver.resolve("Allemagne"));
+		assertEquals("DE", resolver.resolve("Germany"));
+		assertEquals("GB", resolver.resolve("United Kingdom"));
+		assertEquals("GB", resolver.resolve("UK"));
+		assertEquals("CI", resolver.resolve("Côte d'Ivoire"));
+		assertEquals("CI", resolver.resolve("cote d'ivoire"));
+		assertEquals("KR", resolver.resolve("South Korea"));
+	}
+
+	@Test
+	public void unresolved() throws Exception {
+		assertNull(resolver.resolve(null));
+		assertNull(resolver.resolve(""));
+		assertNull(resolver.resolve("  "));
+		assertNull(resolver.resolve("XYZ"));
+		assertNull(resolver.resolve("Atlantis"));
+		// Not a phone number region
+		assertNull(resolver.resolve("Antarctica"));
+	}
+}
@@ -0,0 +1,52 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+public class EmailAddressCanonicalizerTest {
+
+	@Test
+	public void bundled() throws IOException {
+		EmailAddressCanonicalizer canonicalizer = EmailAddressCanonicalizer.getDefault();
+		assertTrue(canonicalizer.size() > 10);
+
+		assertEquals("johndoe@gmail.com", canonicalizer.canonicalize("john.doe+news", "googlemail.com"));
+		assertEquals("johndoe@gmail.com", canonicalizer.canonicalize("j.o.h.n.doe", "gmail.com"));
+		assertEquals("john.doe@hotmail.fr", canonicalizer.canonicalize("john.doe+news", "hotmail.fr"));
+		assertEquals("john.doe@yahoo.com", canonicalizer.canonicalize("john.doe-news", "yahoo.com"));
+		assertEquals("john@fastmail.com", canonicalizer.canonicalize("anything", "john.fastmail.com"));
+		assertEquals("john@fastmail.com", canonicalizer.canonicalize("john+news", "fastmail.com"));
+
+		// No rule
+		assertNull(canonicalizer.canonicalize("john.doe+news", "pentaho.com"));
+		assertNull(canonicalizer.canonicalize("john.doe", "mail.gmail.com"));
+		assertNull(canonicalizer.canonicalize("\"john.doe+news\"", "gmail.com"));
+		assertNull(canonicalizer.canonicalize("+news", "gmail.com"));
+	}
+
+	@Test
+	public void read() throws IOException {
+		EmailAddressCanonicalizer canonicalizer = EmailAddressCanonicalizer
+				.read(new StringReader("# Test\n\nExample.COM;example.org;+=;dots\nexample.net\n"));
+
+		assertEquals(2, canonicalizer.size());
+		assertEquals("johndoe@example.org", canonicalizer.canonicalize("john.doe=news", "example.com"));
+		assertEquals("john.doe+news@example.net", canonicalizer.canonicalize("john.doe+news", "example.net"));
+	}
+
+	@Test(expected = IOException.class)
+	public void unknownOption() throws IOException {
+		EmailAddressCanonicalizer.read(new StringReader("example.com;;+;lowercase\n"));
+	}
+
+	@Test(expected = IOException.class)
+	public void invalidDomain() throws IOException {
+		EmailAddressCanonicalizer.read(new StringReader("john@example.com;;+;\n"));
+	}
+}
@@ -0,0 +1,151 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+
+import org.junit.Test;
+
+import org.kettle.trans.steps.standardize.EmailAddressParser.Status;
+
+public class EmailAddressParserTest {
+
+	private final EmailAddressParser parser = new EmailAddressParser();
+
+	/** The email address of the previous implementation, or null if rejected */
+	private static String parseInternetAddress(String value) {
+		try {
+			InternetAddress[] addresses = InternetAddress.parse(value);
+			if (addresses.length != 1) {
+				return null;
+			}
+			return addresses[0].getAddress().toLowerCase();
+		} catch (AddressException e) {
+			return null;
+		}
+	}
+
+	private void assertCompatible(String value) {
+		Status status = parser.parse(value);
+		assertEquals(value, parseInternetAddress(value), parser.getAddress());
+		assertEquals(value, status == Status.VALID, parser.getAddress() != null);
+	}
+
+	private void assertStatus(Status status, String value) {
+		assertEquals(value, status, parser.parse(value));
+		assertNull(value, parser.getAddress());
+	}
+
+	@Test
+	public void valid() {
+		assertEquals(Status.VALID, parser.parse("John Doe <JOHN.DOE@PENTAHO.COM>"));
+		assertEquals("john.doe@pentaho.com", parser.getAddress());
+
+		String normalized = "john.doe@pentaho.com";
+		assertEquals(Status.VALID, parser.parse(normalized));
+		assertSame(normalized, parser.getAddress());
+	}
+
+	@Test
+	public void components() {
+		assertEquals(Status.VALID, parser.parse("John Doe <JOHN.DOE@Mail.Pentaho.COM>"));
+		assertEquals("john.doe", parser.getLocalPart());
+		assertEquals("mail.pentaho.com", parser.getDomain());
+		assertEquals("com", parser.getTopLevelDomain());
+
+		assertEquals(Status.VALID, parser.parse("\"John Doe\"@localhost"));
+		assertEquals("\"john doe\"", parser.getLocalPart());
+		assertEquals("localhost", parser.getDomain());
+		assertEquals("localhost", parser.getTopLevelDomain());
+
+		assertEquals(Status.VALID, parser.parse("john.doe@[192.168.0.1]"));
+		assertEquals("[192.168.0.1]", parser.getDomain());
+		assertNull(parser.getTopLevelDomain());
+
+		// Non ASCII lower case of a different length
+		assertEquals(Status.VALID, parser.parse("\"\u0130\"@pentaho.com"));
+		assertEquals("pentaho.com", parser.getDomain());
+		assertEquals("com", parser.getTopLevelDomain());
+
+		assertEquals(Status.MISSING_AT, parser.parse("john.doe"));
+		assertNull(parser.getLocalPart());
+		assertNull(parser.getDomain());
+		assertNull(parser.getTopLevelDomain());
+	}
+
+	@Test
+	public void compatibility() {
+		String[] values = { "john.doe@pentaho.com", "JOHN.DOE@PENTAHO.COM", "John Doe <john.doe@pentaho.com>",
+				"John Doe <JOHN.DOE@PENTAHO.COM>", "\"John Doe\" <JOHN.DOE@PENTAHO.COM>",
+				"JOHN.DOE@PENTAHO.COM (John Doe)", "(John Doe) john.doe@pentaho.com", "JOHN..DOE@PENTAHO.COM",
+				"  john.doe@pentaho.com  ", "<john.doe@pentaho.com>", "John Doe< john.doe@pentaho.com >",
+				"john+tag@pentaho.com", "o'brien@example.ie", "!#$%&'*+-/=?^_`{|}~@example.com",
+				"\"john doe\"@pentaho.com", "\"john@doe\"@pentaho.com", "\"j\\\"d\"@pentaho.com",
+				"john.doe@[192.168.0.1]", "john.doe@sub-domain.pentaho.com", "john.doe@pentaho",
+				"john.doe@pentaho.com <john.doe@pentaho.com>", "J\u00e9r\u00f4me Dupont <jerome@example.fr>",
+				"\"Doe, John\" <john.doe@pentaho.com>", "John (the man) Doe <john.doe@pentaho.com> (work)",
+				// Rejected by both
+				"", "   ", "JOHN .DOE@PENTAHO.COM", "JOHN.DOE@@PENTAHO.COM", "@pentaho.com", "john.doe@",
+				"john.doe@.pentaho.com", "john.doe@pentaho..com", "john.doe@pentaho.com.",
+				"john.doe@pentaho.com, jane.doe@pentaho.com", "John <john.doe@pentaho.com",
+				"John john.doe@pentaho.com>",
+				"john.doe@pentaho.com (John", "\"john.doe@pentaho.com", "john,doe@pentaho.com", "john;doe@pentaho.com",
+				"john:doe@pentaho.com", "john<doe@pentaho.com", "john.doe@pen taho.com", "john.doe@pentaho.com)",
+				"j\u00f6hn@pentaho.com", "john@p\u00e9ntaho.com", "John <>", "<>",
+				"john.doe@pentaho.com john.doe@pentaho.com", "john.doe@gmail.com'", "john@gmail.com*",
+				"john@pentaho_corp.com", "john@{gmail}.com", "john@gmail.c=m" };
+		for (String value : values) {
+			assertCompatible(value);
+		}
+	}
+
+	@Test
+	public void stricterThanInternetAddress() {
+		// No domain, the local part only
+		assertTrue(parseInternetAddress("john.doe") != null);
+		assertStatus(Status.MISSING_AT, "john.doe");
+
+		// Quoted string not separated by a dot
+		assertTrue(parseInternetAddress("john\"doe\"@pentaho.com") != null);
+		assertStatus(Status.INVALID_LOCAL_PART, "john\"doe\"@pentaho.com");
+
+		// Obsolete route address
+		assertTrue(parseInternetAddress("<@relay.com:john.doe@pentaho.com>") != null);
+		assertStatus(Status.MISSING_LOCAL_PART, "<@relay.com:john.doe@pentaho.com>");
+
+		// Group
+		assertTrue(parseInternetAddress("Group: john.doe@pentaho.com;") != null);
+		assertStatus(Status.INVALID_LOCAL_PART, "Group: john.doe@pentaho.com;");
+
+		// Control character
+		assertTrue(parseInternetAddress("john.doe@pentaho.com\u0000") != null);
+		assertStatus(Status.INVALID_CHARACTER, "john.doe@pentaho.com\u0000");
+	}
+
+	@Test
+	public void status() {
+		assertStatus(Status.EMPTY, " ");
+		assertStatus(Status.EMPTY, "John <>");
+		assertStatus(Status.SYNTAX, "John <john.doe@pentaho.com");
+		assertStatus(Status.SYNTAX, "(John john.doe@pentaho.com");
+		assertStatus(Status.SYNTAX, "john.doe@pentaho.com (John");
+		assertStatus(Status.MULTIPLE_ADDRESSES, "john.doe@pentaho.com, jane.doe@pentaho.com");
+		assertStatus(Status.MULTIPLE_ADDRESSES, "John <john.doe@pentaho.com>, Jane <jane.doe@pentaho.com>");
+		assertStatus(Status.MISSING_AT, "john.doe");
+		assertStatus(Status.MISSING_LOCAL_PART, "@pentaho.com");
+		assertStatus(Status.INVALID_LOCAL_PART, "JOHN .DOE@PENTAHO.COM");
+		assertStatus(Status.MISSING_DOMAIN, "john.doe@");
+		assertStatus(Status.MISSING_DOMAIN, "John <john.doe@>");
+		assertStatus(Status.INVALID_DOMAIN, "JOHN.DOE@@PENTAHO.COM");
+		assertStatus(Status.INVALID_DOMAIN, "john.doe@pentaho..com");
+		assertStatus(Status.INVALID_DOMAIN, "john.doe@pentaho.com.");
+		assertStatus(Status.INVALID_DOMAIN, "john@pentaho_corp.com");
+		assertStatus(Status.INVALID_DOMAIN, "john.doe@gmail.com'");
+		assertStatus(Status.INVALID_CHARACTER, "j\u00f6hn@pentaho.com");
+		assertStatus(Status.INVALID_CHARACTER, "john@p\u00e9ntaho.com");
+	}
+}
@@ -0,0 +1,70 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+public class EmailDomainCorrectorTest {
+
+	@Test
+	public void suggest() throws IOException {
+		EmailDomainCorrector corrector = EmailDomainCorrector.getDefault();
+		assertTrue(corrector.size() > 50);
+
+		assertEquals("gmail.com", corrector.suggest("gmial.com"));
+		assertEquals("gmail.com", corrector.suggest("mgail.com"));
+		assertEquals("gmail.com", corrector.suggest("gmail.cpm"));
+		assertEquals("gmail.com", corrector.suggest("gmaill.com"));
+		assertEquals("hotmail.fr", corrector.suggest("hotmial.fr"));
+		assertEquals("hotmail.com", corrector.suggest("hotmal.com"));
+		assertEquals("yahoo.com", corrector.suggest("yaho.com"));
+		assertEquals("outlook.com", corrector.suggest("outlok.cm"));
+
+		// Popular, unrelated, too far for its length or a domain literal
+		assertNull(corrector.suggest("gmail.com"));
+		assertNull(corrector.suggest("mail.com"));
+		assertNull(corrector.suggest("pentaho.com"));
+		assertNull(corrector.suggest("aol.c"));
+		assertNull(corrector.suggest("[192.168.0.1]"));
+
+		// Real domains: a valid top level domain alone or another first character
+		assertNull(corrector.suggest("yahoo.ca"));
+		assertNull(corrector.suggest("hotmail.be"));
+		assertNull(corrector.suggest("gmail.co"));
+		assertNull(corrector.suggest("gmx.co"));
+		assertNull(corrector.suggest("aim.com"));
+		assertNull(corrector.suggest("email.com"));
+
+		// Cached, with or without a suggestion
+		assertEquals("gmail.com", corrector.suggest("gmial.com"));
+		assertNull(corrector.suggest("pentaho.com"));
+	}
+
+	@Test
+	public void popularity() throws IOException {
+		EmailDomainCorrector corrector = EmailDomainCorrector
+				.read(new StringReader("# Popular\nexample.com\nexample.org\nEXAMPLE.COM\n"));
+
+		assertEquals(2, corrector.size());
+		// The same distance to both, the most popular wins
+		assertEquals("example.com", corrector.suggest("example.cog"));
+		// The closest wins
+		assertEquals("example.org", corrector.suggest("exmple.org"));
+		assertEquals(2, corrector.getCacheSize());
+	}
+
+	@Test
+	public void distance() {
+		assertEquals(0, EmailDomainCorrector.distance("gmail.com", "gmail.com", 2));
+		assertEquals(1, EmailDomainCorrector.distance("gmial.com", "gmail.com", 2));
+		assertEquals(1, EmailDomainCorrector.distance("gmal.com", "gmail.com", 2));
+		assertEquals(2, EmailDomainCorrector.distance("gmal.cm", "gmail.com", 2));
+		assertEquals(3, EmailDomainCorrector.distance("yahoo.com", "gmail.com", 2));
+		assertEquals(3, EmailDomainCorrector.distance("a", "abcd", 2));
+	}
+}
@@ -0,0 +1,69 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import org.kettle.trans.steps.standardize.EmailDomainValidator.Verdict;
+
+public class EmailDomainValidatorTest {
+
+	@Test
+	public void topLevelDomains() throws IOException {
+		EmailDomainSet domains = EmailDomainSet.getTopLevelDomains();
+		assertTrue(domains.size() > 1400);
+		assertTrue(domains.contains("com"));
+		assertTrue(domains.contains("FR"));
+		assertTrue(domains.contains("bmw"));
+		assertTrue(domains.contains("microsoft"));
+		assertTrue(domains.contains("eco"));
+		assertTrue(domains.contains("xn--p1ai"));
+		assertTrue(domains.contains("mail.pentaho.com", 13, 16));
+		assertFalse(domains.contains("con"));
+		assertFalse(domains.contains("pentaho.com"));
+	}
+
+	@Test
+	public void read() throws IOException {
+		EmailDomainSet domains = EmailDomainSet
+				.read(new StringReader("# Version 2018\nCOM\n\n  org \ncom\nNET\n"));
+		assertEquals(3, domains.size());
+		assertTrue(domains.contains("org"));
+		assertTrue(domains.contains("Net"));
+	}
+
+	@Test
+	public void verdict() throws IOException {
+		EmailDomainSet disposableDomains = EmailDomainSet
+				.read(new StringReader("mailinator.com\nyopmail.fr\nexample.unknowntld\n"));
+		EmailDomainValidator validator = new EmailDomainValidator(EmailDomainSet.getTopLevelDomains(),
+				disposableDomains);
+
+		assertSame(Verdict.VALID, validator.getVerdict("pentaho.com"));
+		assertSame(Verdict.VALID, validator.getVerdict("[192.168.0.1]"));
+		assertSame(Verdict.DISPOSABLE, validator.getVerdict("mailinator.com"));
+		assertSame(Verdict.DISPOSABLE, validator.getVerdict("eu.mailinator.com"));
+		assertSame(Verdict.VALID, validator.getVerdict("notmailinator.com"));
+		assertSame(Verdict.UNKNOWN_TOP_LEVEL_DOMAIN, validator.getVerdict("pentaho.con"));
+		assertSame(Verdict.UNKNOWN_TOP_LEVEL_DOMAIN, validator.getVerdict("localhost"));
+		assertSame(Verdict.UNKNOWN_TOP_LEVEL_DOMAIN_DISPOSABLE, validator.getVerdict("example.unknowntld"));
+
+		// Cached once per distinct domain
+		assertSame(Verdict.DISPOSABLE, validator.getVerdict("mailinator.com"));
+		assertEquals(8, validator.size());
+	}
+
+	@Test
+	public void noDisposableDomains() throws IOException {
+		EmailDomainValidator validator = new EmailDomainValidator(EmailDomainSet.getTopLevelDomains(), null);
+
+		assertSame(Verdict.VALID, validator.getVerdict("mailinator.com"));
+		assertFalse(validator.getVerdict("pentaho.con").isKnownTopLevelDomain());
+	}
+}
@@ -0,0 +1,108 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.pentaho.di.core.exception.KettleException;
+
+public class OrderedRowProcessorTest {
+
+	@Test
+	public void keepOrder() throws Exception {
+		OrderedRowProcessor<Object[]> processor = new OrderedRowProcessor<>("test", 4, 7, 1000, () -> row -> {
+			// Workers complete out of order
+			long spin = ThreadLocalRandom.current().nextInt(1000);
+			while (spin-- > 0) {
+				Thread.yield();
+			}
+			return new Object[] { row[0], (Long) row[0] * 2 };
+		});
+
+		List<Object[]> output = new ArrayList<>();
+		try {
+			for (long i = 0; i < 500; i++) {
+				processor.add(new Object[] { i });
+				assertTrue(processor.consume(output::add, false));
+			}
+			processor.submit();
+			assertTrue(processor.consume(output::add, true));
+		} finally {
+			processor.shutdown();
+		}
+
+		assertEquals(500, output.size());
+		for (int i = 0; i < 500; i++) {
+			assertEquals((long) i, output.get(i)[0]);
+			assertEquals((long) i * 2, output.get(i)[1]);
+		}
+	}
+
+	@Test
+	public void stop() throws Exception {
+		OrderedRowProcessor<Object[]> processor = new OrderedRowProcessor<>("test", 2, 10, 1000,
+				() -> row -> ((Integer) row[0] == 15) ? null : row);
+
+		List<Object[]> output = new ArrayList<>();
+		try {
+			for (int i = 0; i < 30; i++) {
+				processor.add(new Object[] { i });
+			}
+			processor.submit();
+			assertFalse(processor.consume(output::add, true));
+		} finally {
+			processor.shutdown();
+		}
+
+		assertEquals(15, output.size());
+	}
+
+	@Test
+	public void exception() throws Exception {
+		OrderedRowProcessor<Object[]> processor = new OrderedRowProcessor<>("test", 2, 10, 1000, () -> row -> {
+			throw new KettleException("failed");
+		});
+
+		try {
+			processor.add(new Object[] { 1 });
+			processor.submit();
+			processor.consume(row -> fail(), true);
+			fail();
+		} catch (KettleException e) {
+			assertTrue(e.getMessage().contains("failed"));
+		} finally {
+			processor.shutdown();
+		}
+	}
+
+	@Test
+	public void shutdownWaitsForWorkers() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicInteger done = new AtomicInteger();
+		OrderedRowProcessor<Object[]> processor = new OrderedRowProcessor<>("test", 1, 10, 1000, () -> row -> {
+			started.countDown();
+			// Busy, not interrupted by the shutdown
+			long end = System.nanoTime() + 200_000_000L;
+			while (System.nanoTime() < end) {
+				Thread.yield();
+			}
+			done.incrementAndGet();
+			return row;
+		});
+
+		processor.add(new Object[] { 1 });
+		processor.submit();
+		started.await();
+		processor.shutdown();
+
+		assertEquals(1, done.get());
+	}
+}
@@ -0,0 +1,107 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberType;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+public class PhoneNumberAutomatonTest {
+
+	private final PhoneNumberUtil phoneNumberService = PhoneNumberUtil.getInstance();
+
+	private static byte[] digits(String value) {
+		byte[] digits = new byte[value.length()];
+		for (int i = 0; i < digits.length; i++) {
+			digits[i] = (byte) (value.charAt(i) - '0');
+		}
+		return digits;
+	}
+
+	@Test
+	public void patterns() {
+		PhoneNumberAutomaton.Dfa dfa = PhoneNumberAutomaton.compile("6\\d{8}", "(?:1[0-35-8]|[^0-2]\\d)\\d{1,2}?", "");
+
+		assertEquals(1, dfa.match(digits("612345678"), 9));
+		assertEquals(2, dfa.match(digits("153"), 3));
+		assertEquals(2, dfa.match(digits("6123"), 4));
+		assertEquals(0, dfa.match(digits("143"), 3));
+		assertEquals(0, dfa.match(digits("61234567"), 8));
+		assertEquals(0, dfa.match(digits("6123456789"), 10));
+
+		dfa = PhoneNumberAutomaton.compile("262|69|8");
+		assertTrue(dfa.lookingAt(digits("262123456"), 9));
+		assertTrue(dfa.lookingAt(digits("8"), 1));
+		assertFalse(dfa.lookingAt(digits("26"), 2));
+		assertFalse(dfa.lookingAt(digits("639123456"), 9));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unsupportedPattern() {
+		PhoneNumberAutomaton.compile("\\d+");
+	}
+
+	@Test
+	public void notCompiled() throws Exception {
+		PhoneNumberAutomaton automaton = PhoneNumberAutomaton.compile(phoneNumberService, Arrays.asList("FR"));
+
+		assertTrue(automaton.isCompiled(33));
+		assertFalse(automaton.isCompiled(41));
+		assertNull(automaton.getNumberType(phoneNumberService.parse("044 668 18 00", "CH")));
+		assertEquals(PhoneNumberType.MOBILE, automaton.getNumberType(phoneNumberService.parse("06 12 34 56 78", "FR")));
+	}
+
+	@Test
+	public void agreement() {
+		PhoneNumberAutomaton automaton = PhoneNumberAutomaton.compile(phoneNumberService,
+				phoneNumberService.getSupportedRegions());
+		assertEquals(phoneNumberService.getSupportedRegions().size(), automaton.getRegions());
+
+		Random random = new Random(2018);
+		for (String region : phoneNumberService.getSupportedRegions()) {
+			List<PhoneNumber> phoneNumbers = new ArrayList<>();
+			for (PhoneNumberType type : PhoneNumberType.values()) {
+				PhoneNumber example = phoneNumberService.getExampleNumberForType(region, type);
+				if (example != null) {
+					phoneNumbers.add(example);
+				}
+			}
+
+			// Change the last digits of the examples, and random numbers
+			int examples = phoneNumbers.size();
+			for (int i = 0; i < examples; i++) {
+				for (int j = 0; j < 50; j++) {
+					PhoneNumber phoneNumber = new PhoneNumber().mergeFrom(phoneNumbers.get(i));
+					long scale = (long) Math.pow(10, 1 + random.nextInt(6));
+					long nationalNumber = phoneNumber.getNationalNumber() / scale * scale;
+					phoneNumber.setNationalNumber(nationalNumber + (long) (random.nextDouble() * scale));
+					phoneNumbers.add(phoneNumber);
+				}
+			}
+			for (int j = 0; j < 50; j++) {
+				PhoneNumber phoneNumber = new PhoneNumber()
+						.setCountryCode(phoneNumberService.getCountryCodeForRegion(region))
+						.setNationalNumber((long) (random.nextDouble() * Math.pow(10, 1 + random.nextInt(15))));
+				if (j % 10 == 0) {
+					phoneNumber.setItalianLeadingZero(true);
+				}
+				phoneNumbers.add(phoneNumber);
+			}
+
+			for (PhoneNumber phoneNumber : phoneNumbers) {
+				assertEquals(region + " " + phoneNumberService.getNationalSignificantNumber(phoneNumber),
+						phoneNumberService.getNumberType(phoneNumber), automaton.getNumberType(phoneNumber));
+			}
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.kettle.trans.steps.standardize.StandardizePhoneNumber.ValidationLevel;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberFormat;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberType;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+public class PhoneNumberCacheTest {
+
+	private final PhoneNumberUtil phoneNumberService = PhoneNumberUtil.getInstance();
+
+	private PhoneNumberCache.Result result(String value, String region) throws Exception {
+		PhoneNumber phoneNumber = phoneNumberService.parse(value, region);
+		return new PhoneNumberCache.Result(phoneNumber,
+				phoneNumberService.format(phoneNumber, PhoneNumberFormat.E164), PhoneNumberFormat.E164);
+	}
+
+	@Test
+	public void formats() throws Exception {
+		PhoneNumberCache.Result result = result("044 668 18 00", "CH");
+
+		assertSame(result.getFormatted(), result.getFormatted(phoneNumberService, PhoneNumberFormat.E164));
+		String national = result.getFormatted(phoneNumberService, PhoneNumberFormat.NATIONAL);
+		assertEquals("044 668 18 00", national);
+		assertSame(national, result.getFormatted(phoneNumberService, PhoneNumberFormat.NATIONAL));
+		assertEquals("tel:+41-44-668-18-00", result.getFormatted(phoneNumberService, PhoneNumberFormat.RFC3966));
+	}
+
+	@Test
+	public void validNumber() throws Exception {
+		PhoneNumberCache.Result result = result("06 12 34 56 78", "FR");
+
+		assertTrue(result.isValid(phoneNumberService, ValidationLevel.NONE));
+		assertNull(result.getReason(phoneNumberService, ValidationLevel.NONE));
+		assertTrue(result.isValid(phoneNumberService, ValidationLevel.POSSIBLE));
+		assertEquals("IS_POSSIBLE", result.getReason(phoneNumberService, ValidationLevel.POSSIBLE));
+
+		// The type gives the validity
+		assertNull(result.valid);
+		assertEquals(PhoneNumberType.MOBILE, result.getType(phoneNumberService));
+		assertNotNull(result.valid);
+		assertTrue(result.isValid(phoneNumberService, ValidationLevel.VALID));
+		assertEquals(PhoneNumberCache.Result.REASON_VALID,
+				result.getReason(phoneNumberService, ValidationLevel.VALID_AND_TYPE));
+	}
+
+	@Test
+	public void invalidNumber() throws Exception {
+		// Possible length, but no area code starts with 0
+		PhoneNumberCache.Result result = result("+1 012 555 0123", "US");
+
+		assertTrue(result.isValid(phoneNumberService, ValidationLevel.POSSIBLE));
+		assertFalse(result.isValid(phoneNumberService, ValidationLevel.VALID));
+		assertEquals(PhoneNumberCache.Result.REASON_INVALID,
+				result.getReason(phoneNumberService, ValidationLevel.VALID));
+		assertEquals(PhoneNumberType.UNKNOWN, result.getType(phoneNumberService));
+
+		result = result("+33 1 23", "FR");
+		assertFalse(result.isValid(phoneNumberService, ValidationLevel.POSSIBLE));
+		assertEquals("TOO_SHORT", result.getReason(phoneNumberService, ValidationLevel.POSSIBLE));
+		assertEquals("TOO_SHORT", result.getReason(phoneNumberService, ValidationLevel.VALID));
+	}
+
+	@Test
+	public void notParsed() {
+		PhoneNumberCache.Result result = new PhoneNumberCache.Result(null, null);
+
+		assertFalse(result.isValid(phoneNumberService, ValidationLevel.NONE));
+		assertEquals(PhoneNumberCache.Result.REASON_ERROR, result.getReason(phoneNumberService, ValidationLevel.NONE));
+		assertEquals(PhoneNumberCache.Result.REASON_ERROR,
+				result.getReason(phoneNumberService, ValidationLevel.VALID_AND_TYPE));
+	}
+}
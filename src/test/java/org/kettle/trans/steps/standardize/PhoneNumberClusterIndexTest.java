@@ -0,0 +1,74 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+public class PhoneNumberClusterIndexTest {
+
+	private final PhoneNumberUtil phoneNumberService = PhoneNumberUtil.getInstance();
+
+	private PhoneNumber parse(String value) throws Exception {
+		return phoneNumberService.parse(value, "FR");
+	}
+
+	@Test
+	public void cluster() throws Exception {
+		PhoneNumberClusterIndex index = new PhoneNumberClusterIndex(phoneNumberService);
+
+		long first = index.cluster(parse("06 12 34 56 78"));
+		assertEquals(1, first);
+
+		// Formatting and country code
+		assertEquals(first, index.cluster(parse("+33 6 12 34 56 78")));
+		assertEquals(first, index.cluster(parse("0033612345678")));
+
+		// Extension
+		assertEquals(first, index.cluster(parse("06 12 34 56 78 ext. 12")));
+
+		// Same national number, other country
+		long other = index.cluster(parse("+41 612345678"));
+		assertNotEquals(first, other);
+
+		assertEquals(2, index.cluster(parse("+41612345678")));
+		assertEquals(3, index.cluster(parse("01 23 45 67 89")));
+
+		assertEquals(3, index.getClusters());
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	public void extensions() throws Exception {
+		PhoneNumberClusterIndex index = new PhoneNumberClusterIndex(phoneNumberService);
+
+		// Extensions first
+		assertEquals(1, index.cluster(parse("06 12 34 56 78 ext. 1")));
+		assertEquals(1, index.cluster(parse("06 12 34 56 78 ext. 2")));
+		assertEquals(1, index.cluster(parse("06 12 34 56 78")));
+
+		// Number without extension first
+		assertEquals(2, index.cluster(parse("01 23 45 67 89")));
+		assertEquals(2, index.cluster(parse("01 23 45 67 89 ext. 1")));
+		assertEquals(2, index.cluster(parse("01 23 45 67 89 ext. 2")));
+
+		assertEquals(2, index.getClusters());
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	public void phoneNumberNotKept() throws Exception {
+		PhoneNumberClusterIndex index = new PhoneNumberClusterIndex(phoneNumberService);
+
+		PhoneNumber phoneNumber = parse("06 12 34 56 78");
+		index.cluster(phoneNumber);
+
+		// The phone number is reused by the next row
+		phoneNumber.setCountryCode(41);
+		assertEquals(2, index.cluster(phoneNumber));
+		assertEquals(1, index.cluster(parse("0612345678")));
+	}
+}
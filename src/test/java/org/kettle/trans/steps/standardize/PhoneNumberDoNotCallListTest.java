@@ -0,0 +1,65 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+public class PhoneNumberDoNotCallListTest {
+
+	@Test
+	public void text() throws IOException {
+		PhoneNumberDoNotCallList list = PhoneNumberDoNotCallList.read(new StringReader(
+				"# Do not call\n+33612345678\n  +12015550123 \n\n+33612345678\n41446681800\n+33 6 12\nN/A\n"));
+
+		assertEquals(3, list.size());
+		assertEquals(2, list.getInvalid());
+		assertFalse(list.isMapped());
+		assertTrue(list.contains(33612345678L));
+		assertTrue(list.contains(12015550123L));
+		assertTrue(list.contains(41446681800L));
+		assertFalse(list.contains(33612345679L));
+		assertFalse(list.contains(3361234567L));
+	}
+
+	@Test
+	public void parse() {
+		assertEquals(33612345678L, PhoneNumberDoNotCallList.parse("+33612345678"));
+		assertEquals(-1, PhoneNumberDoNotCallList.parse("+"));
+		assertEquals(-1, PhoneNumberDoNotCallList.parse("+33-612345678"));
+		assertEquals(-1, PhoneNumberDoNotCallList.parse("+1234567890123456789"));
+	}
+
+	@Test
+	public void binary() throws IOException {
+		Path file = Files.createTempFile("donotcall", PhoneNumberDoNotCallList.BINARY_EXTENSION);
+		try {
+			try (OutputStream stream = Files.newOutputStream(file);
+					DataOutputStream output = new DataOutputStream(stream)) {
+				for (long number = 33600000000L; number < 33600100000L; number += 7) {
+					output.writeLong(number);
+				}
+			}
+
+			PhoneNumberDoNotCallList list = PhoneNumberDoNotCallList.load(file);
+			assertTrue(list.isMapped());
+			assertEquals(14286, list.size());
+			assertTrue(list.contains(33600000000L));
+			assertTrue(list.contains(33600000007L));
+			assertTrue(list.contains(33600099995L));
+			assertFalse(list.contains(33600000001L));
+			assertFalse(list.contains(12015550123L));
+			assertFalse(list.contains(99999999999L));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
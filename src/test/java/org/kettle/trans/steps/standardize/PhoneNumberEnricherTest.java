@@ -0,0 +1,68 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberType;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+public class PhoneNumberEnricherTest {
+
+	private final PhoneNumberUtil phoneNumberService = PhoneNumberUtil.getInstance();
+
+	private final PhoneNumberEnricher enricher = PhoneNumberEnricher.getInstance();
+
+	private PhoneNumberType type(PhoneNumber phoneNumber) {
+		return phoneNumberService.getNumberType(phoneNumber);
+	}
+
+	@Test
+	public void description() throws Exception {
+		PhoneNumber phoneNumber = phoneNumberService.parse("044 668 18 00", "CH");
+		assertEquals("Zurich", enricher.getDescription(phoneNumber, type(phoneNumber), Locale.ENGLISH));
+	}
+
+	@Test
+	public void carrier() throws Exception {
+		PhoneNumber phoneNumber = phoneNumberService.parse("+41 79 876 54 32", "CH");
+		assertEquals("Swisscom", enricher.getCarrier(phoneNumber, type(phoneNumber), Locale.ENGLISH));
+
+		// Not a mobile phone number
+		phoneNumber = phoneNumberService.parse("044 668 18 00", "CH");
+		assertNull(enricher.getCarrier(phoneNumber, type(phoneNumber), Locale.ENGLISH));
+	}
+
+	@Test
+	public void timeZones() throws Exception {
+		PhoneNumber phoneNumber = phoneNumberService.parse("044 668 18 00", "CH");
+		assertEquals("Europe/Zurich", enricher.getTimeZones(phoneNumber, type(phoneNumber)));
+
+		// Several time zones
+		phoneNumber = phoneNumberService.parse("+1 800 253 0000", "US");
+		assertTrue(enricher.getTimeZones(phoneNumber, type(phoneNumber))
+				.contains(PhoneNumberEnricher.TIME_ZONE_SEPARATOR));
+	}
+
+	@Test
+	public void cache() throws Exception {
+		int size = enricher.getCacheSize();
+
+		// The same leading digits
+		PhoneNumber phoneNumber = phoneNumberService.parse("+49 30 1234567 80", "DE");
+		String description = enricher.getDescription(phoneNumber, type(phoneNumber), Locale.GERMAN);
+		phoneNumber = phoneNumberService.parse("+49 30 1234567 81", "DE");
+		assertEquals(description, enricher.getDescription(phoneNumber, type(phoneNumber), Locale.GERMAN));
+		assertEquals(size + 1, enricher.getCacheSize());
+
+		// Not valid, not looked up
+		phoneNumber = phoneNumberService.parse("+49 1234", "DE");
+		assertNull(enricher.getDescription(phoneNumber, type(phoneNumber), Locale.GERMAN));
+		assertEquals(size + 1, enricher.getCacheSize());
+	}
+}
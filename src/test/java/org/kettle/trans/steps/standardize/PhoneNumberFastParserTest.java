@@ -0,0 +1,88 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberFormat;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+public class PhoneNumberFastParserTest {
+
+	private final PhoneNumberUtil phoneNumberService = PhoneNumberUtil.getInstance();
+
+	private final PhoneNumberFastParser parser = new PhoneNumberFastParser(
+			Arrays.asList("FR", "US", "DE", "IT", "GB", "BE", "CH", "RU", "JP", "AR", "IL", "ZZ"));
+
+	private void assertSameAsParser(String value, String region) throws NumberParseException {
+		PhoneNumber phoneNumber = new PhoneNumber();
+		assertTrue(value, parser.parse(value, region, phoneNumber));
+
+		PhoneNumber expected = phoneNumberService.parse(value, region);
+		assertEquals(value, expected.getCountryCode(), phoneNumber.getCountryCode());
+		assertEquals(value, expected.getNationalNumber(), phoneNumber.getNationalNumber());
+		assertEquals(value, phoneNumberService.format(expected, PhoneNumberFormat.E164), parser.toE164());
+	}
+
+	@Test
+	public void rules() {
+		assertEquals(9, parser.size());
+		assertEquals("0", parser.getRule("FR").getTrunkPrefix());
+		assertEquals("00", parser.getRule("FR").getInternationalPrefix());
+		assertEquals("010", parser.getRule("JP").getInternationalPrefix());
+		assertEquals(9, parser.getRule("FR").getMaxLength());
+		assertEquals("1", parser.getRule("US").getTrunkPrefix());
+		assertEquals("", parser.getRule("IT").getTrunkPrefix());
+
+		// Transform rule, international prefix pattern and unknown region
+		assertNull(parser.getRule("AR"));
+		assertNull(parser.getRule("IL"));
+		assertNull(parser.getRule("ZZ"));
+		assertNotNull(new PhoneNumberFastParser(parser).getRule("DE"));
+	}
+
+	@Test
+	public void cleanNumbers() throws NumberParseException {
+		assertSameAsParser("06 12 34 56 78", "FR");
+		assertSameAsParser("06.12.34.56.78", "FR");
+		assertSameAsParser("612345678", "FR");
+		assertSameAsParser("(201) 555-0123", "US");
+		assertSameAsParser("030 1234567", "DE");
+		assertSameAsParser("020 7946 0018", "GB");
+		assertSameAsParser("8 (495) 123-45-67", "RU");
+		assertSameAsParser("312 345 6789", "IT");
+	}
+
+	@Test
+	public void leftToParser() {
+		PhoneNumber phoneNumber = new PhoneNumber();
+
+		// Leading zero of the national significant number
+		assertFalse(parser.parse("06 1234 5678", "IT", phoneNumber));
+		// International form, letters and extension
+		assertFalse(parser.parse("+33 6 12 34 56 78", "FR", phoneNumber));
+		assertFalse(parser.parse("1-800-FLOWERS", "US", phoneNumber));
+		assertFalse(parser.parse("06 12 34 56 78 ext 12", "FR", phoneNumber));
+		assertFalse(parser.parse("06\t12 34 56 78", "FR", phoneNumber));
+		// International prefix or country calling code
+		assertFalse(parser.parse("010 852 6724 8395", "JP", phoneNumber));
+		assertFalse(parser.parse("49942587317", "DE", phoneNumber));
+		assertFalse(parser.parse("00 49 30 1234567", "DE", phoneNumber));
+		assertFalse(parser.parse("1 201 555 0123", "US", phoneNumber));
+		// Length out of range
+		assertFalse(parser.parse("06 12 34", "FR", phoneNumber));
+		assertFalse(parser.parse("06 12 34 56 78 90", "FR", phoneNumber));
+		// Not eligible regions
+		assertFalse(parser.parse("011 1234-5678", "AR", phoneNumber));
+		assertFalse(parser.parse("06 12 34 56 78", "ES", phoneNumber));
+		assertFalse(parser.parse("06 12 34 56 78", null, phoneNumber));
+	}
+}
@@ -0,0 +1,44 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PhoneNumberPreFilterTest {
+
+	private final PhoneNumberPreFilter filter = new PhoneNumberPreFilter(PhoneNumberPreFilter.DEFAULT_MIN_DIGITS,
+			PhoneNumberPreFilter.DEFAULT_MAX_DIGITS, PhoneNumberPreFilter.DEFAULT_MAX_LETTER_PERCENT);
+
+	@Test
+	public void garbage() {
+		assertFalse(filter.accept("N/A"));
+		assertFalse(filter.accept("0"));
+		assertFalse(filter.accept("xxx"));
+		assertFalse(filter.accept("-"));
+		assertFalse(filter.accept("john.doe123@example.com"));
+		assertFalse(filter.accept("unknown 12"));
+		assertFalse(filter.accept("Call me back later 123"));
+		assertFalse(filter.accept("12345678901234567890123456"));
+	}
+
+	@Test
+	public void phoneNumbers() {
+		assertTrue(filter.accept("06 12 34 56 78"));
+		assertTrue(filter.accept("+33 (0)6.12.34.56.78"));
+		assertTrue(filter.accept("+1 650-253-0000 ext. 1234"));
+		assertTrue(filter.accept("tel:+1-650-253-0000"));
+		assertTrue(filter.accept("1-800-FLOWERS"));
+		assertTrue(filter.accept("０６ １２ ３４ ５６ ７８"));
+		assertTrue(filter.accept("112"));
+	}
+
+	@Test
+	public void configuration() {
+		PhoneNumberPreFilter strict = new PhoneNumberPreFilter(8, 15, 0);
+		assertFalse(strict.accept("112"));
+		assertFalse(strict.accept("1-800-FLOWERS"));
+		assertTrue(strict.accept("06 12 34 56 78"));
+		assertFalse(strict.accept("+1 650-253-0000 ext. 12345"));
+	}
+}
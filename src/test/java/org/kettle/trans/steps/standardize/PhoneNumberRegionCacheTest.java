@@ -0,0 +1,85 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberType;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+public class PhoneNumberRegionCacheTest {
+
+	private final PhoneNumberUtil phoneNumberService = PhoneNumberUtil.getInstance();
+
+	@Test
+	public void regions() throws NumberParseException {
+		PhoneNumberRegionCache cache = new PhoneNumberRegionCache(phoneNumberService);
+
+		assertEquals("US", cache.getRegionCode(phoneNumberService.parse("+1 201 555 0123", null)));
+		assertEquals("CA", cache.getRegionCode(phoneNumberService.parse("+1 416 555 0123", null)));
+		assertEquals("AG", cache.getRegionCode(phoneNumberService.parse("+1 268 464 1234", null)));
+		assertEquals("KZ", cache.getRegionCode(phoneNumberService.parse("+7 701 123 4567", null)));
+		assertEquals("FR", cache.getRegionCode(phoneNumberService.parse("+33 6 12 34 56 78", null)));
+		assertNull(cache.getRegionCode(phoneNumberService.parse("+1 012 555 0123", null)));
+		assertEquals("US", cache.getRegionCode(phoneNumberService.parse("+1 201 555 0199", null)));
+
+		// Only the shared country calling codes are cached
+		assertEquals(5, cache.size());
+	}
+
+	@Test
+	public void agreement() {
+		PhoneNumberRegionCache cache = new PhoneNumberRegionCache(phoneNumberService);
+
+		Random random = new Random(2018);
+		for (String region : phoneNumberService.getSupportedRegions()) {
+			int countryCode = phoneNumberService.getCountryCodeForRegion(region);
+			if (phoneNumberService.getRegionCodesForCountryCode(countryCode).size() == 1) {
+				continue;
+			}
+
+			List<PhoneNumber> phoneNumbers = new ArrayList<>();
+			for (PhoneNumberType type : PhoneNumberType.values()) {
+				PhoneNumber example = phoneNumberService.getExampleNumberForType(region, type);
+				if (example != null) {
+					phoneNumbers.add(example);
+				}
+			}
+
+			// Change the last digits of the examples, and random numbers
+			int examples = phoneNumbers.size();
+			for (int i = 0; i < examples; i++) {
+				for (int j = 0; j < 50; j++) {
+					PhoneNumber phoneNumber = new PhoneNumber().mergeFrom(phoneNumbers.get(i));
+					long scale = (long) Math.pow(10, 1 + random.nextInt(8));
+					long nationalNumber = phoneNumber.getNationalNumber() / scale * scale;
+					phoneNumber.setNationalNumber(nationalNumber + (long) (random.nextDouble() * scale));
+					phoneNumbers.add(phoneNumber);
+				}
+			}
+			for (int j = 0; j < 50; j++) {
+				PhoneNumber phoneNumber = new PhoneNumber().setCountryCode(countryCode)
+						.setNationalNumber((long) (random.nextDouble() * Math.pow(10, 1 + random.nextInt(15))));
+				if (j % 10 == 0) {
+					phoneNumber.setItalianLeadingZero(true);
+				}
+				phoneNumbers.add(phoneNumber);
+			}
+
+			// Twice, the second time from the cache
+			for (int pass = 0; pass < 2; pass++) {
+				for (PhoneNumber phoneNumber : phoneNumbers) {
+					assertEquals(region + " " + phoneNumberService.getNationalSignificantNumber(phoneNumber),
+							phoneNumberService.getRegionCodeForNumber(phoneNumber), cache.getRegionCode(phoneNumber));
+				}
+			}
+		}
+	}
+}
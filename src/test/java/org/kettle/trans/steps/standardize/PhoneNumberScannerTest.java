@@ -0,0 +1,95 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberFormat;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberType;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+public class PhoneNumberScannerTest {
+
+	private final PhoneNumberUtil phoneNumberService = PhoneNumberUtil.getInstance();
+	private final PhoneNumberScanner scanner = new PhoneNumberScanner(phoneNumberService);
+
+	@Test
+	public void canonical() throws Exception {
+		PhoneNumber phoneNumber = new PhoneNumber();
+
+		assertTrue(scanner.scan("+33612345678", phoneNumber));
+		assertTrue(scanner.isCanonical());
+		assertEquals(33, phoneNumber.getCountryCode());
+		assertEquals(612345678L, phoneNumber.getNationalNumber());
+		assertEquals("+33612345678", scanner.toE164());
+	}
+
+	@Test
+	public void separators() throws Exception {
+		PhoneNumber phoneNumber = new PhoneNumber();
+
+		assertTrue(scanner.scan("+33 6 12 34 56 78", phoneNumber));
+		assertFalse(scanner.isCanonical());
+		assertEquals("+33612345678", scanner.toE164());
+
+		assertTrue(scanner.scan("+1 (650) 253-0000", phoneNumber));
+		assertEquals("+16502530000", scanner.toE164());
+	}
+
+	@Test
+	public void notRecognized() throws Exception {
+		PhoneNumber phoneNumber = new PhoneNumber();
+
+		// National format
+		assertFalse(scanner.scan("06 12 34 56 78", phoneNumber));
+		// National prefix
+		assertFalse(scanner.scan("+33 (0)6 12 34 56 78", phoneNumber));
+		// Extension
+		assertFalse(scanner.scan("+33612345678 ext. 12", phoneNumber));
+		// Invalid country code
+		assertFalse(scanner.scan("+999123456", phoneNumber));
+		// Too short
+		assertFalse(scanner.scan("+336", phoneNumber));
+		// Garbage
+		assertFalse(scanner.scan("+", phoneNumber));
+		assertFalse(scanner.scan("N/A", phoneNumber));
+		assertFalse(scanner.scan("33+612345678", phoneNumber));
+		// Not a punctuation of libphonenumber
+		assertFalse(scanner.scan("+33\t612345678", phoneNumber));
+	}
+
+	/**
+	 * Every recognized number must be identical to the libphonenumber parser
+	 * result.
+	 */
+	@Test
+	public void sameAsParser() throws Exception {
+		PhoneNumber phoneNumber = new PhoneNumber();
+		int recognized = 0;
+
+		for (String region : phoneNumberService.getSupportedRegions()) {
+			for (PhoneNumberType type : phoneNumberService.getSupportedTypesForRegion(region)) {
+				PhoneNumber example = phoneNumberService.getExampleNumberForType(region, type);
+				if (example == null)
+					continue;
+
+				for (PhoneNumberFormat format : new PhoneNumberFormat[] { PhoneNumberFormat.E164,
+						PhoneNumberFormat.INTERNATIONAL }) {
+					String value = phoneNumberService.format(example, format);
+					if (scanner.scan(value, phoneNumber)) {
+						recognized++;
+						PhoneNumber expected = phoneNumberService.parse(value, region);
+						assertEquals(value, expected, phoneNumber);
+						assertEquals(value, phoneNumberService.format(expected, PhoneNumberFormat.E164),
+								scanner.toE164());
+					}
+				}
+			}
+		}
+
+		assertTrue(recognized > 1000);
+	}
+}
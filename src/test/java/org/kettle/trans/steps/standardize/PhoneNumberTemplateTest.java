@@ -0,0 +1,50 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class PhoneNumberTemplateTest {
+
+	@Test
+	public void format() {
+		PhoneNumberTemplate template = PhoneNumberTemplate.compile("+CC (NNN) NNN-NNNN");
+
+		assertEquals("+1 (201) 555-0123", template.format(1, "2015550123"));
+		assertEquals("+41 (446) 681-8000", template.format(41, "4466818000"));
+		assertNull(template.format(33, "612345678"));
+		assertEquals("+CC (NNN) NNN-NNNN", template.toString());
+	}
+
+	@Test
+	public void alternatives() {
+		PhoneNumberTemplate template = PhoneNumberTemplate.compile("+CC (NNN) NNN-NNNN|00C N NN NN NN NN");
+
+		assertEquals("+1 (201) 555-0123", template.format(1, "2015550123"));
+		assertEquals("0033 6 12 34 56 78", template.format(33, "612345678"));
+		assertNull(template.format(49, "301234567890"));
+	}
+
+	@Test
+	public void escape() {
+		PhoneNumberTemplate template = PhoneNumberTemplate.compile("\\C\\N\\\\ C-NNNN\\|");
+
+		assertEquals("CN\\ 39-0612|", template.format(39, "0612"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void noDigit() {
+		PhoneNumberTemplate.compile("+CC|NNN");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void sameDigits() {
+		PhoneNumberTemplate.compile("NNN|N-NN");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void escapeAtEnd() {
+		PhoneNumberTemplate.compile("NNN\\");
+	}
+}
@@ -0,0 +1,40 @@
+package org.kettle.trans.steps.standardize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberFormat;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+public class StandardizePhoneNumberStepTest {
+
+	private final PhoneNumberUtil phoneNumberService = PhoneNumberUtil.getInstance();
+
+	@Test
+	public void e164Number() throws Exception {
+		assertEquals(Long.valueOf(33612345678L),
+				StandardizePhoneNumberStep.toE164Number(phoneNumberService.parse("06 12 34 56 78", "FR")));
+
+		// Italian leading zero
+		assertEquals(Long.valueOf(390236618300L),
+				StandardizePhoneNumberStep.toE164Number(phoneNumberService.parse("02 3661 8300", "IT")));
+
+		PhoneNumber tooLong = new PhoneNumber().setCountryCode(33).setNationalNumber(1234567890123456789L);
+		assertNull(StandardizePhoneNumberStep.toE164Number(tooLong));
+	}
+
+	@Test
+	public void e164NumberSameAsFormat() throws Exception {
+		for (String region : phoneNumberService.getSupportedRegions()) {
+			PhoneNumber example = phoneNumberService.getExampleNumber(region);
+			if (example == null)
+				continue;
+
+			String expected = phoneNumberService.format(example, PhoneNumberFormat.E164).substring(1);
+			assertEquals(region, Long.valueOf(expected), StandardizePhoneNumberStep.toE164Number(example));
+		}
+	}
+}